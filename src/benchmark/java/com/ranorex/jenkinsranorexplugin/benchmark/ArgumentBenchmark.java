@@ -0,0 +1,122 @@
+package com.ranorex.jenkinsranorexplugin.benchmark;
+
+import com.ranorex.jenkinsranorexplugin.util.ArgumentToken;
+import com.ranorex.jenkinsranorexplugin.util.ArgumentTokenizer;
+import com.ranorex.jenkinsranorexplugin.util.BaseArgument;
+import com.ranorex.jenkinsranorexplugin.util.CmdArgument;
+import com.ranorex.jenkinsranorexplugin.util.RanorexParameter;
+import com.ranorex.jenkinsranorexplugin.util.StringUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of parsing the global parameter and command line argument fields of a job configuration
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ArgumentBenchmark {
+    private static final String ARGUMENT_SEPARATOR = "\t\r\n;";
+
+    @Param({"10", "1000", "5000"})
+    public int count;
+
+    private String globalParameters;
+    private String commandLineArguments;
+    private List<String> splitGlobalParameters;
+    private List<BaseArgument> parsedArguments;
+
+    @Setup
+    public void setUp() {
+        globalParameters = BenchmarkCorpus.globalParameters(count);
+        commandLineArguments = BenchmarkCorpus.commandLineArguments(count);
+        splitGlobalParameters = StringUtil.splitBy(globalParameters, ARGUMENT_SEPARATOR);
+        parsedArguments = new ArrayList<>();
+        for (String parameter : splitGlobalParameters) {
+            try {
+                parsedArguments.add(new RanorexParameter(parameter));
+            } catch (Exception e) {
+                //Malformed parameters are part of the corpus
+            }
+        }
+    }
+
+    @Benchmark
+    public List<String> splitGlobalParameters() {
+        return StringUtil.splitBy(globalParameters, ARGUMENT_SEPARATOR);
+    }
+
+    @Benchmark
+    public void parseGlobalParameters(Blackhole blackhole) {
+        for (String parameter : StringUtil.splitBy(globalParameters, ARGUMENT_SEPARATOR)) {
+            try {
+                RanorexParameter rxParam = new RanorexParameter(parameter);
+                rxParam.trim();
+                blackhole.consume(rxParam);
+            } catch (Exception e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+
+    @Benchmark
+    public void parseCommandLineArguments(Blackhole blackhole) {
+        for (String argument : StringUtil.splitBy(commandLineArguments, ARGUMENT_SEPARATOR)) {
+            try {
+                blackhole.consume(new CmdArgument(argument));
+            } catch (Exception e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<ArgumentToken> tokenizeGlobalParameters() {
+        return ArgumentTokenizer.tokenize(globalParameters);
+    }
+
+    @Benchmark
+    public void parseGlobalParameterTokens(Blackhole blackhole) {
+        for (ArgumentToken token : ArgumentTokenizer.tokenize(globalParameters)) {
+            blackhole.consume(RanorexParameter.parse(token));
+        }
+    }
+
+    @Benchmark
+    public void parseCommandLineArgumentTokens(Blackhole blackhole) {
+        for (ArgumentToken token : ArgumentTokenizer.tokenize(commandLineArguments)) {
+            blackhole.consume(CmdArgument.parse(token));
+        }
+    }
+
+    @Benchmark
+    public void argumentToString(Blackhole blackhole) {
+        for (BaseArgument argument : parsedArguments) {
+            blackhole.consume(argument.toString());
+        }
+    }
+
+    @Benchmark
+    public void removeHeadingSlash(Blackhole blackhole) {
+        for (String parameter : splitGlobalParameters) {
+            blackhole.consume(StringUtil.removeHeadingSlash(parameter));
+        }
+    }
+}
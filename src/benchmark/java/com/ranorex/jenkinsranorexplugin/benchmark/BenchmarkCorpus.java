@@ -0,0 +1,92 @@
+package com.ranorex.jenkinsranorexplugin.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Creates reproducible inputs for the benchmarks. The inputs mimic the content of real job configurations:
+ * global parameters with and without flag, ignored and malformed command line arguments and Windows paths.
+ */
+final class BenchmarkCorpus {
+    private static final long SEED = 4711L;
+    private static final String ARGUMENT_SEPARATOR = "\n";
+
+    private static final String[] VALID_ARGUMENTS = {
+            "/rl:Info", "/reportlevel:Debug", "/tcpa:Login:User=admin", "/rul:Nightly build",
+            "/tcdr:DataDriven=1-25", "/cfg:Timeout=30000", "/ts:Regression.rxtst", "/mo:OpenBrowser"
+    };
+    private static final String[] IGNORED_ARGUMENTS = {
+            "/pa:Ignored=1", "/reportfile:C:\\Reports\\Report.rxlog", "/zr", "/junit", "/rc:Smoke", "/testrail",
+            "/lp", "/trpass=secret"
+    };
+    private static final String[] MALFORMED_ARGUMENTS = {
+            "/", " ", "/:", ":=", "/rl:", "   /tcdr : testcase = 25    "
+    };
+    private static final String[] PATH_PREFIXES = {
+            "C:\\Jenkins\\workspace\\", "D:\\builds\\", "\\\\fileserver\\share\\ranorex\\", ".\\", "", "bin/"
+    };
+
+    private BenchmarkCorpus() {
+    }
+
+    /**
+     * @param count The number of parameters
+     * @return A global parameter field with valid, flagless and malformed parameters
+     */
+    static String globalParameters(int count) {
+        Random random = new Random(SEED);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            int kind = random.nextInt(10);
+            if (kind < 6) {
+                sb.append("/pa:Parameter").append(i).append("=Value ").append(random.nextInt(100000));
+            } else if (kind < 8) {
+                sb.append("Parameter").append(i).append(" = ").append(random.nextInt(100000));
+            } else if (kind < 9) {
+                sb.append("/param:Parameter").append(i).append("=C:\\Data\\File").append(i).append(".xlsx");
+            } else {
+                sb.append("/pa:Malformed").append(i);
+            }
+            sb.append(i % 2 == 0 ? ARGUMENT_SEPARATOR : ";");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param count The number of arguments
+     * @return A command line argument field with valid, ignored and malformed arguments
+     */
+    static String commandLineArguments(int count) {
+        Random random = new Random(SEED);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            int kind = random.nextInt(10);
+            if (kind < 6) {
+                sb.append(VALID_ARGUMENTS[random.nextInt(VALID_ARGUMENTS.length)]);
+            } else if (kind < 9) {
+                sb.append(IGNORED_ARGUMENTS[random.nextInt(IGNORED_ARGUMENTS.length)]);
+            } else {
+                sb.append(MALFORMED_ARGUMENTS[random.nextInt(MALFORMED_ARGUMENTS.length)]);
+            }
+            sb.append(ARGUMENT_SEPARATOR);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param count The number of paths
+     * @return Test suite paths with drive letters, UNC prefixes, relative and slash separated paths
+     */
+    static List<String> testSuitePaths(int count) {
+        Random random = new Random(SEED);
+        List<String> paths = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String prefix = PATH_PREFIXES[random.nextInt(PATH_PREFIXES.length)];
+            String separator = prefix.endsWith("/") ? "/" : "\\";
+            paths.add(prefix + "Job " + i + separator + "bin" + separator + "Release" + separator + "Suite" + i
+                    + ".rxtst");
+        }
+        return paths;
+    }
+}
@@ -0,0 +1,74 @@
+package com.ranorex.jenkinsranorexplugin.benchmark;
+
+import com.ranorex.jenkinsranorexplugin.util.FileUtil;
+import com.ranorex.jenkinsranorexplugin.util.StringUtil;
+import hudson.FilePath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the path utilities used for every build and form validation
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PathBenchmark {
+    private static final String WORKSPACE = "C:\\Jenkins\\workspace\\Ranorex Regression\\";
+
+    @Param({"1000"})
+    public int count;
+
+    private List<String> paths;
+    private FilePath workspace;
+
+    @Setup
+    public void setUp() {
+        paths = BenchmarkCorpus.testSuitePaths(count);
+        workspace = new FilePath(new File(WORKSPACE));
+    }
+
+    @Benchmark
+    public void splitPath(Blackhole blackhole) {
+        for (String path : paths) {
+            blackhole.consume(StringUtil.splitPath(path));
+        }
+    }
+
+    @Benchmark
+    public void isAbsolutePath(Blackhole blackhole) {
+        for (String path : paths) {
+            blackhole.consume(FileUtil.isAbsolutePath(path));
+        }
+    }
+
+    @Benchmark
+    public void combinePath(Blackhole blackhole) {
+        for (String path : paths) {
+            blackhole.consume(FileUtil.combinePath(WORKSPACE, path));
+        }
+    }
+
+    @Benchmark
+    public void getRanorexWorkingDirectory(Blackhole blackhole) {
+        for (String path : paths) {
+            blackhole.consume(FileUtil.getRanorexWorkingDirectory(workspace, path));
+        }
+    }
+}
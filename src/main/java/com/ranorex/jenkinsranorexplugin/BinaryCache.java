@@ -0,0 +1,268 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import com.ranorex.jenkinsranorexplugin.util.BinaryManifest;
+import com.ranorex.jenkinsranorexplugin.util.ContentCache;
+import com.ranorex.jenkinsranorexplugin.util.FileUtil;
+import com.ranorex.jenkinsranorexplugin.util.StringUtil;
+import hudson.AbortException;
+import hudson.FilePath;
+import hudson.model.Computer;
+import hudson.model.Item;
+import hudson.model.Job;
+import hudson.model.Node;
+import hudson.model.Queue;
+import hudson.model.Run;
+import hudson.model.queue.Tasks;
+import hudson.remoting.RemoteInputStream;
+import hudson.remoting.VirtualChannel;
+import hudson.util.AtomicFileWriter;
+import jenkins.MasterToSlaveFileCallable;
+import jenkins.model.Jenkins;
+import jenkins.util.VirtualFile;
+import org.acegisecurity.Authentication;
+
+import javax.annotation.CheckForNull;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Copies the test suite from the artifacts of another build into the working directory through a content-addressed
+ * cache on the node.
+ * <p>
+ * The artifacts are hashed once per source build and the hashes are stored in the build directory. Only files
+ * whose content is not cached on the node yet are transferred, all other files are copied from the cache. The
+ * cache of each node is limited to {@link #MAX_SIZE} bytes, the least recently used files are deleted first.
+ */
+abstract class BinaryCache {
+    private static final Logger LOGGER = Logger.getLogger(BinaryCache.class.getName());
+    private static final String MANIFEST_FILE = "ranorex-binaries.txt";
+    private static final String CACHE_DIRECTORY = "ranorex-cache";
+    /** Serializes the reading and writing of the manifest files of the source builds */
+    private static final Object MANIFEST_LOCK = new Object();
+    static final String DEFAULT_FILTER = "**";
+    static final long MAX_SIZE = Long.getLong(BinaryCache.class.getName() + ".maxSize", 2L * 1024 * 1024 * 1024);
+
+    /**
+     * Places the artifacts of the source build in the working directory of the test suite
+     *
+     * @param run           The current build
+     * @param workspace     The workspace used to resolve the working directory of the test executable
+     * @param testSuiteFile The configured path of the test suite
+     * @param source        The full name of the job which archives the test suite, optionally followed by
+     *                      {@code #} and a build number. Without a build number the last successful build is used.
+     * @param filter        Ant style pattern of the artifacts to copy, all artifacts if empty
+     * @param logger        Receives the progress
+     * @throws AbortException       If the source build does not exist or the build may not copy its artifacts
+     * @throws IOException          If the artifacts cannot be read or the node cannot be reached
+     * @throws InterruptedException If the build is aborted
+     */
+    static void sync(Run<?, ?> run, FilePath workspace, String testSuiteFile, String source,
+                     @CheckForNull String filter, PrintStream logger) throws IOException, InterruptedException {
+        Run<?, ?> build = findBuild(run, source.trim());
+        String pattern = StringUtil.isNullOrSpace(filter) ? DEFAULT_FILTER : filter.trim();
+        VirtualFile artifacts = build.getArtifactManager().root();
+        List<String> paths = Arrays.asList(artifacts.list(pattern));
+        BinaryManifest manifest = getManifest(build, artifacts, paths).select(paths);
+        if (manifest.getHashes().isEmpty()) {
+            throw new AbortException("No artifacts of " + build.getFullDisplayName() + " match '" + pattern + "'");
+        }
+
+        FilePath cache = getCacheDirectory(workspace);
+        List<String> missing = cache.act(new Missing(manifest.getDistinctHashes()));
+        Map<String, String> pathsByHash = new HashMap<>();
+        for (Map.Entry<String, String> entry : manifest.getHashes().entrySet()) {
+            pathsByHash.put(entry.getValue(), entry.getKey());
+        }
+        for (String hash : missing) {
+            try (InputStream in = artifacts.child(pathsByHash.get(hash)).open()) {
+                cache.act(new Store(hash, new RemoteInputStream(in, RemoteInputStream.Flag.GREEDY)));
+            }
+        }
+        int changed = workspace.act(new Materializer(testSuiteFile, cache.getRemote(), manifest, MAX_SIZE));
+        logger.println("Ranorex test suite: " + manifest.getHashes().size() + " files of "
+                + build.getFullDisplayName() + ", " + missing.size() + " transferred, " + changed + " updated");
+    }
+
+    private static Run<?, ?> findBuild(Run<?, ?> run, String source) throws AbortException {
+        String name = source;
+        String number = null;
+        int separator = source.lastIndexOf('#');
+        if (separator >= 0) {
+            name = source.substring(0, separator);
+            number = source.substring(separator + 1).trim();
+        }
+        // The build runs as the system user unless an authorization strategy for builds is installed
+        Authentication auth = run.getParent() instanceof Queue.Task
+                ? Tasks.getAuthenticationOf((Queue.Task) run.getParent()) : Jenkins.getAuthentication();
+        Job<?, ?> job = Jenkins.getInstance().getItem(name.trim(), run.getParent(), Job.class);
+        if (job == null || ! job.getACL().hasPermission(auth, Item.READ)) {
+            // Jobs which cannot be read are reported like missing jobs, so their names are not disclosed
+            throw new AbortException("Ranorex test suite job '" + name + "' does not exist");
+        }
+        Run<?, ?> build;
+        if (StringUtil.isNullOrSpace(number)) {
+            build = job.getLastSuccessfulBuild();
+        } else {
+            try {
+                build = job.getBuildByNumber(Integer.parseInt(number));
+            } catch (NumberFormatException e) {
+                throw new AbortException("'" + number + "' is not a build number");
+            }
+        }
+        if (build == null) {
+            throw new AbortException("Ranorex test suite build '" + source + "' does not exist");
+        }
+        if (! build.getACL().hasPermission(auth, Run.ARTIFACTS)) {
+            throw new AbortException(auth.getName() + " is not allowed to copy the artifacts of "
+                    + build.getFullDisplayName());
+        }
+        return build;
+    }
+
+    /**
+     * Returns the hashes of the artifacts of a build. Artifacts do not change after the build has completed, so
+     * each artifact is hashed only once.
+     */
+    private static BinaryManifest getManifest(Run<?, ?> build, VirtualFile artifacts, List<String> paths)
+            throws IOException {
+        File file = new File(build.getRootDir(), MANIFEST_FILE);
+        synchronized (MANIFEST_LOCK) {
+            BinaryManifest manifest = new BinaryManifest();
+            if (file.isFile()) {
+                try (InputStream in = new FileInputStream(file)) {
+                    manifest = BinaryManifest.read(in);
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Cannot read " + file, e);
+                }
+            }
+            boolean added = false;
+            for (String path : paths) {
+                VirtualFile artifact = artifacts.child(path);
+                if (! manifest.contains(path)) {
+                    try (InputStream in = artifact.open()) {
+                        manifest.put(path, ContentCache.hashOf(in), artifact.length(), artifact.lastModified());
+                    }
+                    added = true;
+                } else if (manifest.getLastModified(path) == 0 && artifact.lastModified() > 0) {
+                    // Manifests of earlier versions do not contain the last modification time
+                    manifest.put(path, manifest.getHashes().get(path), manifest.getSize(path),
+                            artifact.lastModified());
+                    added = true;
+                }
+            }
+            if (added) {
+                AtomicFileWriter writer = new AtomicFileWriter(file, "UTF-8");
+                try {
+                    manifest.write(writer);
+                    writer.commit();
+                } finally {
+                    writer.abort();
+                }
+            }
+            return manifest;
+        }
+    }
+
+    private static FilePath getCacheDirectory(FilePath workspace) throws AbortException {
+        Computer computer = workspace.toComputer();
+        Node node = computer != null ? computer.getNode() : null;
+        FilePath root = node != null ? node.getRootPath() : null;
+        if (root == null) {
+            throw new AbortException("The node of " + workspace.getRemote() + " is offline");
+        }
+        return root.child(CACHE_DIRECTORY);
+    }
+
+    /**
+     * Returns the hashes which are not cached on the node
+     */
+    static final class Missing extends MasterToSlaveFileCallable<List<String>> {
+        private static final long serialVersionUID = 1L;
+
+        private final HashSet<String> hashes;
+
+        Missing(Set<String> hashes) {
+            this.hashes = new HashSet<>(hashes);
+        }
+
+        @Override
+        public List<String> invoke(File cache, VirtualChannel channel) {
+            return new ContentCache(cache).getMissing(hashes);
+        }
+    }
+
+    /**
+     * Adds a transferred file to the cache of the node
+     */
+    static final class Store extends MasterToSlaveFileCallable<Void> {
+        private static final long serialVersionUID = 1L;
+
+        private final String hash;
+        private final InputStream content;
+
+        Store(String hash, InputStream content) {
+            this.hash = hash;
+            this.content = content;
+        }
+
+        @Override
+        public Void invoke(File cache, VirtualChannel channel) throws IOException {
+            new ContentCache(cache).put(hash, content);
+            return null;
+        }
+    }
+
+    /**
+     * Places the cached files in the working directory and evicts the least recently used files
+     */
+    static final class Materializer extends MasterToSlaveFileCallable<Integer> {
+        private static final long serialVersionUID = 1L;
+        /** Serializes the eviction of concurrent builds on the node */
+        private static final Object LOCK = new Object();
+
+        private final String testSuiteFile;
+        private final String cache;
+        private final BinaryManifest manifest;
+        private final long maxSize;
+
+        Materializer(String testSuiteFile, String cache, BinaryManifest manifest, long maxSize) {
+            this.testSuiteFile = testSuiteFile;
+            this.cache = cache;
+            this.manifest = manifest;
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public Integer invoke(File workspace, VirtualChannel channel) throws IOException {
+            File directory = new File(FileUtil.getRanorexWorkingDirectory(workspace.getPath(), testSuiteFile)
+                    .replace('\\', File.separatorChar));
+            ContentCache contentCache = new ContentCache(new File(cache));
+            int changed = 0;
+            synchronized (LOCK) {
+                for (Map.Entry<String, String> entry : manifest.getHashes().entrySet()) {
+                    String path = entry.getKey();
+                    if (Arrays.asList(path.split("/")).contains("..")) {
+                        continue;
+                    }
+                    if (contentCache.materialize(entry.getValue(), new File(directory,
+                            path.replace('/', File.separatorChar)), manifest.getLastModified(path))) {
+                        changed++;
+                    }
+                }
+                contentCache.evict(maxSize, manifest.getDistinctHashes());
+            }
+            return changed;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import hudson.AbortException;
+import hudson.EnvVars;
+import hudson.Util;
+
+import java.io.Closeable;
+import java.io.PrintStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Gives a build exclusive use of the interactive desktop of a node while its test executable runs.
+ * <p>
+ * Every node has a fair queue, builds get the desktop in the order they asked for it. Only the test executable
+ * holds the lease, so the checkout and the report processing of other builds on the node continue in parallel. An
+ * agent which runs in its own desktop session is a node of its own, so the queue of a node is the queue of a
+ * desktop session. The leases are held by the controller, a Pipeline step takes its lease again when it resumes
+ * after a restart. The desktop is only freed when the holder closes its lease, a holder whose test executable
+ * exceeds the lease timeout kills it first, so the next build never shares the desktop with it.
+ */
+final class DesktopLease implements Closeable {
+    private static final ConcurrentMap<String, Semaphore> DESKTOPS = new ConcurrentHashMap<>();
+
+    private final Semaphore desktop;
+    private final long waited;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private DesktopLease(Semaphore desktop, long waited) {
+        this.desktop = desktop;
+        this.waited = waited;
+    }
+
+    /**
+     * @param env The environment variables of the build
+     * @return The name of the node whose desktop the build uses
+     */
+    static String getNode(EnvVars env) {
+        return env.get("NODE_NAME", "master");
+    }
+
+    /**
+     * Waits until the desktop of the node is free, the lease is held until it is closed
+     *
+     * @param node    The name of the node
+     * @param timeout The maximum time to wait in milliseconds, 0 to wait without limit
+     * @param logger  Receives a message if the build has to wait
+     * @return The lease, which must be closed when the test executable terminated
+     * @throws AbortException       If the desktop was not free within the timeout
+     * @throws InterruptedException If the build is aborted while waiting
+     */
+    static DesktopLease acquire(String node, long timeout, PrintStream logger) throws AbortException,
+            InterruptedException {
+        Semaphore desktop = DESKTOPS.computeIfAbsent(node, n -> new Semaphore(1, true));
+        long start = System.nanoTime();
+        // Unlike tryAcquire(), a zero timeout respects the builds which are already waiting
+        if (! desktop.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+            logger.println("Waiting for the desktop of " + node + ", " + (desktop.getQueueLength() + 1)
+                    + " build(s) ahead");
+            if (timeout <= 0) {
+                desktop.acquire();
+            } else if (! desktop.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                throw new AbortException("The desktop of " + node + " was not free within "
+                        + Util.getTimeSpanString(timeout));
+            }
+        }
+        return new DesktopLease(desktop, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * @return The time in milliseconds the build waited for the desktop
+     */
+    long getWaited() {
+        return waited;
+    }
+
+    /**
+     * Frees the desktop for the next build in the queue, further calls have no effect
+     */
+    @Override
+    public void close() {
+        if (released.compareAndSet(false, true)) {
+            desktop.release();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import com.ranorex.jenkinsranorexplugin.util.JUnitReportSummary;
+import hudson.EnvVars;
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.util.ArgumentListBuilder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs the failed test cases of an invocation again. Every failed test case is run by its own invocation of the
+ * test executable, test cases which pass are no longer counted as failed in the JUnit summary.
+ */
+final class FailedTestRetry {
+    private final RanorexExecution execution;
+    private final int retryCount;
+
+    /**
+     * @param execution  The prepared execution
+     * @param retryCount The maximum number of times a failed test case is run again
+     */
+    FailedTestRetry(RanorexExecution execution, int retryCount) {
+        this.execution = execution;
+        this.retryCount = retryCount;
+    }
+
+    /**
+     * Runs the failed test cases of the summary again until they pass or the retry count is reached
+     *
+     * @param summary      The JUnit summary of the first invocation, updated with the outcome of the retries
+     * @param launcher     Starts the processes
+     * @param env          The environment variables of the processes
+     * @param reportSuffix The report suffix of the first invocation
+     * @param junitReports Receives the JUnit reports of the retries
+     * @return True if all failed test cases passed on retry
+     * @throws IOException          If a process cannot be started or a report cannot be read
+     * @throws InterruptedException If the build is aborted
+     */
+    boolean retry(JUnitReportSummary summary, Launcher launcher, EnvVars env, String reportSuffix,
+                  List<FilePath> junitReports) throws IOException, InterruptedException {
+        PrintStream logger = execution.getLogger();
+        Set<String> failedTests = summary.getFailedTestNames();
+        if (failedTests.isEmpty()) {
+            logger.println("No failed test cases found in the JUnit report, nothing to retry");
+            return false;
+        }
+        if (! summary.isComplete()) {
+            logger.println("Too many failed test cases to retry: " + (summary.getFailures() + summary.getErrors()));
+            return false;
+        }
+        for (int attempt = 1; attempt <= retryCount && ! failedTests.isEmpty(); attempt++) {
+            logger.println("Retry " + attempt + " of " + retryCount + ": " + failedTests.size()
+                    + " failed test cases");
+            Set<String> stillFailed = new LinkedHashSet<>();
+            int i = 0;
+            for (String testName : failedTests) {
+                String suffix = reportSuffix + "_retry" + attempt + "_" + (++i);
+                JUnitReportLocator locator = JUnitReportLocator.snapshot(execution.getReportDirectory(),
+                        execution.getUsedRxReportFile() + suffix);
+                ArgumentListBuilder arguments = execution.createArguments(suffix, "/testcase:" + testName, "/junit");
+                ReportArchiver archiver = execution.startReportArchiver();
+                int exitCode = execution.launch(launcher, env, suffix, arguments);
+                List<FilePath> reports = new ArrayList<>(locator.findNewReports());
+                junitReports.addAll(reports);
+                execution.archiveReport(archiver, suffix);
+                if (execution.getTimeout() != null) {
+                    return false;
+                }
+                JUnitReportSummary retried = execution.summarizeJUnitReports(reports);
+                if (exitCode == 0 && retried.getFailures() + retried.getErrors() == 0) {
+                    logger.println("Test case '" + testName + "' passed on retry " + attempt);
+                    summary.markPassed(testName);
+                } else {
+                    stillFailed.add(testName);
+                }
+            }
+            failedTests = stillFailed;
+        }
+        if (! failedTests.isEmpty()) {
+            logger.println("Test cases still failing after " + retryCount + " retries: " + failedTests);
+        }
+        return failedTests.isEmpty();
+    }
+}
@@ -0,0 +1,68 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import com.ranorex.jenkinsranorexplugin.util.ConsoleFilter;
+import com.ranorex.jenkinsranorexplugin.util.RingBuffer;
+import hudson.console.LineTransformationOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+/**
+ * Writes every line of the output of the test executable to the full log and to a ring buffer, but passes only the
+ * relevant lines to the build log. Runs on the node, so the filtered lines never leave it.
+ */
+final class FilteredConsoleOutputStream extends LineTransformationOutputStream {
+    private final OutputStream out;
+    private final OutputStream fullLog;
+    private final RingBuffer buffer;
+    private final Charset charset;
+
+    /**
+     * @param out     Receives the relevant lines, it is not closed by this stream
+     * @param fullLog Receives all lines, it is closed by this stream
+     * @param buffer  Keeps the last lines in case the test run fails
+     * @param charset The encoding of the output
+     */
+    FilteredConsoleOutputStream(OutputStream out, OutputStream fullLog, RingBuffer buffer, Charset charset) {
+        this.out = out;
+        this.fullLog = fullLog;
+        this.buffer = buffer;
+        this.charset = charset;
+    }
+
+    @Override
+    protected void eol(byte[] b, int len) throws IOException {
+        fullLog.write(b, 0, len);
+        buffer.write(b, 0, len);
+        if (ConsoleFilter.isRelevant(trimEOL(new String(b, 0, len, charset)))) {
+            out.write(b, 0, len);
+        }
+    }
+
+    /**
+     * Passes the lines kept in the ring buffer to the build log
+     *
+     * @throws IOException If the build log cannot be written
+     */
+    void writeBuffer() throws IOException {
+        String header = buffer.getDropped() > 0
+                ? "Last " + buffer.size() + " bytes of the console output, " + buffer.getDropped() + " bytes omitted:"
+                : "Console output:";
+        out.write((header + System.lineSeparator()).getBytes(charset));
+        buffer.writeTo(out);
+        out.flush();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        forceEol();
+        fullLog.close();
+        out.flush();
+    }
+}
@@ -0,0 +1,165 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import com.ranorex.jenkinsranorexplugin.util.RingBuffer;
+import hudson.EnvVars;
+import hudson.Launcher;
+import hudson.Proc;
+import hudson.remoting.RemoteOutputStream;
+import hudson.remoting.VirtualChannel;
+import hudson.util.ArgumentListBuilder;
+import hudson.util.StreamTaskListener;
+import jenkins.MasterToSlaveFileCallable;
+
+import javax.annotation.CheckForNull;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Starts the test executable on the node and filters its output there.
+ * <p>
+ * Only errors, warnings and the start and end of test cases are sent to the build log. The complete output is
+ * written to a compressed log next to the report, the last {@link #BUFFER_SIZE} bytes are kept in memory and sent to
+ * the build log only if the test run fails. The process is started directly on the node, so the output does not pass
+ * the channel, which is why a launcher decorated by a build wrapper cannot be used, see {@link #supports(Launcher)}.
+ */
+final class FilteredLaunch extends MasterToSlaveFileCallable<FilteredLaunch.Result> {
+    private static final long serialVersionUID = 1L;
+    static final int BUFFER_SIZE = Integer.getInteger(FilteredLaunch.class.getName() + ".bufferSize",
+            4 * 1024 * 1024);
+    static final String LOG_EXTENSION = ".console.log.gz";
+
+    private final ArgumentListBuilder arguments;
+    private final EnvVars env;
+    private final String log;
+    private final long timeout;
+    private final long inactivityTimeout;
+    private final long leaseTimeout;
+    private final int bufferSize;
+    private final OutputStream out;
+
+    /**
+     * @param arguments         The command line of the test executable
+     * @param env               The environment variables of the process
+     * @param log               The path of the compressed log on the node
+     * @param timeout           The maximum runtime in milliseconds, 0 to disable the run timeout
+     * @param inactivityTimeout The maximum time without output in milliseconds, 0 to disable it
+     * @param leaseTimeout      The maximum time in milliseconds the process may hold the desktop, 0 to disable it
+     * @param out               Receives the filtered output on the controller
+     */
+    FilteredLaunch(ArgumentListBuilder arguments, EnvVars env, String log, long timeout, long inactivityTimeout,
+                   long leaseTimeout, OutputStream out) {
+        this.arguments = arguments;
+        this.env = env;
+        this.log = log;
+        this.timeout = timeout;
+        this.inactivityTimeout = inactivityTimeout;
+        this.leaseTimeout = leaseTimeout;
+        this.bufferSize = BUFFER_SIZE;
+        this.out = new RemoteOutputStream(out);
+    }
+
+    /**
+     * @param launcher The launcher of the build
+     * @return True if the launcher starts processes on the node without changing them, so they can be started by
+     * the filtered launch instead
+     */
+    static boolean supports(Launcher launcher) {
+        return launcher instanceof Launcher.LocalLauncher || launcher instanceof Launcher.RemoteLauncher;
+    }
+
+    @Override
+    public Result invoke(File workspace, VirtualChannel channel) throws IOException, InterruptedException {
+        File logFile = new File(log);
+        File parent = logFile.getParentFile();
+        if (parent != null && ! parent.isDirectory() && ! parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+        Launcher launcher = new Launcher.LocalLauncher(new StreamTaskListener(out));
+        RingBuffer buffer = new RingBuffer(bufferSize);
+        FilteredConsoleOutputStream filtered = new FilteredConsoleOutputStream(out,
+                new GZIPOutputStream(new FileOutputStream(logFile), 64 * 1024), buffer, Charset.defaultCharset());
+        Watchdog watchdog = new Watchdog(timeout, inactivityTimeout, leaseTimeout);
+        OutputStream watched = watchdog.watch(filtered);
+        Proc proc = null;
+        try {
+            long spawn = Watchdog.now();
+            proc = launcher.launch().cmds(arguments).envs(env).pwd(workspace).stdout(watched).start();
+            long started = Watchdog.now();
+            int exitCode = watchdog.join(proc);
+            long finished = Watchdog.now();
+            watched.close();
+            filtered.close();
+            if (exitCode != 0 || watchdog.getCause() != null) {
+                filtered.writeBuffer();
+            }
+            long firstOutput = watchdog.getFirstActivity() >= 0 ? watchdog.getFirstActivity() - started : -1;
+            return new Result(exitCode, watchdog.getCause(), started - spawn, finished - started, firstOutput);
+        } finally {
+            if (proc != null && proc.isAlive()) {
+                // The call was interrupted or the output could not be written, the process must not outlive it
+                proc.kill();
+            }
+            filtered.close();
+        }
+    }
+
+    /**
+     * The outcome of the filtered launch as seen by the node
+     */
+    static final class Result implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final int exitCode;
+        @CheckForNull
+        private final RanorexTimeoutCause cause;
+        private final long spawn;
+        private final long execution;
+        private final long firstOutput;
+
+        Result(int exitCode, @CheckForNull RanorexTimeoutCause cause, long spawn, long execution, long firstOutput) {
+            this.exitCode = exitCode;
+            this.cause = cause;
+            this.spawn = spawn;
+            this.execution = execution;
+            this.firstOutput = firstOutput;
+        }
+
+        int getExitCode() {
+            return exitCode;
+        }
+
+        /**
+         * @return The exceeded timeout or null if the process terminated on its own
+         */
+        @CheckForNull
+        RanorexTimeoutCause getCause() {
+            return cause;
+        }
+
+        /**
+         * @return The time in milliseconds it took to start the process
+         */
+        long getSpawn() {
+            return spawn;
+        }
+
+        /**
+         * @return The runtime of the process in milliseconds
+         */
+        long getExecution() {
+            return execution;
+        }
+
+        /**
+         * @return The time in milliseconds until the first output, or -1 if the process wrote no output
+         */
+        long getFirstOutput() {
+            return firstOutput;
+        }
+    }
+}
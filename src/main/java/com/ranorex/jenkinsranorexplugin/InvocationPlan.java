@@ -0,0 +1,389 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import com.ranorex.jenkinsranorexplugin.util.ArgumentToken;
+import com.ranorex.jenkinsranorexplugin.util.CmdArgument;
+import com.ranorex.jenkinsranorexplugin.util.FileUtil;
+import com.ranorex.jenkinsranorexplugin.util.ParsedArgument;
+import com.ranorex.jenkinsranorexplugin.util.RanorexFlag;
+import com.ranorex.jenkinsranorexplugin.util.RanorexParameter;
+import com.ranorex.jenkinsranorexplugin.util.StringUtil;
+import com.ranorex.jenkinsranorexplugin.util.VariableTemplate;
+import hudson.Util;
+import hudson.util.ArgumentListBuilder;
+import org.apache.commons.lang.BooleanUtils;
+
+import javax.annotation.CheckForNull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, precompiled form of a Ranorex test suite invocation.
+ * <p>
+ * Everything that only depends on the builder configuration (executable name, report file names,
+ * TestRail arguments, global parameters and additional command line arguments) is parsed once and
+ * reused for every build. Only the build specific values, such as the report directories inside the
+ * current workspace, are added in {@link #createArguments(String, String)}.
+ * <p>
+ * The run configuration, the report file names, the global parameters and the additional command line arguments
+ * may reference environment variables like {@code ${BUILD_NUMBER}}. They are compiled to {@link VariableTemplate}s
+ * with the plan, so a build only substitutes the values of its environment.
+ * <p>
+ * If the global parameters are passed in a generated test suite, they are not part of the command line. The build
+ * writes {@link #getGlobalParameterValues(Map)} into the generated test suite instead.
+ */
+public final class InvocationPlan {
+    static final String DEFAULT_REPORT_FILE = "%S_%Y%M%D_%T";
+    static final String ZIPPED_REPORT_EXTENSION = ".rxzlog";
+    private static final String FIELD_SEPARATOR = "\u0000";
+
+    private final String fingerprint;
+    @CheckForNull
+    private final String configurationError;
+    @CheckForNull
+    private final String executableFile;
+    private final VariableTemplate reportFile;
+    private final VariableTemplate zippedReportFile;
+    private final List<Argument> leadingArguments;
+    private final List<Argument> trailingArguments;
+    private final List<String> globalParameters;
+    private final List<String> ignoredGlobalParameters;
+    private final List<String> commandLineArguments;
+    private final List<String> ignoredCommandLineArguments;
+    private final boolean zippedReport;
+    private final boolean junitReport;
+    private final boolean parameterSuite;
+    private final Map<String, VariableTemplate> parameterValues;
+    private final String reportExtension;
+
+    /**
+     * Compiles the invocation plan for the current configuration of the given builder
+     *
+     * @param builder The configured builder
+     */
+    InvocationPlan(RanorexRunnerBuilder builder) {
+        this.fingerprint = fingerprintOf(builder);
+        this.reportExtension = builder.getRxReportExtension();
+        this.zippedReport = BooleanUtils.isTrue(builder.getRxZippedReport());
+        this.junitReport = BooleanUtils.isTrue(builder.getRxJUnitReport());
+        this.parameterSuite = BooleanUtils.isTrue(builder.getRxParameterSuite())
+                || builder.getRxParameterFile() != null;
+
+        List<Argument> leading = new ArrayList<>();
+        List<Argument> trailing = new ArrayList<>();
+        List<String> parameters = new ArrayList<>();
+        List<String> ignoredParameters = new ArrayList<>();
+        Map<String, VariableTemplate> values = new LinkedHashMap<>();
+        List<String> arguments = new ArrayList<>();
+        List<String> ignoredArguments = new ArrayList<>();
+        String error = null;
+
+        String testSuiteFile = builder.getRxTestSuiteFilePath();
+        if (! StringUtil.isNullOrSpace(testSuiteFile)) {
+            executableFile = FileUtil.getExecutableFromTestSuite(testSuiteFile);
+            leading.add(new Argument(VariableTemplate.literal(executableFile), false, null));
+            // Ranorex Run Configuration
+            if (! StringUtil.isNullOrSpace(builder.getRxRunConfiguration())) {
+                leading.add(new Argument(VariableTemplate.compile("/runconfig:" + builder.getRxRunConfiguration()),
+                        false, RanorexFlag.RUN_CONFIG));
+            }
+        } else {
+            executableFile = null;
+        }
+
+        // ReportFilename
+        String rxReportFile = builder.getRxReportFile();
+        if (! StringUtil.isNullOrSpace(rxReportFile)) {
+            if (! FileUtil.isAbsolutePath(rxReportFile)) {
+                reportFile = VariableTemplate.compile(FileUtil.removeFileExtension(rxReportFile));
+            } else {
+                reportFile = null;
+                error = "'" + rxReportFile + "' is not a valid Ranorex Report filename";
+            }
+        } else {
+            reportFile = VariableTemplate.literal(DEFAULT_REPORT_FILE);
+        }
+
+        // JUnit compatible Report
+        if (junitReport) {
+            trailing.add(new Argument(VariableTemplate.literal("/junit"), false, RanorexFlag.JUNIT));
+        }
+
+        // Zipped Report File Name
+        String rxZippedReportFile = builder.getRxZippedReportFile();
+        if (zippedReport && ! StringUtil.isNullOrSpace(rxZippedReportFile)) {
+            if (! FileUtil.isAbsolutePath(rxZippedReportFile)) {
+                zippedReportFile = VariableTemplate.compile(FileUtil.removeFileExtension(rxZippedReportFile));
+            } else {
+                zippedReportFile = null;
+                error = error != null ? error : "'" + rxZippedReportFile + "' is not a valid Ranorex Report filename";
+            }
+        } else {
+            zippedReportFile = reportFile;
+        }
+
+        // Test Rail
+        if (BooleanUtils.isTrue(builder.getRxTestRail())) {
+            trailing.add(new Argument(VariableTemplate.literal("/testrail"), false, RanorexFlag.TEST_RAIL));
+            if (! StringUtil.isNullOrSpace(builder.getRxTestRailUser())
+                    && ! StringUtil.isNullOrSpace(builder.getRxTestRailPassword())) {
+                trailing.add(new Argument(VariableTemplate.literal("/truser=" + builder.getRxTestRailUser()), true,
+                        RanorexFlag.TEST_RAIL_USER));
+                trailing.add(new Argument(VariableTemplate.literal("/trpass=" + builder.getRxTestRailPassword()),
+                        true, RanorexFlag.TEST_RAIL_PASSWORD));
+            } else if (error == null) {
+                error = "Testrail username and password are required";
+            }
+            if (! StringUtil.isNullOrSpace(builder.getRxTestRailRID())) {
+                trailing.add(new Argument(VariableTemplate.literal("/trrunid=" + builder.getRxTestRailRID()), false,
+                        RanorexFlag.TEST_RAIL_RUN_ID));
+            }
+            if (! StringUtil.isNullOrSpace(builder.getRxTestRailRunName())) {
+                trailing.add(new Argument(VariableTemplate.literal("/trrunname=" + builder.getRxTestRailRunName()),
+                        false, RanorexFlag.TEST_RAIL_RUN_NAME));
+            }
+        }
+
+        // Parse Global Parameters
+        for (ParsedArgument<RanorexParameter> parsed : RanorexParameter.parseAll(builder.getRxGlobalParameter())) {
+            if (parsed.isValid()) {
+                RanorexParameter rxParam = parsed.getArgument();
+                rxParam.trim();
+                parameters.add(rxParam.toString());
+                if (parameterSuite) {
+                    values.put(rxParam.getName(), VariableTemplate.compile(rxParam.getValue()));
+                } else {
+                    trailing.add(new Argument(VariableTemplate.compile(rxParam.toString()), false,
+                            RanorexFlag.PARAM));
+                }
+            } else {
+                ignoredParameters.add(parsed.getToken().getText());
+            }
+        }
+
+        // Additional cmd arguments
+        for (ParsedArgument<CmdArgument> parsed : CmdArgument.parseAll(builder.getCmdLineArgs())) {
+            if (parsed.isValid()) {
+                CmdArgument arg = parsed.getArgument();
+                arguments.add(arg.toString());
+                trailing.add(new Argument(VariableTemplate.compile(arg.toString()), false, arg.getRanorexFlag()));
+            } else {
+                ignoredArguments.add(parsed.getToken().getText());
+            }
+        }
+
+        this.configurationError = error;
+        this.leadingArguments = Collections.unmodifiableList(leading);
+        this.trailingArguments = Collections.unmodifiableList(trailing);
+        this.globalParameters = Collections.unmodifiableList(parameters);
+        this.parameterValues = Collections.unmodifiableMap(values);
+        this.ignoredGlobalParameters = Collections.unmodifiableList(ignoredParameters);
+        this.commandLineArguments = Collections.unmodifiableList(arguments);
+        this.ignoredCommandLineArguments = Collections.unmodifiableList(ignoredArguments);
+    }
+
+    /**
+     * Calculates the fingerprint of the current builder configuration
+     *
+     * @param builder The configured builder
+     * @return A digest over all configuration fields which influence the invocation
+     */
+    static String fingerprintOf(RanorexRunnerBuilder builder) {
+        StringBuilder sb = new StringBuilder();
+        Object[] fields = {
+                builder.getRxTestSuiteFilePath(), builder.getRxRunConfiguration(), builder.getRxReportDirectory(),
+                builder.getRxReportFile(), builder.getRxReportExtension(), builder.getRxJUnitReport(),
+                builder.getRxZippedReport(), builder.getRxZippedReportDirectory(), builder.getRxZippedReportFile(),
+                builder.getRxTestRail(), builder.getRxTestRailUser(), builder.getRxTestRailPassword(),
+                builder.getRxTestRailRID(), builder.getRxTestRailRunName(), builder.getRxGlobalParameter(),
+                builder.getCmdLineArgs(), builder.getRxParameterSuite(), builder.getRxParameterFile()
+        };
+        for (Object field : fields) {
+            sb.append(field).append(FIELD_SEPARATOR);
+        }
+        return Util.getDigestOf(sb.toString());
+    }
+
+    /**
+     * Creates the argument list for a single build
+     *
+     * @param reportDirectory       The absolute report directory including the trailing backslash
+     * @param zippedReportDirectory The absolute zipped report directory including the trailing backslash
+     * @return The complete list of arguments, starting with the test executable
+     */
+    public ArgumentListBuilder createArguments(String reportDirectory, String zippedReportDirectory) {
+        return createArguments(reportDirectory, zippedReportDirectory, "");
+    }
+
+    /**
+     * Creates the argument list for a single invocation of the test executable
+     *
+     * @param reportDirectory       The absolute report directory including the trailing backslash
+     * @param zippedReportDirectory The absolute zipped report directory including the trailing backslash
+     * @param reportSuffix          Appended to the report file names, used to separate several invocations
+     * @param extraArguments        Appended to the argument list. They replace configured arguments with the same
+     *                              flag, unless the flag may be repeated.
+     * @return The complete list of arguments, starting with the test executable
+     */
+    public ArgumentListBuilder createArguments(String reportDirectory, String zippedReportDirectory,
+                                               String reportSuffix, String... extraArguments) {
+        return createArguments(reportDirectory, zippedReportDirectory, reportSuffix,
+                Collections.<String, String>emptyMap(), extraArguments);
+    }
+
+    /**
+     * Creates the argument list for a single invocation of the test executable with the variables of a build
+     *
+     * @param reportDirectory       The absolute report directory including the trailing backslash
+     * @param zippedReportDirectory The absolute zipped report directory including the trailing backslash
+     * @param reportSuffix          Appended to the report file names, used to separate several invocations
+     * @param env                   The environment variables of the build
+     * @param extraArguments        Appended to the argument list. They replace configured arguments with the same
+     *                              flag, unless the flag may be repeated.
+     * @return The complete list of arguments, starting with the test executable
+     */
+    public ArgumentListBuilder createArguments(String reportDirectory, String zippedReportDirectory,
+                                               String reportSuffix, Map<String, String> env,
+                                               String... extraArguments) {
+        Set<RanorexFlag> replacedFlags = EnumSet.noneOf(RanorexFlag.class);
+        for (String extraArgument : extraArguments) {
+            RanorexFlag flag = RanorexFlag.forName(ArgumentToken.of(extraArgument).getFlag());
+            if (flag != null && ! flag.isRepeatable()) {
+                replacedFlags.add(flag);
+            }
+        }
+        ArgumentListBuilder arguments = new ArgumentListBuilder();
+        for (Argument argument : leadingArguments) {
+            argument.appendTo(arguments, env);
+        }
+        arguments.add("/reportfile:" + reportDirectory + getReportFile(env) + reportSuffix + "." + reportExtension);
+        if (zippedReport) {
+            arguments.add("/zipreport");
+            arguments.add("/zipreportfile:" + zippedReportDirectory + getZippedReportFile(env) + reportSuffix
+                    + ZIPPED_REPORT_EXTENSION);
+        }
+        for (Argument argument : trailingArguments) {
+            if (argument.flag == null || ! replacedFlags.contains(argument.flag)) {
+                argument.appendTo(arguments, env);
+            }
+        }
+        arguments.add(extraArguments);
+        return arguments;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @return The message describing an invalid configuration or null if the configuration is valid
+     */
+    @CheckForNull
+    public String getConfigurationError() {
+        return configurationError;
+    }
+
+    /**
+     * @return The name of the test executable or null if no test suite is configured
+     */
+    @CheckForNull
+    public String getExecutableFile() {
+        return executableFile;
+    }
+
+    public String getReportFile() {
+        return reportFile != null ? reportFile.toString() : null;
+    }
+
+    /**
+     * @param env The environment variables of the build
+     * @return The report file name without extension, with the variables of the build
+     */
+    public String getReportFile(Map<String, String> env) {
+        return reportFile != null ? reportFile.expand(env) : null;
+    }
+
+    public String getZippedReportFile() {
+        return zippedReportFile != null ? zippedReportFile.toString() : null;
+    }
+
+    /**
+     * @param env The environment variables of the build
+     * @return The zipped report file name without extension, with the variables of the build
+     */
+    public String getZippedReportFile(Map<String, String> env) {
+        return zippedReportFile != null ? zippedReportFile.expand(env) : null;
+    }
+
+    public String getReportExtension() {
+        return reportExtension;
+    }
+
+    public boolean isJUnitReport() {
+        return junitReport;
+    }
+
+    public List<String> getGlobalParameters() {
+        return globalParameters;
+    }
+
+    /**
+     * @return True if the global parameters are passed in a generated test suite instead of the command line
+     */
+    public boolean isParameterSuite() {
+        return parameterSuite;
+    }
+
+    /**
+     * @param env The environment variables of the build
+     * @return The values of the global parameters by name if they are passed in a generated test suite, otherwise
+     * an empty map
+     */
+    public Map<String, String> getGlobalParameterValues(Map<String, String> env) {
+        Map<String, String> expanded = new LinkedHashMap<>();
+        for (Map.Entry<String, VariableTemplate> value : parameterValues.entrySet()) {
+            expanded.put(value.getKey(), value.getValue().expand(env));
+        }
+        return expanded;
+    }
+
+    public List<String> getIgnoredGlobalParameters() {
+        return ignoredGlobalParameters;
+    }
+
+    public List<String> getCommandLineArguments() {
+        return commandLineArguments;
+    }
+
+    public List<String> getIgnoredCommandLineArguments() {
+        return ignoredCommandLineArguments;
+    }
+
+    /**
+     * A single precompiled command line argument
+     */
+    private static final class Argument {
+        private final VariableTemplate value;
+        private final boolean masked;
+        @CheckForNull
+        private final RanorexFlag flag;
+
+        Argument(VariableTemplate value, boolean masked, @CheckForNull RanorexFlag flag) {
+            this.value = value;
+            this.masked = masked;
+            this.flag = flag;
+        }
+
+        void appendTo(ArgumentListBuilder arguments, Map<String, String> env) {
+            if (masked) {
+                arguments.addMasked(value.expand(env));
+            } else {
+                arguments.add(value.expand(env));
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import com.ranorex.jenkinsranorexplugin.util.FileUtil;
+import hudson.FilePath;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Finds the JUnit reports Ranorex writes next to the report of an invocation.
+ * <p>
+ * The report file name may contain placeholders which are only resolved by Ranorex, so the JUnit report is
+ * located by comparing the report directory before and after the invocation. The snapshot is serializable, so it
+ * survives a restart of the controller while the invocation is running.
+ */
+final class JUnitReportLocator implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final transient FilePath reportDirectory;
+    private final String pattern;
+    private final HashMap<String, Long> existingReports;
+
+    private JUnitReportLocator(FilePath reportDirectory, String pattern, HashMap<String, Long> existingReports) {
+        this.reportDirectory = reportDirectory;
+        this.pattern = pattern;
+        this.existingReports = existingReports;
+    }
+
+    /**
+     * Remembers all JUnit reports which already exist before the invocation
+     *
+     * @param reportDirectory The directory the report is written to
+     * @param reportFile      The report filename without extension, may contain Ranorex placeholders
+     * @return The locator
+     * @throws IOException          If the report directory cannot be listed
+     * @throws InterruptedException If the build is aborted
+     */
+    static JUnitReportLocator snapshot(FilePath reportDirectory, String reportFile) throws IOException,
+            InterruptedException {
+        String pattern = FileUtil.getJUnitReportPattern(reportFile);
+        HashMap<String, Long> existingReports = new HashMap<>();
+        for (FilePath report : list(reportDirectory, pattern)) {
+            existingReports.put(report.getName(), report.lastModified());
+        }
+        return new JUnitReportLocator(reportDirectory, pattern, existingReports);
+    }
+
+    /**
+     * @param directory The report directory, resolved again after the locator was deserialized
+     * @return A locator with the same snapshot for the given report directory
+     */
+    JUnitReportLocator at(FilePath directory) {
+        return new JUnitReportLocator(directory, pattern, existingReports);
+    }
+
+    /**
+     * @return All JUnit reports which were created or changed since the snapshot
+     * @throws IOException          If the report directory cannot be listed
+     * @throws InterruptedException If the build is aborted
+     */
+    List<FilePath> findNewReports() throws IOException, InterruptedException {
+        List<FilePath> reports = new ArrayList<>();
+        for (FilePath report : list(reportDirectory, pattern)) {
+            Long lastModified = existingReports.get(report.getName());
+            if (lastModified == null || report.lastModified() > lastModified) {
+                reports.add(report);
+            }
+        }
+        return reports;
+    }
+
+    private static FilePath[] list(FilePath reportDirectory, String pattern) throws IOException,
+            InterruptedException {
+        if (! reportDirectory.isDirectory()) {
+            return new FilePath[0];
+        }
+        return reportDirectory.list(pattern);
+    }
+}
@@ -0,0 +1,24 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import com.ranorex.jenkinsranorexplugin.util.JUnitReportSummary;
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a JUnit report on the node it was written to and only returns the summary to the controller
+ */
+final class JUnitSummaryCallable extends MasterToSlaveFileCallable<JUnitReportSummary> {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public JUnitReportSummary invoke(File report, VirtualChannel channel) throws IOException {
+        try (InputStream in = new FileInputStream(report)) {
+            return JUnitReportSummary.parse(in);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import com.ranorex.jenkinsranorexplugin.util.PhaseTimings.Phase;
+import hudson.AbortException;
+import hudson.EnvVars;
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.model.Computer;
+import hudson.model.Result;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+
+import javax.annotation.CheckForNull;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Runs several test suites one after another and overlaps the work around the test runs.
+ * <p>
+ * The test executables use the desktop, so they run strictly one at a time. While a test suite runs, the paths of
+ * the next test suite are resolved and validated on the node, and the reports of the previous test suite are
+ * archived and summarized in the background. Sharded test runs and retries of failed test cases need the desktop
+ * again after the test run, with these options the test suites run one after another without overlapping.
+ */
+final class MultiSuiteRun {
+    private final List<RanorexRunnerBuilder> testSuites;
+
+    /**
+     * @param testSuites One builder per test suite, in the order the test suites run
+     */
+    MultiSuiteRun(List<RanorexRunnerBuilder> testSuites) {
+        this.testSuites = testSuites;
+    }
+
+    /**
+     * Runs all test suites, a failed test suite does not stop the following test suites
+     *
+     * @param run       The current build, may be null if no build actions should be recorded
+     * @param wSpace    The workspace used to resolve the report directories
+     * @param workspace The workspace used to resolve the working directory of the test executables
+     * @param env       The environment variables of the processes
+     * @param launcher  Starts the processes
+     * @param listener  Receives events that happen during the build
+     * @param summarize True if the summary of all arguments should be printed to the console
+     * @return The worst result of all test suites
+     */
+    Result run(@CheckForNull Run<?, ?> run, FilePath wSpace, FilePath workspace, EnvVars env, Launcher launcher,
+               TaskListener listener, boolean summarize) {
+        RanorexRunnerBuilder first = testSuites.get(0);
+        if (first.getRxShardCount() > 1 || first.getRxRetryCount() > 0) {
+            Result result = Result.SUCCESS;
+            for (int i = 0; i < testSuites.size(); i++) {
+                printHeader(listener.getLogger(), i);
+                Result suiteResult = testSuites.get(i).perform(run, wSpace, workspace, env, launcher, listener,
+                        summarize);
+                result = result.combine(suiteResult);
+                if (suiteResult == Result.ABORTED) {
+                    break;
+                }
+            }
+            return result;
+        }
+
+        Result result = Result.SUCCESS;
+        Future<RanorexExecution> staged = stage(0, run, wSpace, workspace, env, listener);
+        Future<Result> processed = null;
+        try {
+            for (int i = 0; i < testSuites.size(); i++) {
+                RanorexExecution execution = null;
+                try {
+                    execution = await(staged);
+                } catch (AbortException e) {
+                    listener.error(e.getMessage());
+                    result = Result.FAILURE;
+                }
+                staged = i + 1 < testSuites.size() ? stage(i + 1, run, wSpace, workspace, env, listener) : null;
+                printHeader(listener.getLogger(), i);
+                if (execution == null) {
+                    continue;
+                }
+                if (summarize) {
+                    execution.printSummary();
+                }
+                JUnitReportLocator locator = null;
+                if (run != null && execution.getPlan().isJUnitReport()) {
+                    locator = JUnitReportLocator.snapshot(execution.getReportDirectory(),
+                            execution.getUsedRxReportFile());
+                }
+                ReportArchiver archiver = execution.startReportArchiver();
+                int exitCode = execution.launch(launcher, env);
+                // Listed before the next test suite runs, its JUnit reports may match the same pattern
+                List<FilePath> junitReports = locator != null && execution.getTimeout() == null
+                        ? locator.findNewReports() : null;
+                if (archiver != null) {
+                    archiver = archiver.stop();
+                }
+                if (processed != null) {
+                    result = result.combine(await(processed));
+                }
+                processed = process(execution, exitCode, archiver, junitReports, "_suite" + (i + 1));
+                if (execution.getTimeout() != null) {
+                    // The remaining test suites are skipped
+                    break;
+                }
+            }
+            if (processed != null) {
+                Future<Result> last = processed;
+                processed = null;
+                result = result.combine(await(last));
+            }
+            return result;
+        } catch (AbortException e) {
+            listener.error(e.getMessage());
+            return Result.FAILURE;
+        } catch (InterruptedException e) {
+            // The build was aborted, the caller sees the interrupt again
+            Thread.currentThread().interrupt();
+            return Result.ABORTED;
+        } catch (Exception e) {
+            e.printStackTrace(listener.fatalError("execution failed"));
+            return Result.FAILURE;
+        } finally {
+            if (staged != null) {
+                staged.cancel(true);
+            }
+            if (processed != null && Thread.currentThread().isInterrupted()) {
+                // An aborted build does not wait for the reports of the previous test suite
+                processed.cancel(true);
+            } else if (processed != null) {
+                try {
+                    await(processed);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    processed.cancel(true);
+                } catch (IOException e) {
+                    listener.error("Cannot process the Ranorex reports: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void printHeader(PrintStream logger, int index) {
+        logger.println("Ranorex test suite " + (index + 1) + " of " + testSuites.size() + ": "
+                + testSuites.get(index).getRxTestSuiteFilePath());
+    }
+
+    /**
+     * Resolves and validates the paths of a test suite in the background
+     *
+     * @return The prepared execution or null if the configuration of the test suite is not valid
+     */
+    private Future<RanorexExecution> stage(int index, @CheckForNull Run<?, ?> run, FilePath wSpace,
+                                           FilePath workspace, EnvVars env, TaskListener listener) {
+        RanorexRunnerBuilder builder = testSuites.get(index);
+        return Computer.threadPoolForRemoting.submit(() -> {
+            long start = System.nanoTime();
+            RanorexExecution execution = new RanorexExecution(builder, builder.getInvocationPlan(), run, env,
+                    listener);
+            execution.getTimings().addSince(Phase.ARGUMENTS, start);
+            return execution.prepare(wSpace, workspace) ? execution : null;
+        });
+    }
+
+    /**
+     * Archives and summarizes the reports of a test suite in the background
+     *
+     * @return The result of the test suite
+     */
+    private static Future<Result> process(RanorexExecution execution, int exitCode,
+                                          @CheckForNull ReportArchiver archiver,
+                                          @CheckForNull List<FilePath> junitReports, String reportSuffix) {
+        return Computer.threadPoolForRemoting.submit(() -> {
+            try {
+                execution.archiveReport(archiver, reportSuffix);
+                if (junitReports != null) {
+                    execution.publishJUnitSummary(execution.summarizeJUnitReports(junitReports));
+                }
+            } finally {
+                execution.publishTimings();
+                execution.cleanupReports();
+            }
+            if (execution.getTimeout() != null) {
+                return Result.ABORTED;
+            }
+            return exitCode == 0 ? Result.SUCCESS : Result.FAILURE;
+        });
+    }
+
+    private static <T> T await(Future<T> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof InterruptedException) {
+                throw (InterruptedException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import com.ranorex.jenkinsranorexplugin.util.GlobalParameterFile;
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
+
+import javax.annotation.CheckForNull;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes the global parameters into a copy of the test suite file on the node.
+ * <p>
+ * The copy is passed to the test executable with {@code /testsuite}, so the number of global parameters does not
+ * count against the command line length limit of Windows. The parameter file of the workspace is read on the node
+ * and never sent to the controller. Configured global parameters override the values of the parameter file.
+ */
+final class ParameterSuite extends MasterToSlaveFileCallable<Integer> {
+    private static final long serialVersionUID = 1L;
+    static final String EXTENSION = ".parameters.rxtst";
+
+    private final String target;
+    @CheckForNull
+    private final String parameterFile;
+    private final Map<String, String> parameters;
+
+    /**
+     * @param target        The path of the generated test suite on the node
+     * @param parameterFile The path of a properties or JSON file with global parameters on the node, may be null
+     * @param parameters    The configured global parameters by name
+     */
+    ParameterSuite(String target, @CheckForNull String parameterFile, Map<String, String> parameters) {
+        this.target = target;
+        this.parameterFile = parameterFile;
+        this.parameters = new LinkedHashMap<>(parameters);
+    }
+
+    /**
+     * @param testSuite The test suite file of the test executable
+     * @return The number of global parameters written to the generated test suite
+     */
+    @Override
+    public Integer invoke(File testSuite, VirtualChannel channel) throws IOException {
+        Map<String, String> values = new LinkedHashMap<>();
+        if (parameterFile != null) {
+            try (Reader reader = new InputStreamReader(new FileInputStream(parameterFile), StandardCharsets.UTF_8)) {
+                values.putAll(GlobalParameterFile.read(reader, parameterFile));
+            }
+        }
+        values.putAll(parameters);
+        try (InputStream in = new BufferedInputStream(new FileInputStream(testSuite));
+             OutputStream out = new BufferedOutputStream(new FileOutputStream(target))) {
+            return GlobalParameterFile.writeTestSuite(in, values, out);
+        }
+    }
+}
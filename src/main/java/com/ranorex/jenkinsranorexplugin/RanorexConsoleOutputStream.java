@@ -0,0 +1,50 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import com.ranorex.jenkinsranorexplugin.util.ConsoleDecoder;
+import com.ranorex.jenkinsranorexplugin.util.ConsoleEvent;
+import hudson.console.LineTransformationOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+/**
+ * Passes the output of the test executable unchanged to the build log and decodes every complete line into
+ * progress events. Only the current line is buffered.
+ */
+final class RanorexConsoleOutputStream extends LineTransformationOutputStream {
+    private final OutputStream out;
+    private final Charset charset;
+    private final RanorexProgressAction progress;
+
+    /**
+     * @param out      Receives the unchanged output, it is not closed by this stream
+     * @param charset  The encoding of the output
+     * @param progress Receives the decoded events
+     */
+    RanorexConsoleOutputStream(OutputStream out, Charset charset, RanorexProgressAction progress) {
+        this.out = out;
+        this.charset = charset;
+        this.progress = progress;
+    }
+
+    @Override
+    protected void eol(byte[] b, int len) throws IOException {
+        out.write(b, 0, len);
+        ConsoleEvent event = ConsoleDecoder.decode(trimEOL(new String(b, 0, len, charset)));
+        if (event != null) {
+            progress.onEvent(event, System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        forceEol();
+        out.flush();
+    }
+}
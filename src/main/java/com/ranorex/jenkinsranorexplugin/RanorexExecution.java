@@ -0,0 +1,644 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import com.ranorex.jenkinsranorexplugin.util.BinaryManifest;
+import com.ranorex.jenkinsranorexplugin.util.FileUtil;
+import com.ranorex.jenkinsranorexplugin.util.JUnitReportSummary;
+import com.ranorex.jenkinsranorexplugin.util.PhaseTimings;
+import com.ranorex.jenkinsranorexplugin.util.PhaseTimings.Phase;
+import com.ranorex.jenkinsranorexplugin.util.StringUtil;
+import hudson.AbortException;
+import hudson.EnvVars;
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.Proc;
+import hudson.model.Computer;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.remoting.Channel;
+import hudson.util.ArgumentListBuilder;
+import jenkins.model.InterruptedBuildAction;
+import org.apache.commons.lang.BooleanUtils;
+
+import javax.annotation.CheckForNull;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the state of a single execution of a {@link RanorexRunnerBuilder}.
+ * <p>
+ * The builder itself only holds the configuration, everything that is calculated for a specific build
+ * (working directory, report paths, arguments and the logger) lives in this object. This way one configured
+ * builder can be executed by several concurrent builds at the same time.
+ */
+final class RanorexExecution {
+    private static final String REPORT_ARCHIVE = "ranorex-report";
+    private static final String REPORT_FILE_ARGUMENT = "/reportfile:";
+
+    private final RanorexRunnerBuilder builder;
+    private final InvocationPlan plan;
+    @CheckForNull
+    private final Run<?, ?> run;
+    private final EnvVars env;
+    private final TaskListener listener;
+    private final PrintStream logger;
+    private final PhaseTimings timings = new PhaseTimings();
+
+    private String rxExecuteableFile;
+    private String workSpace;
+    private FilePath currentWorkspace;
+    private String usedRxReportDirectory;
+    private String usedRxReportFile;
+    private String usedRxZippedReportDirectory;
+    private String usedRxZippedReportFile;
+    @CheckForNull
+    private String parameterFile;
+    private ArgumentListBuilder jArguments;
+    @CheckForNull
+    private RanorexTimeoutCause timeout;
+
+    /**
+     * @param builder  The configured builder
+     * @param plan     The precompiled invocation plan of the builder
+     * @param run      The current build, may be null if the progress should not be recorded
+     * @param env      The environment variables of the build, used to expand the variables of the configuration
+     * @param listener Receives events that happen during this execution
+     */
+    RanorexExecution(RanorexRunnerBuilder builder, InvocationPlan plan, @CheckForNull Run<?, ?> run, EnvVars env,
+                     TaskListener listener) {
+        this.builder = builder;
+        this.plan = plan;
+        this.run = run;
+        this.env = env;
+        this.listener = listener;
+        this.logger = listener.getLogger();
+    }
+
+    /**
+     * Calculates the build specific paths and arguments.
+     * <p>
+     * The paths are resolved with one call to the node, which also checks that the test executable exists and
+     * creates the report directories. If a test suite job is configured, the test suite is copied from its
+     * artifacts through the cache of the node first.
+     *
+     * @param wSpace    The workspace used to resolve the report directories
+     * @param workspace The workspace used to resolve the working directory of the test executable
+     * @return True if the test executable can be launched, false if the configuration is not valid
+     * @throws IOException          If the test executable or the test suite build does not exist, a report
+     *                              directory cannot be created or the node cannot be reached
+     * @throws InterruptedException If the build is aborted
+     */
+    boolean prepare(FilePath wSpace, FilePath workspace) throws IOException, InterruptedException {
+        return prepare(wSpace, workspace, false);
+    }
+
+    /**
+     * Calculates the build specific paths and arguments of an invocation which was started before a restart of the
+     * controller. The test suite is not copied again.
+     *
+     * @param wSpace    The workspace used to resolve the report directories
+     * @param workspace The workspace used to resolve the working directory of the test executable
+     * @return True if the configuration is valid
+     * @throws IOException          If the test executable does not exist or the node cannot be reached
+     * @throws InterruptedException If the build is aborted
+     */
+    boolean restore(FilePath wSpace, FilePath workspace) throws IOException, InterruptedException {
+        return prepare(wSpace, workspace, true);
+    }
+
+    private boolean prepare(FilePath wSpace, FilePath workspace, boolean restore) throws IOException,
+            InterruptedException {
+        if (plan.getExecutableFile() == null) {
+            logger.println("No TestSuite file given");
+            return false;
+        }
+        if (plan.getConfigurationError() != null) {
+            logger.println(plan.getConfigurationError());
+            return false;
+        }
+        rxExecuteableFile = plan.getExecutableFile();
+        boolean zippedReport = BooleanUtils.isTrue(builder.getRxZippedReport());
+        String rxReportDirectory = builder.getRxReportDirectory();
+        if (run != null && builder.getRxBinaryJob() != null && ! restore) {
+            BinaryCache.sync(run, workspace, builder.getRxTestSuiteFilePath(), builder.getRxBinaryJob(),
+                    builder.getRxBinaryFilter(), logger);
+        }
+        long start = System.nanoTime();
+        ResolvedPaths paths = ResolvedPaths.resolve(workspace, wSpace.getRemote(), builder.getRxTestSuiteFilePath(),
+                rxExecuteableFile, rxReportDirectory, builder.getRxZippedReportDirectory(), zippedReport);
+        workSpace = paths.getReportBase();
+        currentWorkspace = new FilePath(workspace.getChannel(), paths.getWorkingDirectory());
+        timings.addSince(Phase.PATHS, start);
+
+        // Ranorex Reportdirectory
+        if (! StringUtil.isNullOrSpace(rxReportDirectory)) {
+            logger.println("Reportpath to merge. Base: " + workSpace + " Relative: " + rxReportDirectory);
+            logger.println("Merged path: " + paths.getReportDirectory());
+        }
+        usedRxReportDirectory = paths.getReportDirectory();
+        usedRxReportFile = plan.getReportFile(env);
+
+        // Zipped Ranorex Reportdirectory
+        if (zippedReport) {
+            usedRxZippedReportDirectory = paths.getZippedReportDirectory();
+            usedRxZippedReportFile = plan.getZippedReportFile(env);
+        }
+
+        start = System.nanoTime();
+        if (plan.isParameterSuite() && builder.getRxParameterFile() != null) {
+            parameterFile = workspace.child(env.expand(builder.getRxParameterFile())).getRemote();
+        }
+        jArguments = createArguments("");
+        timings.addSince(Phase.ARGUMENTS, start);
+        return true;
+    }
+
+    /**
+     * Writes the global parameters of one invocation into a copy of the test suite next to the test executable, if
+     * the global parameters are passed in a test suite file
+     *
+     * @param reportSuffix The report suffix of the invocation
+     * @return The path of the generated test suite on the node, null if the global parameters are passed as
+     * arguments
+     * @throws IOException          If the test suite or the parameter file cannot be read
+     * @throws InterruptedException If the build is aborted
+     */
+    @CheckForNull
+    String writeParameterSuite(String reportSuffix) throws IOException, InterruptedException {
+        if (! plan.isParameterSuite()) {
+            return null;
+        }
+        FilePath target = getParameterSuite(reportSuffix);
+        int count = currentWorkspace.child(FileUtil.removeFileExtension(rxExecuteableFile) + ".rxtst")
+                .act(new ParameterSuite(target.getRemote(), parameterFile, plan.getGlobalParameterValues(env)));
+        logger.println("Global parameters: " + count + " written to " + target.getRemote());
+        return target.getRemote();
+    }
+
+    /**
+     * Deletes the generated test suite of an invocation once the test executable terminated
+     *
+     * @param reportSuffix The report suffix of the invocation
+     * @throws InterruptedException If the build is aborted
+     */
+    void deleteParameterSuite(String reportSuffix) throws InterruptedException {
+        if (! plan.isParameterSuite()) {
+            return;
+        }
+        FilePath target = getParameterSuite(reportSuffix);
+        try {
+            target.delete();
+        } catch (IOException e) {
+            logger.println("Cannot delete " + target.getRemote() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the generated test suite of one invocation. The name contains the build number and the report
+     * suffix, so concurrent builds and the invocations of one build never write the same file.
+     */
+    private FilePath getParameterSuite(String reportSuffix) {
+        String number = run != null ? String.valueOf(run.getNumber()) : env.get("BUILD_NUMBER", "0");
+        return currentWorkspace.child(FileUtil.removeFileExtension(rxExecuteableFile) + "_" + number + reportSuffix
+                + ParameterSuite.EXTENSION);
+    }
+
+    /**
+     * Creates the command line for one invocation of the test executable. The test executable is started by
+     * {@code cmd.exe /C}, unless it is launched directly. Global parameters written to a generated test suite are
+     * passed as the test suite of the invocation.
+     *
+     * @param reportSuffix   Appended to the report file names, used to separate several invocations of one build
+     * @param extraArguments Replace configured arguments with the same flag
+     * @return The complete command line
+     */
+    ArgumentListBuilder createArguments(String reportSuffix, String... extraArguments) {
+        ArgumentListBuilder arguments = createTestArguments(reportSuffix, extraArguments);
+        if (! BooleanUtils.isTrue(builder.getRxDirectLaunch())) {
+            arguments.prepend("cmd.exe", "/C");
+            return arguments;
+        }
+        // Without a shell the executable is not looked up in the working directory of the process
+        List<String> list = arguments.toList();
+        boolean[] masks = arguments.toMaskArray();
+        ArgumentListBuilder direct = new ArgumentListBuilder(currentWorkspace.child(rxExecuteableFile).getRemote());
+        for (int i = 1; i < list.size(); i++) {
+            direct.add(list.get(i), masks[i]);
+        }
+        return direct;
+    }
+
+    /**
+     * Creates the arguments of one invocation without the shell, for callers which start the test executable with
+     * a shell of their own
+     *
+     * @param reportSuffix   Appended to the report file names, used to separate several invocations of one build
+     * @param extraArguments Replace configured arguments with the same flag
+     * @return The name of the test executable followed by its arguments
+     */
+    ArgumentListBuilder createTestArguments(String reportSuffix, String... extraArguments) {
+        if (plan.isParameterSuite()) {
+            extraArguments = Arrays.copyOf(extraArguments, extraArguments.length + 1);
+            extraArguments[extraArguments.length - 1] = "/testsuite:" + getParameterSuite(reportSuffix).getRemote();
+        }
+        return plan.createArguments(usedRxReportDirectory, usedRxZippedReportDirectory, reportSuffix, env,
+                extraArguments);
+    }
+
+    /**
+     * Prints a summary of all used arguments to the console output
+     */
+    void printSummary() {
+        logger.println("\n*************Start of Ranorex Summary*************");
+        logger.println("Current Plugin version:\t\t" + getClass().getPackage().getImplementationVersion());
+        logger.println("Ranorex Working Directory:\t" + workSpace);
+        logger.println("Ranorex test suite file:\t" + builder.getRxTestSuiteFilePath());
+        logger.println("Ranorex test exe file:\t\t" + rxExecuteableFile);
+        logger.println("Ranorex run configuration:\t" + builder.getRxRunConfiguration());
+        logger.println("Ranorex report directory:\t" + usedRxReportDirectory);
+        logger.println("Ranorex report filename:\t" + usedRxReportFile);
+        logger.println("Ranorex report extension:\t" + builder.getRxReportExtension());
+        logger.println("Junit-compatible report:\t" + builder.getRxJUnitReport());
+        logger.println("Ranorex report compression:\t" + builder.getRxZippedReport());
+        if (BooleanUtils.isTrue(builder.getRxZippedReport())) {
+            logger.println("\tRanorex zipped report dir:\t" + usedRxZippedReportDirectory);
+            logger.println("\tRanorex zipped report file:\t" + usedRxZippedReportFile);
+        }
+        logger.println("Ranorex Test Rail Integration:\t" + builder.getRxTestRail());
+        if (BooleanUtils.isTrue(builder.getRxTestRail())) {
+            logger.println("\tRanorex Test Rail User:\t\t" + builder.getRxTestRailUser());
+            logger.println("\tRanorex Test Rail Password:\t" + "*****************");
+            logger.println("\tRanorex Test Rail Run ID:\t" + builder.getRxTestRailRID());
+            logger.println("\tRanorex Test Rail Run Name:\t" + builder.getRxTestRailRunName());
+        }
+        logger.println("Ranorex global parameters:");
+        if (! StringUtil.isNullOrSpace(builder.getRxGlobalParameter())) {
+            for (String param : plan.getGlobalParameters()) {
+                logger.println("\t*" + param);
+            }
+            for (String param : plan.getIgnoredGlobalParameters()) {
+                logger.println("\t!" + param + " will be ignored");
+            }
+        } else {
+            logger.println("\t*No global parameters entered");
+        }
+        logger.println("Command line arguments:");
+        if (! StringUtil.isNullOrSpace(builder.getCmdLineArgs())) {
+            for (String argument : plan.getCommandLineArguments()) {
+                logger.println("\t*" + argument);
+            }
+            for (String argument : plan.getIgnoredCommandLineArguments()) {
+                logger.println("\t!" + argument + " will be ignored ");
+            }
+        } else {
+            logger.println("\t*No command line arguments entered");
+        }
+        logger.println("*************End of Ranorex Summary*************\n");
+    }
+
+    /**
+     * Launches the test executable and waits until it terminates
+     *
+     * @param launcher Starts the process
+     * @param env      The environment variables of the process
+     * @return The exit code of the test executable
+     * @throws IOException          If the process cannot be started
+     * @throws InterruptedException If the build is aborted while waiting for the process
+     */
+    int launch(Launcher launcher, EnvVars env) throws IOException, InterruptedException {
+        return launch(launcher, env, "", jArguments);
+    }
+
+    /**
+     * Launches the test executable with the given command line and waits until it terminates. The generated test
+     * suite of the invocation is written before and deleted after the test executable runs.
+     *
+     * @param launcher     Starts the process
+     * @param env          The environment variables of the process
+     * @param reportSuffix The report suffix the command line was created with
+     * @param arguments    The command line created by {@link #createArguments(String, String...)}
+     * @return The exit code of the test executable, see {@link #getTimeout()} if the process was killed
+     * @throws IOException          If the process cannot be started
+     * @throws InterruptedException If the build is aborted while waiting for the process
+     */
+    int launch(Launcher launcher, EnvVars env, String reportSuffix, ArgumentListBuilder arguments)
+            throws IOException, InterruptedException {
+        logger.println("Executing : " + arguments.toString());
+        RanorexProgressAction progress = run != null ? RanorexProgressAction.getOrCreate(run) : null;
+        OutputStream out = progress != null ? new RanorexConsoleOutputStream(logger, getCharset(), progress) : logger;
+        DesktopLease lease = null;
+        try {
+            writeParameterSuite(reportSuffix);
+            lease = leaseDesktop();
+            // The lease is only freed once the test executable terminated, so it is killed when the lease expires
+            long leaseTimeout = lease != null ? TimeUnit.MINUTES.toMillis(builder.getRxDesktopLeaseTimeout()) : 0;
+            if (BooleanUtils.isTrue(builder.getRxFilterConsole())) {
+                if (FilteredLaunch.supports(launcher)) {
+                    return launchFiltered(env, arguments, leaseTimeout, out);
+                }
+                logger.println("The console output is not filtered, the launcher is decorated by a build wrapper");
+            }
+            Launcher.ProcStarter starter = launcher.launch().cmds(arguments).envs(env).pwd(currentWorkspace);
+            Watchdog watchdog = new Watchdog(TimeUnit.MINUTES.toMillis(builder.getRxTimeout()),
+                    TimeUnit.MINUTES.toMillis(builder.getRxInactivityTimeout()), leaseTimeout);
+            OutputStream watched = watchdog.watch(out);
+            try {
+                long spawn = Watchdog.now();
+                Proc proc = starter.stdout(watched).start();
+                long started = Watchdog.now();
+                timings.add(Phase.SPAWN, started - spawn);
+                int exitCode = watchdog.join(proc);
+                timings.add(Phase.EXECUTION, Watchdog.now() - started);
+                if (watchdog.getFirstActivity() >= 0) {
+                    timings.add(Phase.FIRST_OUTPUT, watchdog.getFirstActivity() - started);
+                }
+                RanorexTimeoutCause cause = watchdog.getCause();
+                if (cause != null) {
+                    recordTimeout(cause);
+                }
+                return exitCode;
+            } finally {
+                watched.close();
+            }
+        } finally {
+            if (lease != null) {
+                lease.close();
+            }
+            if (progress != null) {
+                out.close();
+                progress.endRunning(System.currentTimeMillis());
+            }
+            deleteParameterSuite(reportSuffix);
+        }
+    }
+
+    /**
+     * Waits for exclusive use of the desktop of the node if the builder is configured to lease it
+     *
+     * @return The lease, which must be closed when the test executable terminated, or null
+     * @throws AbortException       If the desktop was not free within the configured time
+     * @throws InterruptedException If the build is aborted while waiting
+     */
+    @CheckForNull
+    DesktopLease leaseDesktop() throws AbortException, InterruptedException {
+        if (! BooleanUtils.isTrue(builder.getRxExclusiveDesktop())) {
+            return null;
+        }
+        DesktopLease lease = DesktopLease.acquire(DesktopLease.getNode(env),
+                TimeUnit.MINUTES.toMillis(builder.getRxDesktopTimeout()), logger);
+        timings.add(Phase.DESKTOP_WAIT, lease.getWaited());
+        return lease;
+    }
+
+    /**
+     * Launches the test executable on the node, which passes only the relevant output to the build log and writes
+     * the complete output to a compressed log next to the report
+     */
+    private int launchFiltered(EnvVars env, ArgumentListBuilder arguments, long leaseTimeout, OutputStream out)
+            throws IOException, InterruptedException {
+        String log = getConsoleLog(arguments);
+        FilteredLaunch.Result result = currentWorkspace.act(new FilteredLaunch(arguments, env, log,
+                TimeUnit.MINUTES.toMillis(builder.getRxTimeout()),
+                TimeUnit.MINUTES.toMillis(builder.getRxInactivityTimeout()), leaseTimeout, out));
+        if (currentWorkspace.getChannel() instanceof Channel) {
+            // Wait until the output sent by the node has been written to the build log
+            ((Channel) currentWorkspace.getChannel()).syncLocalIO();
+        }
+        timings.add(Phase.SPAWN, result.getSpawn());
+        timings.add(Phase.EXECUTION, result.getExecution());
+        if (result.getFirstOutput() >= 0) {
+            timings.add(Phase.FIRST_OUTPUT, result.getFirstOutput());
+        }
+        if (result.getCause() != null) {
+            recordTimeout(result.getCause());
+        }
+        logger.println("Complete console output: " + log);
+        return result.getExitCode();
+    }
+
+    /**
+     * @return The path of the compressed console log next to the report written by the given command line
+     */
+    private String getConsoleLog(ArgumentListBuilder arguments) {
+        for (String argument : arguments.toList()) {
+            if (argument.startsWith(REPORT_FILE_ARGUMENT)) {
+                return argument.substring(REPORT_FILE_ARGUMENT.length()) + FilteredLaunch.LOG_EXTENSION;
+            }
+        }
+        return usedRxReportDirectory + usedRxReportFile + FilteredLaunch.LOG_EXTENSION;
+    }
+
+    /**
+     * Records that the last invocation was killed because it exceeded a timeout
+     *
+     * @param cause The exceeded timeout
+     */
+    void recordTimeout(RanorexTimeoutCause cause) {
+        timeout = cause;
+        logger.println(cause.getShortDescription());
+        if (run != null) {
+            run.addAction(new InterruptedBuildAction(Collections.singleton(cause)));
+        }
+    }
+
+    /**
+     * @return The reason why the last invocation was killed or null if it terminated on its own
+     */
+    @CheckForNull
+    RanorexTimeoutCause getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Summarizes JUnit reports on the node which wrote them
+     *
+     * @param junitReports The JUnit reports written by the test executable
+     * @return The summary of all reports
+     * @throws IOException          If a report cannot be read
+     * @throws InterruptedException If the build is aborted
+     */
+    JUnitReportSummary summarizeJUnitReports(List<FilePath> junitReports) throws IOException,
+            InterruptedException {
+        long start = System.nanoTime();
+        JUnitReportSummary summary = new JUnitReportSummary();
+        for (FilePath junitReport : junitReports) {
+            summary.add(junitReport.act(new JUnitSummaryCallable()));
+        }
+        timings.addSince(Phase.REPORTS, start);
+        return summary;
+    }
+
+    /**
+     * Records the summary of JUnit reports in the build
+     *
+     * @param summary The summary of the JUnit reports
+     * @throws IOException If the build cannot be saved
+     */
+    void publishJUnitSummary(JUnitReportSummary summary) throws IOException {
+        if (run == null || summary.getTests() == 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        RanorexTestResultAction.getOrCreate(run).add(summary);
+        timings.addSince(Phase.REPORTS, start);
+        logger.println("Ranorex JUnit results: " + summary);
+    }
+
+    /**
+     * Starts collecting the report files of the next invocation if archiving is enabled
+     *
+     * @return The archiver or null if the report should not be archived
+     * @throws IOException          If the node cannot be reached
+     * @throws InterruptedException If the build is aborted
+     */
+    @CheckForNull
+    ReportArchiver startReportArchiver() throws IOException, InterruptedException {
+        if (run == null || ! BooleanUtils.isTrue(builder.getRxArchiveReport())) {
+            return null;
+        }
+        return ReportArchiver.start(getReportDirectory());
+    }
+
+    /**
+     * Compresses the report files of an invocation on the node and stores the archive as build artifact
+     *
+     * @param archiver     The archiver started before the invocation, may be null
+     * @param reportSuffix The report suffix of the invocation
+     * @throws IOException          If the files cannot be compressed or transferred
+     * @throws InterruptedException If the build is aborted
+     */
+    void archiveReport(@CheckForNull ReportArchiver archiver, String reportSuffix) throws IOException,
+            InterruptedException {
+        if (archiver == null || run == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        if (BooleanUtils.isTrue(builder.getRxDeduplicateReport())) {
+            // Screenshots are stored once per job, the archive in the build directory references them
+            File archive = new File(run.getRootDir(),
+                    REPORT_ARCHIVE + reportSuffix + ReportBlobStore.ARCHIVE_EXTENSION);
+            BinaryManifest blobs = archiver.scanBlobs();
+            int transferred = ReportBlobStore.store(run.getParent(), archiver.getReportDirectory(), blobs);
+            ReportBlobStore.writeManifest(archive, blobs);
+            int files = archiver.archiveTo(archive, blobs.getHashes().keySet());
+            RanorexReportAction.getOrCreate(run);
+            timings.addSince(Phase.REPORTS, start);
+            logger.println("Archived " + files + " report files and " + blobs.getHashes().size() + " screenshots ("
+                    + transferred + " new) to " + archive.getName());
+            return;
+        }
+        File archive = new File(run.getArtifactsDir(), REPORT_ARCHIVE + reportSuffix + ".zip");
+        int files = archiver.archiveTo(archive);
+        timings.addSince(Phase.REPORTS, start);
+        logger.println("Archived " + files + " report files to " + archive.getName());
+    }
+
+    /**
+     * Starts the deletion of old reports in the report directories on the node, the build does not wait for it
+     *
+     * @throws IOException          If the node cannot be reached
+     * @throws InterruptedException If the build is aborted
+     */
+    void cleanupReports() throws IOException, InterruptedException {
+        int count = builder.getRxReportRetentionCount();
+        int days = builder.getRxReportRetentionDays();
+        // Nothing was written if the paths were not resolved
+        if (count <= 0 && days <= 0 || currentWorkspace == null) {
+            return;
+        }
+        Map<String, List<String>> extensions = new LinkedHashMap<>();
+        extensions.computeIfAbsent(usedRxReportDirectory, d -> new ArrayList<>()).add(plan.getReportExtension());
+        if (usedRxZippedReportDirectory != null) {
+            extensions.computeIfAbsent(usedRxZippedReportDirectory, d -> new ArrayList<>())
+                    .add(InvocationPlan.ZIPPED_REPORT_EXTENSION.substring(1));
+        }
+        for (Map.Entry<String, List<String>> directory : extensions.entrySet()) {
+            ReportCleanup.start(new FilePath(currentWorkspace.getChannel(), directory.getKey()),
+                    directory.getValue(), count, days);
+        }
+    }
+
+    /**
+     * Records the phase timings of this execution in the build and in the metrics of the controller
+     *
+     * @throws IOException If the build cannot be saved
+     */
+    void publishTimings() throws IOException {
+        // Nothing was resolved or started if the configuration is not valid
+        if (run == null || currentWorkspace == null) {
+            return;
+        }
+        Computer computer = currentWorkspace.toComputer();
+        RanorexMetricsAction.record(run.getParent().getFullName(),
+                computer != null ? computer.getDisplayName() : "unknown", timings);
+        RanorexTimingAction.getOrCreate(run).add(timings);
+    }
+
+    PhaseTimings getTimings() {
+        return timings;
+    }
+
+    /**
+     * @return The encoding of the console output of the node which executes the build
+     */
+    Charset getCharset() {
+        Computer computer = currentWorkspace.toComputer();
+        return computer != null ? computer.getDefaultCharset() : Charset.defaultCharset();
+    }
+
+    String getWorkSpace() {
+        return workSpace;
+    }
+
+    FilePath getCurrentWorkspace() {
+        return currentWorkspace;
+    }
+
+    /**
+     * @return The test suite file on the node which executes the build
+     */
+    FilePath getTestSuiteFile() {
+        String[] splitPath = StringUtil.splitPath(builder.getRxTestSuiteFilePath());
+        return currentWorkspace.child(splitPath[splitPath.length - 1]);
+    }
+
+    /**
+     * @return The report directory on the node which executes the build
+     */
+    FilePath getReportDirectory() {
+        return new FilePath(currentWorkspace.getChannel(), usedRxReportDirectory);
+    }
+
+    InvocationPlan getPlan() {
+        return plan;
+    }
+
+    PrintStream getLogger() {
+        return logger;
+    }
+
+    String getUsedRxReportDirectory() {
+        return usedRxReportDirectory;
+    }
+
+    String getUsedRxReportFile() {
+        return usedRxReportFile;
+    }
+
+    String getUsedRxZippedReportDirectory() {
+        return usedRxZippedReportDirectory;
+    }
+
+    String getUsedRxZippedReportFile() {
+        return usedRxZippedReportFile;
+    }
+}
@@ -0,0 +1,83 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import com.ranorex.jenkinsranorexplugin.util.PhaseHistograms;
+import com.ranorex.jenkinsranorexplugin.util.PhaseTimings;
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.RootAction;
+import hudson.model.listeners.ItemListener;
+import jenkins.model.Jenkins;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Serves the phase durations of all Ranorex build steps since the start of the controller as Prometheus
+ * histograms by job and node at {@code /ranorex-metrics}. Reading the metrics requires the overall read
+ * permission.
+ */
+@Extension
+public class RanorexMetricsAction implements RootAction {
+    private static final PhaseHistograms HISTOGRAMS = new PhaseHistograms();
+
+    /**
+     * Records the timings of a finished build step
+     *
+     * @param job     The full name of the job
+     * @param node    The name of the node which executed the build step
+     * @param timings The phase timings of the build step
+     */
+    static void record(String job, String node, PhaseTimings timings) {
+        HISTOGRAMS.record(job, node, timings);
+    }
+
+    /**
+     * Writes the histograms in the Prometheus text exposition format
+     *
+     * @param req The current request
+     * @param rsp The response
+     * @throws IOException If the metrics cannot be sent
+     */
+    public void doIndex(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        // The labels contain the names of jobs and nodes
+        Jenkins.getInstance().checkPermission(Jenkins.READ);
+        rsp.setContentType("text/plain; version=0.0.4; charset=UTF-8");
+        try (Writer writer = rsp.getCompressedWriter(req)) {
+            HISTOGRAMS.write(writer);
+        }
+    }
+
+    @Override
+    public String getIconFileName() {
+        // Not shown in the side panel
+        return null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Ranorex Metrics";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "ranorex-metrics";
+    }
+
+    /**
+     * Removes the histograms of deleted and renamed jobs
+     */
+    @Extension
+    public static final class Listener extends ItemListener {
+        @Override
+        public void onDeleted(Item item) {
+            HISTOGRAMS.remove(item.getFullName());
+        }
+
+        @Override
+        public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+            HISTOGRAMS.remove(oldFullName);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import com.ranorex.jenkinsranorexplugin.util.ConsoleEvent;
+import hudson.Util;
+import hudson.model.Run;
+import jenkins.model.RunAction2;
+
+import javax.annotation.CheckForNull;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Shows the progress of the Ranorex test cases of a build while they are executed. The action is updated with
+ * every event decoded from the console output, the console log itself is never read again.
+ * <p>
+ * Only the running test cases and up to {@link #MAX_FAILED_TESTS} failed test cases are listed, all other test cases
+ * are only counted. Data driven test suites start a test case for every iteration, so listing every test case would
+ * grow the build record without limit.
+ */
+public class RanorexProgressAction implements RunAction2 {
+    private static final String STATUS_SUCCESS = "Success";
+    private static final String STATUS_FAILED = "Failed";
+    private static final String STATUS_ERROR = "Error";
+    static final String STATUS_ABORTED = "Aborted";
+    static final int MAX_FAILED_TESTS = Integer.getInteger(RanorexProgressAction.class.getName() + ".maxFailedTests",
+            100);
+
+    private final List<TestProgress> tests = new ArrayList<>();
+    // Innermost running test case first, nested test cases may have the same name as their parent
+    private transient Deque<TestProgress> runningTests;
+    private int listedFailed;
+    private int passed;
+    private int failed;
+    private int other;
+    private transient Run<?, ?> run;
+
+    /**
+     * Returns the progress action of the build, the action is created if it does not exist yet
+     *
+     * @param run The current build
+     * @return The progress action of the build
+     */
+    static RanorexProgressAction getOrCreate(Run<?, ?> run) {
+        return RunActions.getOrCreate(run, RanorexProgressAction.class, RanorexProgressAction::new);
+    }
+
+    /**
+     * Updates the progress with an event of the console output
+     *
+     * @param event     The decoded event
+     * @param timestamp The time the event was received
+     */
+    synchronized void onEvent(ConsoleEvent event, long timestamp) {
+        if (runningTests == null) {
+            runningTests = new ArrayDeque<>();
+        }
+        switch (event.getKind()) {
+            case TEST_CASE:
+                if (event.isStarted()) {
+                    TestProgress test = new TestProgress(event.getName(), timestamp);
+                    tests.add(test);
+                    runningTests.push(test);
+                } else {
+                    complete(event.getName(), event.getStatus(), timestamp);
+                }
+                break;
+            case ITERATION:
+            case MODULE:
+                TestProgress innermost = runningTests.peek();
+                if (innermost != null) {
+                    innermost.currentStep = event.isStarted() ? describe(event) : null;
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Completes the innermost running test case with the given name. Failed test cases stay listed until the limit
+     * is reached, all other test cases are only counted.
+     */
+    private void complete(String name, @CheckForNull String status, long timestamp) {
+        TestProgress test = null;
+        for (Iterator<TestProgress> running = runningTests.iterator(); running.hasNext(); ) {
+            TestProgress candidate = running.next();
+            if (candidate.getName().equals(name)) {
+                running.remove();
+                test = candidate;
+                break;
+            }
+        }
+        if (test == null) {
+            return;
+        }
+        test.complete(status, timestamp);
+        boolean listed = false;
+        if (STATUS_SUCCESS.equalsIgnoreCase(status)) {
+            passed++;
+        } else if (STATUS_FAILED.equalsIgnoreCase(status) || STATUS_ERROR.equalsIgnoreCase(status)) {
+            failed++;
+            listed = listedFailed < MAX_FAILED_TESTS;
+            if (listed) {
+                listedFailed++;
+            }
+        } else {
+            other++;
+        }
+        if (! listed) {
+            tests.remove(test);
+        }
+    }
+
+    /**
+     * Ends the test cases which are still running when the test executable terminated, e.g. because it was killed
+     * by a timeout or the build was aborted. They stay listed with the status {@link #STATUS_ABORTED}.
+     *
+     * @param timestamp The time the test executable terminated
+     */
+    synchronized void endRunning(long timestamp) {
+        if (runningTests == null) {
+            return;
+        }
+        for (TestProgress test : runningTests) {
+            test.complete(STATUS_ABORTED, timestamp);
+            other++;
+        }
+        runningTests.clear();
+    }
+
+    private static String describe(ConsoleEvent event) {
+        if (event.getKind() == ConsoleEvent.Kind.ITERATION) {
+            return "Iteration #" + event.getIteration();
+        }
+        return event.getName();
+    }
+
+    public synchronized int getPassed() {
+        return passed;
+    }
+
+    public synchronized int getFailed() {
+        return failed;
+    }
+
+    /**
+     * @return The number of completed test cases which neither passed nor failed, e.g. ignored, blocked or aborted
+     * ones
+     */
+    public synchronized int getOther() {
+        return other;
+    }
+
+    public synchronized int getRunning() {
+        return runningTests != null ? runningTests.size() : 0;
+    }
+
+    /**
+     * @return The number of failed test cases which are counted but not listed
+     */
+    public synchronized int getUnlistedFailed() {
+        return failed - listedFailed;
+    }
+
+    /**
+     * @return The running test cases and the listed failed test cases in the order they started
+     */
+    public synchronized List<TestProgress> getTests() {
+        return new ArrayList<>(tests);
+    }
+
+    public Run<?, ?> getRun() {
+        return run;
+    }
+
+    @Override
+    public void onAttached(Run<?, ?> run) {
+        this.run = run;
+    }
+
+    @Override
+    public void onLoad(Run<?, ?> run) {
+        this.run = run;
+    }
+
+    @Override
+    public String getIconFileName() {
+        return "clipboard.png";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Ranorex Progress";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "ranorex-progress";
+    }
+
+    /**
+     * Progress of a single test case
+     */
+    public static final class TestProgress implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+        private final long startTime;
+        private volatile long endTime;
+        @CheckForNull
+        private volatile String status;
+        @CheckForNull
+        private transient volatile String currentStep;
+
+        TestProgress(String name, long startTime) {
+            this.name = name;
+            this.startTime = startTime;
+        }
+
+        private void complete(@CheckForNull String status, long endTime) {
+            this.status = status;
+            this.endTime = endTime;
+            this.currentStep = null;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isRunning() {
+            return endTime == 0;
+        }
+
+        /**
+         * @return The status of the completed test case or null if it is still running
+         */
+        @CheckForNull
+        public String getStatus() {
+            return status;
+        }
+
+        /**
+         * @return The module or iteration the running test case currently executes
+         */
+        @CheckForNull
+        public String getCurrentStep() {
+            return currentStep;
+        }
+
+        /**
+         * @return The elapsed time in milliseconds, up to now for running test cases
+         */
+        public long getDuration() {
+            return (isRunning() ? System.currentTimeMillis() : endTime) - startTime;
+        }
+
+        public String getDurationString() {
+            return Util.getTimeSpanString(getDuration());
+        }
+    }
+}
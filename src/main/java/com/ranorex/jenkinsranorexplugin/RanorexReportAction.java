@@ -0,0 +1,102 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import hudson.model.Run;
+import jenkins.model.RunAction2;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Offers the reports of a build which were archived with deduplicated screenshots for download. The screenshots
+ * are added from the store of the job while the archive is downloaded.
+ */
+public class RanorexReportAction implements RunAction2 {
+    private transient Run<?, ?> run;
+
+    /**
+     * Returns the report action of the build, the action is created if it does not exist yet
+     *
+     * @param run The current build
+     * @return The report action of the build
+     */
+    static RanorexReportAction getOrCreate(Run<?, ?> run) {
+        return RunActions.getOrCreate(run, RanorexReportAction.class, RanorexReportAction::new);
+    }
+
+    /**
+     * @return The file names of the report archives of the build
+     */
+    public List<String> getArchives() {
+        List<String> archives = new ArrayList<>();
+        File[] manifests = run.getRootDir().listFiles((dir, name) -> name.endsWith(ReportBlobStore.MANIFEST_EXTENSION));
+        if (manifests == null) {
+            return archives;
+        }
+        for (File manifest : manifests) {
+            String name = manifest.getName();
+            String archive = name.substring(0, name.length() - ReportBlobStore.MANIFEST_EXTENSION.length())
+                    + ReportBlobStore.ARCHIVE_EXTENSION;
+            if (new File(run.getRootDir(), archive).isFile()) {
+                archives.add(archive);
+            }
+        }
+        Collections.sort(archives);
+        return archives;
+    }
+
+    /**
+     * Sends a complete report archive, e.g. {@code ranorex-report/ranorex-report.zip}
+     *
+     * @param req The current request
+     * @param rsp The response
+     * @throws IOException If the archive cannot be sent
+     */
+    public void doDynamic(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        run.checkPermission(Run.ARTIFACTS);
+        String archive = req.getRestOfPath().replaceFirst("^/", "");
+        if (! getArchives().contains(archive)) {
+            rsp.sendError(StaplerResponse.SC_NOT_FOUND);
+            return;
+        }
+        rsp.setContentType("application/zip");
+        rsp.setHeader("Content-Disposition", "attachment; filename=\"" + archive + "\"");
+        try (OutputStream out = rsp.getOutputStream()) {
+            ReportBlobStore.writeReport(run.getParent(), new File(run.getRootDir(), archive), out);
+        }
+    }
+
+    public Run<?, ?> getRun() {
+        return run;
+    }
+
+    @Override
+    public void onAttached(Run<?, ?> run) {
+        this.run = run;
+    }
+
+    @Override
+    public void onLoad(Run<?, ?> run) {
+        this.run = run;
+    }
+
+    @Override
+    public String getIconFileName() {
+        return "package.png";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Ranorex Reports";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "ranorex-report";
+    }
+}
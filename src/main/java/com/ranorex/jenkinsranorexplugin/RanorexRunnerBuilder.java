@@ -2,18 +2,24 @@ package com.ranorex.jenkinsranorexplugin;
 
 import com.ranorex.jenkinsranorexplugin.util.CmdArgument;
 import com.ranorex.jenkinsranorexplugin.util.FileUtil;
+import com.ranorex.jenkinsranorexplugin.util.JUnitReportSummary;
+import com.ranorex.jenkinsranorexplugin.util.ParsedArgument;
+import com.ranorex.jenkinsranorexplugin.util.PhaseTimings;
 import com.ranorex.jenkinsranorexplugin.util.RanorexParameter;
 import com.ranorex.jenkinsranorexplugin.util.StringUtil;
+import com.ranorex.jenkinsranorexplugin.util.TestSuiteFile;
 import hudson.*;
 import hudson.model.*;
 import hudson.tasks.BuildStepDescriptor;
 import hudson.tasks.Builder;
-import hudson.util.ArgumentListBuilder;
+import hudson.util.ComboBoxModel;
 import hudson.util.FormValidation;
+import jenkins.model.Jenkins;
 import jenkins.tasks.SimpleBuildStep;
 import net.sf.json.JSONObject;
 import org.apache.commons.lang.BooleanUtils;
 import org.jenkinsci.Symbol;
+import org.kohsuke.stapler.AncestorInPath;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.QueryParameter;
@@ -22,12 +28,13 @@ import org.kohsuke.stapler.StaplerRequest;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 import java.io.IOException;
-import java.io.PrintStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 
-public class RanorexRunnerBuilder extends Builder implements SimpleBuildStep {
+public class RanorexRunnerBuilder extends Builder implements SimpleBuildStep, Serializable, Cloneable {
+    private static final long serialVersionUID = 1L;
 
-    private static final String ZIPPED_REPORT_EXTENSION = ".rxzlog";
-    private static final String ARGUMENT_SEPARATOR = "\t\r\n;";
     /*
      * Builder GUI Fields
      */
@@ -51,6 +58,9 @@ public class RanorexRunnerBuilder extends Builder implements SimpleBuildStep {
     private String rxZippedReportFile;
     @CheckForNull
     private String rxGlobalParameter;
+    private boolean rxParameterSuite;
+    @CheckForNull
+    private String rxParameterFile;
     @CheckForNull
     private String cmdLineArgs;
     @CheckForNull
@@ -63,18 +73,28 @@ public class RanorexRunnerBuilder extends Builder implements SimpleBuildStep {
     private String rxTestRailRID;
     @CheckForNull
     private String rxTestRailRunName;
+    private int rxShardCount;
+    private int rxShardNumber;
+    private boolean rxArchiveReport;
+    private boolean rxDeduplicateReport;
+    private int rxTimeout;
+    private int rxInactivityTimeout;
+    private boolean rxFilterConsole;
+    private boolean rxDirectLaunch;
+    private boolean rxExclusiveDesktop;
+    private int rxDesktopTimeout;
+    private int rxDesktopLeaseTimeout;
+    private int rxRetryCount;
+    private int rxReportRetentionCount;
+    private int rxReportRetentionDays;
+    @CheckForNull
+    private String rxBinaryJob;
+    @CheckForNull
+    private String rxBinaryFilter;
+    @CheckForNull
+    private String rxAdditionalTestSuites;
 
-    /*
-     * Other Variables
-     */
-    private String rxExecuteableFile;
-    private String workSpace;
-    private String usedRxReportDirectory;
-    private String usedRxReportFile;
-    private String usedRxZippedReportDirectory;
-    private String usedRxZippedReportFile;
-    private ArgumentListBuilder jArguments;
-    private PrintStream logger;
+    private transient volatile InvocationPlan invocationPlan;
 
     /**
      * When this builder is created in the project configuration step, the builder
@@ -211,89 +231,311 @@ public class RanorexRunnerBuilder extends Builder implements SimpleBuildStep {
         return this.rxGlobalParameter;
     }
 
+    public Boolean getRxParameterSuite() {
+        return this.rxParameterSuite;
+    }
+
+    @CheckForNull
+    public String getRxParameterFile() {
+        return this.rxParameterFile;
+    }
+
     @CheckForNull
     public String getCmdLineArgs() {
         return this.cmdLineArgs;
     }
 
+    public int getRxShardCount() {
+        return this.rxShardCount;
+    }
+
+    public int getRxShardNumber() {
+        return this.rxShardNumber;
+    }
+
+    public Boolean getRxArchiveReport() {
+        return this.rxArchiveReport;
+    }
+
+    public Boolean getRxDeduplicateReport() {
+        return this.rxDeduplicateReport;
+    }
+
+    public int getRxTimeout() {
+        return this.rxTimeout;
+    }
+
+    public int getRxInactivityTimeout() {
+        return this.rxInactivityTimeout;
+    }
+
+    public Boolean getRxFilterConsole() {
+        return this.rxFilterConsole;
+    }
+
+    public Boolean getRxDirectLaunch() {
+        return this.rxDirectLaunch;
+    }
+
+    public Boolean getRxExclusiveDesktop() {
+        return this.rxExclusiveDesktop;
+    }
+
+    public int getRxDesktopTimeout() {
+        return this.rxDesktopTimeout;
+    }
+
+    public int getRxDesktopLeaseTimeout() {
+        return this.rxDesktopLeaseTimeout;
+    }
+
+    public int getRxRetryCount() {
+        return this.rxRetryCount;
+    }
+
+    public int getRxReportRetentionCount() {
+        return this.rxReportRetentionCount;
+    }
+
+    public int getRxReportRetentionDays() {
+        return this.rxReportRetentionDays;
+    }
+
+    public String getRxBinaryJob() {
+        return this.rxBinaryJob;
+    }
+
+    public String getRxBinaryFilter() {
+        return this.rxBinaryFilter;
+    }
+
+    public String getRxAdditionalTestSuites() {
+        return this.rxAdditionalTestSuites;
+    }
+
+    /**
+     * @return The paths of the test suites which run after the configured test suite, one per line of the
+     * configuration
+     */
+    List<String> getAdditionalTestSuites() {
+        List<String> testSuites = new ArrayList<>();
+        if (rxAdditionalTestSuites != null) {
+            for (String line : rxAdditionalTestSuites.split("\\r?\\n")) {
+                if (! StringUtil.isNullOrSpace(line)) {
+                    testSuites.add(line.trim());
+                }
+            }
+        }
+        return testSuites;
+    }
+
     @DataBoundSetter
     public void setRxTestSuiteFilePath(@CheckForNull String rxTestSuiteFilePath) {
         this.rxTestSuiteFilePath = Util.fixNull(rxTestSuiteFilePath);
+        invocationPlan = null;
     }
 
     @DataBoundSetter
     public void setRxRunConfiguration(@CheckForNull String rxRunConfiguration) {
         this.rxRunConfiguration = Util.fixNull(rxRunConfiguration);
+        invocationPlan = null;
     }
 
     @DataBoundSetter
     public void setRxReportDirectory(@CheckForNull String rxReportDirectory) {
         this.rxReportDirectory = Util.fixNull(rxReportDirectory);
+        invocationPlan = null;
     }
 
     @DataBoundSetter
     public void setRxReportFile(@CheckForNull String rxReportFile) {
         this.rxReportFile = Util.fixNull(rxReportFile);
+        invocationPlan = null;
     }
 
     @DataBoundSetter
     public void setRxReportExtension(@CheckForNull String rxReportExtension) {
         this.rxReportExtension = Util.fixNull(rxReportExtension);
+        invocationPlan = null;
     }
 
     @DataBoundSetter
     public void setRxJUnitReport(@CheckForNull Boolean rxJUnitReport) {
         this.rxJUnitReport = BooleanUtils.isTrue(rxJUnitReport);
+        invocationPlan = null;
     }
 
     @DataBoundSetter
     public void setRxZippedReport(Boolean rxZippedReport) {
         this.rxZippedReport = BooleanUtils.isTrue(rxZippedReport);
+        invocationPlan = null;
     }
 
     @DataBoundSetter
     public void setRxZippedReportDirectory(@CheckForNull String rxZippedReportDirectory) {
         this.rxZippedReportDirectory = Util.fixNull(rxZippedReportDirectory);
+        invocationPlan = null;
     }
 
     @DataBoundSetter
     public void setRxZippedReportFile(@CheckForNull String rxZippedReportFile) {
         this.rxZippedReportFile = Util.fixNull(rxZippedReportFile);
+        invocationPlan = null;
     }
 
     @DataBoundSetter
     public void setRxTestRail(Boolean rxTestRail) {
         this.rxTestRail = BooleanUtils.isTrue(rxTestRail);
+        invocationPlan = null;
     }
 
     @DataBoundSetter
     public void setRxTestRailUser(@CheckForNull String rxTestRailUser) {
         this.rxTestRailUser = Util.fixNull(rxTestRailUser);
+        invocationPlan = null;
     }
 
     @DataBoundSetter
     public void setRxTestRailPassword(@CheckForNull String rxTestRailPassword) {
         this.rxTestRailPassword = Util.fixNull(rxTestRailPassword);
+        invocationPlan = null;
     }
 
     @DataBoundSetter
     public void setRxTestRailRID(@CheckForNull String rxTestRailRID) {
         this.rxTestRailRID = Util.fixNull(rxTestRailRID);
+        invocationPlan = null;
     }
 
     @DataBoundSetter
     public void setRxTestRailRunName(@CheckForNull String rxTestRailRunName) {
         this.rxTestRailRunName = Util.fixNull(rxTestRailRunName);
+        invocationPlan = null;
     }
 
     @DataBoundSetter
     public void setRxGlobalParameter(@CheckForNull String rxGlobalParameter) {
         this.rxGlobalParameter = Util.fixNull(rxGlobalParameter);
+        invocationPlan = null;
+    }
+
+    @DataBoundSetter
+    public void setRxParameterSuite(Boolean rxParameterSuite) {
+        this.rxParameterSuite = BooleanUtils.isTrue(rxParameterSuite);
+        invocationPlan = null;
+    }
+
+    @DataBoundSetter
+    public void setRxParameterFile(@CheckForNull String rxParameterFile) {
+        this.rxParameterFile = Util.fixEmptyAndTrim(rxParameterFile);
+        invocationPlan = null;
     }
 
     @DataBoundSetter
     public void setCmdLineArgs(@CheckForNull String CmdLineArgs) {
         this.cmdLineArgs = Util.fixNull(CmdLineArgs);
+        invocationPlan = null;
+    }
+
+    @DataBoundSetter
+    public void setRxShardCount(int rxShardCount) {
+        this.rxShardCount = rxShardCount;
+    }
+
+    @DataBoundSetter
+    public void setRxShardNumber(int rxShardNumber) {
+        this.rxShardNumber = rxShardNumber;
+    }
+
+    @DataBoundSetter
+    public void setRxArchiveReport(Boolean rxArchiveReport) {
+        this.rxArchiveReport = BooleanUtils.isTrue(rxArchiveReport);
+    }
+
+    @DataBoundSetter
+    public void setRxDeduplicateReport(Boolean rxDeduplicateReport) {
+        this.rxDeduplicateReport = BooleanUtils.isTrue(rxDeduplicateReport);
+    }
+
+    @DataBoundSetter
+    public void setRxTimeout(int rxTimeout) {
+        this.rxTimeout = Math.max(0, rxTimeout);
+    }
+
+    @DataBoundSetter
+    public void setRxInactivityTimeout(int rxInactivityTimeout) {
+        this.rxInactivityTimeout = Math.max(0, rxInactivityTimeout);
+    }
+
+    @DataBoundSetter
+    public void setRxFilterConsole(Boolean rxFilterConsole) {
+        this.rxFilterConsole = BooleanUtils.isTrue(rxFilterConsole);
+    }
+
+    @DataBoundSetter
+    public void setRxDirectLaunch(Boolean rxDirectLaunch) {
+        this.rxDirectLaunch = BooleanUtils.isTrue(rxDirectLaunch);
+    }
+
+    @DataBoundSetter
+    public void setRxExclusiveDesktop(Boolean rxExclusiveDesktop) {
+        this.rxExclusiveDesktop = BooleanUtils.isTrue(rxExclusiveDesktop);
+    }
+
+    @DataBoundSetter
+    public void setRxDesktopTimeout(int rxDesktopTimeout) {
+        this.rxDesktopTimeout = Math.max(0, rxDesktopTimeout);
+    }
+
+    @DataBoundSetter
+    public void setRxDesktopLeaseTimeout(int rxDesktopLeaseTimeout) {
+        this.rxDesktopLeaseTimeout = Math.max(0, rxDesktopLeaseTimeout);
+    }
+
+    @DataBoundSetter
+    public void setRxRetryCount(int rxRetryCount) {
+        this.rxRetryCount = Math.max(0, rxRetryCount);
+    }
+
+    @DataBoundSetter
+    public void setRxReportRetentionCount(int rxReportRetentionCount) {
+        this.rxReportRetentionCount = Math.max(0, rxReportRetentionCount);
+    }
+
+    @DataBoundSetter
+    public void setRxReportRetentionDays(int rxReportRetentionDays) {
+        this.rxReportRetentionDays = Math.max(0, rxReportRetentionDays);
+    }
+
+    @DataBoundSetter
+    public void setRxBinaryJob(@CheckForNull String rxBinaryJob) {
+        this.rxBinaryJob = Util.fixEmptyAndTrim(rxBinaryJob);
+    }
+
+    @DataBoundSetter
+    public void setRxBinaryFilter(@CheckForNull String rxBinaryFilter) {
+        this.rxBinaryFilter = Util.fixEmptyAndTrim(rxBinaryFilter);
+    }
+
+    @DataBoundSetter
+    public void setRxAdditionalTestSuites(@CheckForNull String rxAdditionalTestSuites) {
+        this.rxAdditionalTestSuites = Util.fixEmptyAndTrim(rxAdditionalTestSuites);
+    }
+
+    /**
+     * @param testSuiteFilePath The path of another test suite
+     * @return A builder with the same configuration which runs only the given test suite
+     */
+    RanorexRunnerBuilder forTestSuite(String testSuiteFilePath) {
+        RanorexRunnerBuilder builder;
+        try {
+            builder = (RanorexRunnerBuilder) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+        builder.setRxTestSuiteFilePath(testSuiteFilePath);
+        builder.rxAdditionalTestSuites = null;
+        return builder;
     }
 
     /**
@@ -320,200 +562,122 @@ public class RanorexRunnerBuilder extends Builder implements SimpleBuildStep {
     @Override
     public void perform(@Nonnull Run<?, ?> run, @Nonnull FilePath workspace, @Nonnull Launcher launcher,
                         @Nonnull TaskListener listener) throws InterruptedException, IOException {
-        EnvVars env;
+        EnvVars env = run.getEnvironment(listener);
         FilePath wSpace;
 
         if (run instanceof AbstractBuild) {
             wSpace = ((AbstractBuild<?, ?>) run).getWorkspace();
-            env = run.getEnvironment(listener);
             env.overrideAll(((AbstractBuild<?, ?>) run).getBuildVariables());
         } else {
             wSpace = workspace;
-            env = new EnvVars();
         }
 
-        jArguments = new ArgumentListBuilder("cmd.exe", "/C");
-        workSpace = FileUtil.getRanorexWorkingDirectory(wSpace, rxTestSuiteFilePath).getRemote();
-        workSpace = StringUtil.appendBackslash(workSpace);
-        logger = listener.getLogger();
-
-        if (! StringUtil.isNullOrSpace(rxTestSuiteFilePath)) {
-            rxExecuteableFile = FileUtil.getExecutableFromTestSuite(rxTestSuiteFilePath);
-            jArguments.add(rxExecuteableFile);
-            // Ranorex Run Configuration
-            if (! StringUtil.isNullOrSpace(rxRunConfiguration)) {
-                jArguments.add("/runconfig:" + rxRunConfiguration);
-            }
+        Result result = perform(run, wSpace, workspace, env, launcher, listener, getDescriptor().isUseSummarize());
+        if (result.isWorseThan(Result.SUCCESS)) {
+            run.setResult(result);
+        }
+    }
 
-            // Ranorex Reportdirectory
-            if (! StringUtil.isNullOrSpace(rxReportDirectory)) {
-                logger.println("Reportpath to merge. Base: " + workSpace + " Relative: " + rxReportDirectory);
-                usedRxReportDirectory = FileUtil.getAbsoluteReportDirectory(workSpace, rxReportDirectory);
-                logger.println("Merged path: " + usedRxReportDirectory);
-            } else {
-                usedRxReportDirectory = workSpace;
+    /**
+     * Runs the Ranorex test executable. All state of the execution is kept in a {@link RanorexExecution}, so
+     * this method may be called by several concurrent builds of the same job.
+     *
+     * @param run       The current build, may be null if no build actions should be recorded
+     * @param wSpace    The workspace used to resolve the report directories
+     * @param workspace The workspace used to resolve the working directory of the test executable
+     * @param env       The environment variables of the process
+     * @param launcher  Starts a process
+     * @param listener  Receives events that happen during a build
+     * @param summarize True if the summary of all arguments should be printed to the console
+     * @return The result of this execution
+     */
+    Result perform(@CheckForNull Run<?, ?> run, FilePath wSpace, FilePath workspace, EnvVars env, Launcher launcher,
+                   TaskListener listener, boolean summarize) {
+        List<String> additionalTestSuites = getAdditionalTestSuites();
+        if (! additionalTestSuites.isEmpty()) {
+            List<RanorexRunnerBuilder> testSuites = new ArrayList<>();
+            testSuites.add(forTestSuite(Util.fixNull(rxTestSuiteFilePath)));
+            for (String testSuite : additionalTestSuites) {
+                testSuites.add(forTestSuite(testSuite));
             }
-            usedRxReportDirectory = StringUtil.appendBackslash(usedRxReportDirectory);
-
-            // ReportFilename
-            if (! StringUtil.isNullOrSpace(rxReportFile)) {
-                if (! FileUtil.isAbsolutePath(rxReportFile)) {
-                    usedRxReportFile = FileUtil.removeFileExtension(rxReportFile);
-                } else {
-                    logger.println("'" + rxReportFile + "' is not a valid Ranorex Report filename");
-                    return;
-                }
-            } else {
-                usedRxReportFile = "%S_%Y%M%D_%T";
+            return new MultiSuiteRun(testSuites).run(run, wSpace, workspace, env, launcher, listener, summarize);
+        }
+        long start = System.nanoTime();
+        RanorexExecution execution = new RanorexExecution(this, getInvocationPlan(), run, env, listener);
+        execution.getTimings().addSince(PhaseTimings.Phase.ARGUMENTS, start);
+        try {
+            if (! execution.prepare(wSpace, workspace)) {
+                return Result.SUCCESS;
             }
-            jArguments.add("/reportfile:" + usedRxReportDirectory + usedRxReportFile + "." + rxReportExtension);
-
-            // JUnit compatible Report
-            if (BooleanUtils.isTrue(rxJUnitReport)) {
-                jArguments.add("/junit");
+            // Summarize Output
+            if (summarize) {
+                execution.printSummary();
             }
-
-            // Compressed copy of Ranorex report
-            if (BooleanUtils.isTrue(rxZippedReport)) {
-                jArguments.add("/zipreport");
-                // Zipped Ranorex Reportdirectory
-                if (! StringUtil.isNullOrSpace(rxZippedReportDirectory)) {
-                    usedRxZippedReportDirectory = FileUtil.getAbsoluteReportDirectory(workSpace,
-                            rxZippedReportDirectory);
-                } else {
-                    usedRxZippedReportDirectory = workSpace;
-                }
-                usedRxZippedReportDirectory = StringUtil.appendBackslash(usedRxZippedReportDirectory);
-
-                // Zipped Report File Name
-                if (! StringUtil.isNullOrSpace(rxZippedReportFile)) {
-                    if (! FileUtil.isAbsolutePath(rxZippedReportFile)) {
-                        usedRxZippedReportFile = FileUtil.removeFileExtension(rxZippedReportFile);
-                    } else {
-                        logger.println("'" + rxZippedReportFile + "' is not a valid Ranorex Report filename");
-                        return;
-                    }
-                } else {
-                    usedRxZippedReportFile = usedRxReportFile;
-                }
-
-                jArguments.add("/zipreportfile:" + usedRxZippedReportDirectory + usedRxZippedReportFile
-                        + ZIPPED_REPORT_EXTENSION);
+            // Sharded test run
+            if (rxShardCount > 1) {
+                return new ShardedTestRun(execution, rxShardCount, rxShardNumber, rxRetryCount).run(run, launcher,
+                        env);
             }
-
-            // Test Rail
-            if (BooleanUtils.isTrue(rxTestRail)) {
-                jArguments.add("/testrail");
-                if (! StringUtil.isNullOrSpace(rxTestRailUser) && ! StringUtil.isNullOrSpace(rxTestRailPassword)) {
-                    jArguments.addMasked("/truser=" + rxTestRailUser);
-                    jArguments.addMasked("/trpass=" + rxTestRailPassword);
-                } else {
-                    logger.println("Testrail username and password are required");
-                    return;
-                }
-                if (! StringUtil.isNullOrSpace(rxTestRailRID)) {
-                    jArguments.add("/trrunid=" + rxTestRailRID);
-                }
-                if (! StringUtil.isNullOrSpace(rxTestRailRunName)) {
-                    jArguments.add("/trrunname=" + rxTestRailRunName);
-                }
+            // Retries need the JUnit report to find the failed test cases
+            boolean retry = rxRetryCount > 0;
+            JUnitReportLocator locator = null;
+            if (retry || run != null && execution.getPlan().isJUnitReport()) {
+                locator = JUnitReportLocator.snapshot(execution.getReportDirectory(), execution.getUsedRxReportFile());
             }
-
-            // Parse Global Parameters
-            if (! StringUtil.isNullOrSpace(rxGlobalParameter)) {
-                for (String param : StringUtil.splitBy(rxGlobalParameter, ARGUMENT_SEPARATOR)) {
-                    try {
-                        RanorexParameter rxParam = new RanorexParameter(param);
-                        rxParam.trim();
-                        jArguments.add(rxParam.toString());
-                    } catch (Exception e) {
-                        System.out.println("[INFO] [RanorexRunnerBuilder] Parameter '" + param + "' will be ignored");
-                    }
+            ReportArchiver archiver = execution.startReportArchiver();
+            int r = retry ? execution.launch(launcher, env, "", execution.createArguments("", "/junit"))
+                    : execution.launch(launcher, env);
+            execution.archiveReport(archiver, "");
+            if (locator != null && execution.getTimeout() == null) {
+                List<FilePath> junitReports = locator.findNewReports();
+                JUnitReportSummary summary = execution.summarizeJUnitReports(junitReports);
+                if (r != 0 && retry && new FailedTestRetry(execution, rxRetryCount).retry(summary, launcher, env, "",
+                        junitReports)) {
+                    r = 0;
                 }
+                execution.publishJUnitSummary(summary);
             }
-
-            // Additional cmd arguments
-            if (! StringUtil.isNullOrSpace(cmdLineArgs)) {
-                for (String argument : StringUtil.splitBy(cmdLineArgs, ARGUMENT_SEPARATOR)) {
-                    try {
-                        CmdArgument arg = new CmdArgument(argument);
-                        jArguments.add(arg.toString());
-                    } catch (Exception e) {
-                        System.out
-                                .println("[INFO] [RanorexRunnerBuilder] Argument '" + argument + "' will be ignored ");
-                    }
-                }
+            if (execution.getTimeout() != null) {
+                return Result.ABORTED;
             }
-            // Summarize Output
-            if (getDescriptor().isUseSummarize()) {
-                logger.println("\n*************Start of Ranorex Summary*************");
-                logger.println("Current Plugin version:\t\t" + getClass().getPackage().getImplementationVersion());
-                logger.println("Ranorex Working Directory:\t" + workSpace);
-                logger.println("Ranorex test suite file:\t" + rxTestSuiteFilePath);
-                logger.println("Ranorex test exe file:\t\t" + rxExecuteableFile);
-                logger.println("Ranorex run configuration:\t" + rxRunConfiguration);
-                logger.println("Ranorex report directory:\t" + usedRxReportDirectory);
-                logger.println("Ranorex report filename:\t" + usedRxReportFile);
-                logger.println("Ranorex report extension:\t" + rxReportExtension);
-                logger.println("Junit-compatible report:\t" + rxJUnitReport);
-                logger.println("Ranorex report compression:\t" + rxZippedReport);
-                if (rxZippedReport) {
-                    logger.println("\tRanorex zipped report dir:\t" + usedRxZippedReportDirectory);
-                    logger.println("\tRanorex zipped report file:\t" + usedRxZippedReportFile);
-                }
-                logger.println("Ranorex Test Rail Integration:\t" + rxTestRail);
-                if (rxTestRail) {
-                    logger.println("\tRanorex Test Rail User:\t\t" + rxTestRailUser);
-                    logger.println("\tRanorex Test Rail Password:\t" + "*****************");
-                    logger.println("\tRanorex Test Rail Run ID:\t" + rxTestRailRID);
-                    logger.println("\tRanorex Test Rail Run Name:\t" + rxTestRailRunName);
-                }
-                logger.println("Ranorex global parameters:");
-                if (! StringUtil.isNullOrSpace(rxGlobalParameter)) {
-                    for (String param : StringUtil.splitBy(rxGlobalParameter, ARGUMENT_SEPARATOR)) {
-                        try {
-                            RanorexParameter rxParam = new RanorexParameter(param);
-                            rxParam.trim();
-                            logger.println("\t*" + rxParam.toString());
-                        } catch (Exception e) {
-                            logger.println("\t!" + param + " will be ignored");
-                        }
-                    }
-                } else {
-                    logger.println("\t*No global parameters entered");
-                }
-                logger.println("Command line arguments:");
-                if (! StringUtil.isNullOrSpace(cmdLineArgs)) {
-                    for (String argument : StringUtil.splitBy(cmdLineArgs, ARGUMENT_SEPARATOR)) {
-                        try {
-                            CmdArgument arg = new CmdArgument(argument);
-                            arg.trim();
-                            logger.println("\t*" + arg.toString());
-                        } catch (Exception e) {
-                            logger.println("\t!" + argument + " will be ignored ");
-                        }
-                    }
-                } else {
-                    logger.println("\t*No command line arguments entered");
-                }
-                logger.println("*************End of Ranorex Summary*************\n");
+            if (r != 0) {
+                return Result.FAILURE;
             }
-
-            FilePath currentWorkspace = FileUtil.getRanorexWorkingDirectory(workspace, rxTestSuiteFilePath);
-            logger.println("Executing : " + jArguments.toString());
+        } catch (AbortException e) {
+            listener.error(e.getMessage());
+            return Result.FAILURE;
+        } catch (Exception e) {
+            e.printStackTrace(listener.fatalError("execution failed"));
+            return Result.FAILURE;
+        } finally {
             try {
-                int r = launcher.launch().cmds(jArguments).envs(env).stdout(listener).pwd(currentWorkspace).join();
-
-                if (r != 0) {
-                    run.setResult(Result.FAILURE);
-                }
-            } catch (Exception e) {
-                e.printStackTrace(listener.fatalError("execution failed"));
-                run.setResult(Result.FAILURE);
+                execution.publishTimings();
+            } catch (IOException e) {
+                listener.error("Cannot record the Ranorex timings: " + e.getMessage());
+            }
+            try {
+                execution.cleanupReports();
+            } catch (IOException | InterruptedException e) {
+                listener.error("Cannot delete old Ranorex reports: " + e.getMessage());
             }
-        } else {
-            logger.println("No TestSuite file given");
         }
+        return Result.SUCCESS;
+    }
+
+    /**
+     * Returns the precompiled invocation plan for the current configuration. The plan is compiled on first
+     * use and discarded whenever a {@link DataBoundSetter} changes the configuration, so a build only reads the
+     * cached plan.
+     *
+     * @return The invocation plan matching the current configuration
+     */
+    InvocationPlan getInvocationPlan() {
+        InvocationPlan plan = invocationPlan;
+        if (plan == null) {
+            plan = new InvocationPlan(this);
+            invocationPlan = plan;
+        }
+        return plan;
     }
 
     // Overridden for better type safety.
@@ -525,7 +689,7 @@ public class RanorexRunnerBuilder extends Builder implements SimpleBuildStep {
 
     }
 
-    @Symbol ("ranorex")
+    @Symbol ("ranorexBuilder")
     @Extension // This indicates to Jenkins that this is an implementation of an extension
     // point.
     public static final class DescriptorImpl extends BuildStepDescriptor<Builder> {
@@ -543,6 +707,60 @@ public class RanorexRunnerBuilder extends Builder implements SimpleBuildStep {
             load();
         }
 
+        // Fill Run Configurations
+        public ComboBoxModel doFillRxRunConfigurationItems(@AncestorInPath Item item,
+                                                           @QueryParameter String rxTestSuiteFilePath) {
+            ComboBoxModel items = new ComboBoxModel();
+            TestSuiteFile testSuite = readTestSuite(item, rxTestSuiteFilePath);
+            if (testSuite != null) {
+                items.addAll(testSuite.getRunConfigurations());
+            }
+            return items;
+        }
+
+        // Check Run Configuration
+        public FormValidation doCheckRxRunConfiguration(@AncestorInPath Item item, @QueryParameter String value,
+                                                        @QueryParameter String rxTestSuiteFilePath) {
+            if (StringUtil.isNullOrSpace(value)) {
+                return FormValidation.ok();
+            }
+            TestSuiteFile testSuite = readTestSuite(item, rxTestSuiteFilePath);
+            if (testSuite == null || testSuite.getRunConfigurations().contains(value.trim())) {
+                return FormValidation.ok();
+            }
+            return FormValidation.warning("The run configuration '" + value.trim()
+                    + "' does not exist in the test suite '" + testSuite.getName() + "'");
+        }
+
+        /**
+         * Reads the test suite from the workspace of the job, if the job has been built before. A Pipeline job has
+         * no workspace of its own, its default workspace on the controller is used.
+         *
+         * @param item              The configured job
+         * @param testSuiteFilePath The configured path of the test suite
+         * @return The structure of the test suite or null if the test suite cannot be read
+         */
+        @CheckForNull
+        private static TestSuiteFile readTestSuite(@CheckForNull Item item, @CheckForNull String testSuiteFilePath) {
+            if (! (item instanceof TopLevelItem) || StringUtil.isNullOrSpace(testSuiteFilePath)
+                    || ! item.hasPermission(Item.CONFIGURE)) {
+                return null;
+            }
+            FilePath workspace = item instanceof AbstractProject ? ((AbstractProject<?, ?>) item).getSomeWorkspace()
+                    : Jenkins.getInstance().getWorkspaceFor((TopLevelItem) item);
+            if (workspace == null) {
+                return null;
+            }
+            try {
+                return TestSuiteIndex.read(TestSuiteIndex.locate(workspace, testSuiteFilePath));
+            } catch (IOException e) {
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+
         // Check Report Directory
         public FormValidation doCheckRxReportDirectory(@QueryParameter String value) {
             if (! StringUtil.isNullOrSpace(value)) {
@@ -587,6 +805,42 @@ public class RanorexRunnerBuilder extends Builder implements SimpleBuildStep {
             }
         }
 
+        // Check Shard Number
+        public FormValidation doCheckRxShardNumber(@QueryParameter String value, @QueryParameter String rxShardCount) {
+            int shardCount;
+            int shardNumber;
+            try {
+                shardCount = StringUtil.isNullOrSpace(rxShardCount) ? 0 : Integer.parseInt(rxShardCount.trim());
+                shardNumber = StringUtil.isNullOrSpace(value) ? 0 : Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                return FormValidation.error("Shard count and shard number must be numbers");
+            }
+            if (shardCount > 1 && (shardNumber < 1 || shardNumber > shardCount)) {
+                return FormValidation.error("Shard number must be between 1 and " + shardCount);
+            }
+            return FormValidation.ok();
+        }
+
+        // Check Global Parameters
+        public FormValidation doCheckRxGlobalParameter(@QueryParameter String value) {
+            return checkArguments(RanorexParameter.parseAll(value));
+        }
+
+        // Check Command Line Arguments
+        public FormValidation doCheckCmdLineArgs(@QueryParameter String value) {
+            return checkArguments(CmdArgument.parseAll(value));
+        }
+
+        private static FormValidation checkArguments(List<? extends ParsedArgument<?>> parsedArguments) {
+            List<FormValidation> warnings = new ArrayList<>();
+            for (ParsedArgument<?> parsed : parsedArguments) {
+                if (! parsed.isValid()) {
+                    warnings.add(FormValidation.warning(parsed.getDiagnostic()));
+                }
+            }
+            return FormValidation.aggregate(warnings);
+        }
+
         // Check Test Rail Username
         public FormValidation doCheckRxTestRailUser(@QueryParameter String value) {
             if (! StringUtil.isNullOrSpace(value)) {
@@ -0,0 +1,229 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import com.ranorex.jenkinsranorexplugin.util.JUnitReportMerger;
+import hudson.Util;
+import hudson.model.Run;
+import jenkins.model.RunAction2;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+import javax.annotation.CheckForNull;
+import javax.servlet.ServletException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the results of all shards of a sharded Ranorex test run. Every shard adds its merged JUnit report,
+ * the action combines them into one JUnit report for the whole build.
+ */
+public class RanorexShardAction implements RunAction2 {
+    private static final String SHARD_DIRECTORY = "ranorex-shards";
+    private static final String MERGED_REPORT = "junit.xml";
+
+    private final List<Shard> shards = new ArrayList<>();
+    @CheckForNull
+    private Map<String, List<List<String>>> plans;
+    private transient Run<?, ?> run;
+
+    /**
+     * Returns the shard action of the build, the action is created if it does not exist yet
+     *
+     * @param run The current build
+     * @return The shard action of the build
+     */
+    static RanorexShardAction getOrCreate(Run<?, ?> run) {
+        return RunActions.getOrCreate(run, RanorexShardAction.class, RanorexShardAction::new);
+    }
+
+    /**
+     * @param shardNumber The number of the shard
+     * @return The file the merged JUnit report of the shard is written to
+     */
+    File getShardReport(int shardNumber) {
+        File directory = getShardDirectory();
+        if (! directory.isDirectory() && ! directory.mkdirs()) {
+            throw new IllegalStateException("Cannot create directory " + directory);
+        }
+        return new File(directory, "shard-" + shardNumber + ".xml");
+    }
+
+    /**
+     * Returns the shard plan which was already used by another shard of the build, or stores the given plan.
+     * All shards of a build have to use the same plan, even if the duration history changes in between.
+     *
+     * @param key  Identifies the test suite and the number of shards
+     * @param plan The plan calculated by the current shard
+     * @return The plan which has to be used by all shards with the same key
+     */
+    synchronized List<List<String>> putPlanIfAbsent(String key, List<List<String>> plan) {
+        if (plans == null) {
+            plans = new HashMap<>();
+        }
+        List<List<String>> existing = plans.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        plans.put(key, plan);
+        return plan;
+    }
+
+    /**
+     * Records a finished shard and merges the JUnit reports of all finished shards
+     *
+     * @param shard The finished shard
+     * @throws IOException If the JUnit reports cannot be merged or the build cannot be saved
+     */
+    synchronized void addShard(Shard shard) throws IOException {
+        shards.add(shard);
+        Collections.sort(shards, Comparator.comparingInt(Shard::getShardNumber));
+        try (OutputStream out = new FileOutputStream(new File(getShardDirectory(), MERGED_REPORT));
+             JUnitReportMerger merger = new JUnitReportMerger(out)) {
+            for (Shard finished : shards) {
+                File shardReport = getShardReport(finished.getShardNumber());
+                if (shardReport.isFile()) {
+                    try (InputStream in = new FileInputStream(shardReport)) {
+                        merger.add(in);
+                    }
+                }
+            }
+        }
+        run.save();
+    }
+
+    public Run<?, ?> getRun() {
+        return run;
+    }
+
+    public synchronized List<Shard> getShards() {
+        return new ArrayList<>(shards);
+    }
+
+    /**
+     * Serves the merged JUnit report of all shards
+     *
+     * @param req The current request
+     * @param rsp The response
+     * @throws IOException      If the report cannot be sent
+     * @throws ServletException If the report cannot be sent
+     */
+    public void doJunit(StaplerRequest req, StaplerResponse rsp) throws IOException, ServletException {
+        File mergedReport = new File(getShardDirectory(), MERGED_REPORT);
+        if (! mergedReport.isFile()) {
+            rsp.sendError(StaplerResponse.SC_NOT_FOUND);
+            return;
+        }
+        rsp.serveFile(req, mergedReport.toURI().toURL());
+    }
+
+    private File getShardDirectory() {
+        return new File(run.getRootDir(), SHARD_DIRECTORY);
+    }
+
+    @Override
+    public void onAttached(Run<?, ?> run) {
+        this.run = run;
+    }
+
+    @Override
+    public void onLoad(Run<?, ?> run) {
+        this.run = run;
+    }
+
+    @Override
+    public String getIconFileName() {
+        return "clipboard.png";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Ranorex Shards";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "ranorex-shards";
+    }
+
+    /**
+     * Result of a single shard
+     */
+    public static final class Shard implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final int shardNumber;
+        private final int shardCount;
+        @CheckForNull
+        private final String node;
+        private final List<String> testContainers;
+        private final List<String> reportFiles;
+        private final String result;
+        @CheckForNull
+        private final Map<String, Long> durations;
+
+        Shard(int shardNumber, int shardCount, @CheckForNull String node, List<String> testContainers,
+              List<String> reportFiles, String result, Map<String, Long> durations) {
+            this.shardNumber = shardNumber;
+            this.shardCount = shardCount;
+            this.node = node;
+            this.testContainers = new ArrayList<>(testContainers);
+            this.reportFiles = new ArrayList<>(reportFiles);
+            this.result = result;
+            this.durations = new LinkedHashMap<>(durations);
+        }
+
+        public int getShardNumber() {
+            return shardNumber;
+        }
+
+        public int getShardCount() {
+            return shardCount;
+        }
+
+        @CheckForNull
+        public String getNode() {
+            return node;
+        }
+
+        public List<String> getTestContainers() {
+            return Collections.unmodifiableList(testContainers);
+        }
+
+        public List<String> getReportFiles() {
+            return Collections.unmodifiableList(reportFiles);
+        }
+
+        public String getResult() {
+            return result;
+        }
+
+        /**
+         * @return The measured durations in milliseconds of the test containers which were completed
+         */
+        public Map<String, Long> getDurations() {
+            return durations != null ? Collections.unmodifiableMap(durations) : Collections.<String, Long>emptyMap();
+        }
+
+        /**
+         * @return The total duration of the completed test containers
+         */
+        public String getDurationString() {
+            long total = 0;
+            for (long duration : getDurations().values()) {
+                total += duration;
+            }
+            return Util.getTimeSpanString(total);
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import hudson.EnvVars;
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.model.Item;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.util.ComboBoxModel;
+import hudson.util.FormValidation;
+import jenkins.model.Jenkins;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.AncestorInPath;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.QueryParameter;
+
+import javax.annotation.CheckForNull;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The {@code ranorex} Pipeline step. It takes the same settings as the {@link RanorexRunnerBuilder}, but runs the
+ * test executable asynchronously, see {@link RanorexStepExecution}.
+ */
+public class RanorexStep extends Step {
+    private final RanorexRunnerBuilder builder = new RanorexRunnerBuilder();
+
+    @DataBoundConstructor
+    public RanorexStep() {
+    }
+
+    @CheckForNull
+    public String getRxTestSuiteFilePath() {
+        return builder.getRxTestSuiteFilePath();
+    }
+
+    @DataBoundSetter
+    public void setRxTestSuiteFilePath(@CheckForNull String rxTestSuiteFilePath) {
+        builder.setRxTestSuiteFilePath(rxTestSuiteFilePath);
+    }
+
+    @CheckForNull
+    public String getRxRunConfiguration() {
+        return builder.getRxRunConfiguration();
+    }
+
+    @DataBoundSetter
+    public void setRxRunConfiguration(@CheckForNull String rxRunConfiguration) {
+        builder.setRxRunConfiguration(rxRunConfiguration);
+    }
+
+    @CheckForNull
+    public String getRxReportDirectory() {
+        return builder.getRxReportDirectory();
+    }
+
+    @DataBoundSetter
+    public void setRxReportDirectory(@CheckForNull String rxReportDirectory) {
+        builder.setRxReportDirectory(rxReportDirectory);
+    }
+
+    @CheckForNull
+    public String getRxReportFile() {
+        return builder.getRxReportFile();
+    }
+
+    @DataBoundSetter
+    public void setRxReportFile(@CheckForNull String rxReportFile) {
+        builder.setRxReportFile(rxReportFile);
+    }
+
+    @CheckForNull
+    public String getRxReportExtension() {
+        return builder.getRxReportExtension();
+    }
+
+    @DataBoundSetter
+    public void setRxReportExtension(@CheckForNull String rxReportExtension) {
+        builder.setRxReportExtension(rxReportExtension);
+    }
+
+    @CheckForNull
+    public Boolean getRxJUnitReport() {
+        return builder.getRxJUnitReport();
+    }
+
+    @DataBoundSetter
+    public void setRxJUnitReport(@CheckForNull Boolean rxJUnitReport) {
+        builder.setRxJUnitReport(rxJUnitReport);
+    }
+
+    @CheckForNull
+    public Boolean getRxZippedReport() {
+        return builder.getRxZippedReport();
+    }
+
+    @DataBoundSetter
+    public void setRxZippedReport(@CheckForNull Boolean rxZippedReport) {
+        builder.setRxZippedReport(rxZippedReport);
+    }
+
+    @CheckForNull
+    public String getRxZippedReportDirectory() {
+        return builder.getRxZippedReportDirectory();
+    }
+
+    @DataBoundSetter
+    public void setRxZippedReportDirectory(@CheckForNull String rxZippedReportDirectory) {
+        builder.setRxZippedReportDirectory(rxZippedReportDirectory);
+    }
+
+    @CheckForNull
+    public String getRxZippedReportFile() {
+        return builder.getRxZippedReportFile();
+    }
+
+    @DataBoundSetter
+    public void setRxZippedReportFile(@CheckForNull String rxZippedReportFile) {
+        builder.setRxZippedReportFile(rxZippedReportFile);
+    }
+
+    @CheckForNull
+    public Boolean getRxTestRail() {
+        return builder.getRxTestRail();
+    }
+
+    @DataBoundSetter
+    public void setRxTestRail(@CheckForNull Boolean rxTestRail) {
+        builder.setRxTestRail(rxTestRail);
+    }
+
+    @CheckForNull
+    public String getRxTestRailUser() {
+        return builder.getRxTestRailUser();
+    }
+
+    @DataBoundSetter
+    public void setRxTestRailUser(@CheckForNull String rxTestRailUser) {
+        builder.setRxTestRailUser(rxTestRailUser);
+    }
+
+    @CheckForNull
+    public String getRxTestRailPassword() {
+        return builder.getRxTestRailPassword();
+    }
+
+    @DataBoundSetter
+    public void setRxTestRailPassword(@CheckForNull String rxTestRailPassword) {
+        builder.setRxTestRailPassword(rxTestRailPassword);
+    }
+
+    @CheckForNull
+    public String getRxTestRailRID() {
+        return builder.getRxTestRailRID();
+    }
+
+    @DataBoundSetter
+    public void setRxTestRailRID(@CheckForNull String rxTestRailRID) {
+        builder.setRxTestRailRID(rxTestRailRID);
+    }
+
+    @CheckForNull
+    public String getRxTestRailRunName() {
+        return builder.getRxTestRailRunName();
+    }
+
+    @DataBoundSetter
+    public void setRxTestRailRunName(@CheckForNull String rxTestRailRunName) {
+        builder.setRxTestRailRunName(rxTestRailRunName);
+    }
+
+    @CheckForNull
+    public String getRxGlobalParameter() {
+        return builder.getRxGlobalParameter();
+    }
+
+    @DataBoundSetter
+    public void setRxGlobalParameter(@CheckForNull String rxGlobalParameter) {
+        builder.setRxGlobalParameter(rxGlobalParameter);
+    }
+
+    public Boolean getRxParameterSuite() {
+        return builder.getRxParameterSuite();
+    }
+
+    @DataBoundSetter
+    public void setRxParameterSuite(@CheckForNull Boolean rxParameterSuite) {
+        builder.setRxParameterSuite(rxParameterSuite);
+    }
+
+    @CheckForNull
+    public String getRxParameterFile() {
+        return builder.getRxParameterFile();
+    }
+
+    @DataBoundSetter
+    public void setRxParameterFile(@CheckForNull String rxParameterFile) {
+        builder.setRxParameterFile(rxParameterFile);
+    }
+
+    @CheckForNull
+    public String getCmdLineArgs() {
+        return builder.getCmdLineArgs();
+    }
+
+    @DataBoundSetter
+    public void setCmdLineArgs(@CheckForNull String cmdLineArgs) {
+        builder.setCmdLineArgs(cmdLineArgs);
+    }
+
+    public int getRxShardCount() {
+        return builder.getRxShardCount();
+    }
+
+    @DataBoundSetter
+    public void setRxShardCount(int rxShardCount) {
+        builder.setRxShardCount(rxShardCount);
+    }
+
+    public int getRxShardNumber() {
+        return builder.getRxShardNumber();
+    }
+
+    @DataBoundSetter
+    public void setRxShardNumber(int rxShardNumber) {
+        builder.setRxShardNumber(rxShardNumber);
+    }
+
+    public Boolean getRxArchiveReport() {
+        return builder.getRxArchiveReport();
+    }
+
+    @DataBoundSetter
+    public void setRxArchiveReport(@CheckForNull Boolean rxArchiveReport) {
+        builder.setRxArchiveReport(rxArchiveReport);
+    }
+
+    public Boolean getRxDeduplicateReport() {
+        return builder.getRxDeduplicateReport();
+    }
+
+    @DataBoundSetter
+    public void setRxDeduplicateReport(@CheckForNull Boolean rxDeduplicateReport) {
+        builder.setRxDeduplicateReport(rxDeduplicateReport);
+    }
+
+    public int getRxTimeout() {
+        return builder.getRxTimeout();
+    }
+
+    @DataBoundSetter
+    public void setRxTimeout(int rxTimeout) {
+        builder.setRxTimeout(rxTimeout);
+    }
+
+    public int getRxInactivityTimeout() {
+        return builder.getRxInactivityTimeout();
+    }
+
+    @DataBoundSetter
+    public void setRxInactivityTimeout(int rxInactivityTimeout) {
+        builder.setRxInactivityTimeout(rxInactivityTimeout);
+    }
+
+    public Boolean getRxFilterConsole() {
+        return builder.getRxFilterConsole();
+    }
+
+    @DataBoundSetter
+    public void setRxFilterConsole(@CheckForNull Boolean rxFilterConsole) {
+        builder.setRxFilterConsole(rxFilterConsole);
+    }
+
+    public Boolean getRxDirectLaunch() {
+        return builder.getRxDirectLaunch();
+    }
+
+    @DataBoundSetter
+    public void setRxDirectLaunch(@CheckForNull Boolean rxDirectLaunch) {
+        builder.setRxDirectLaunch(rxDirectLaunch);
+    }
+
+    public Boolean getRxExclusiveDesktop() {
+        return builder.getRxExclusiveDesktop();
+    }
+
+    @DataBoundSetter
+    public void setRxExclusiveDesktop(@CheckForNull Boolean rxExclusiveDesktop) {
+        builder.setRxExclusiveDesktop(rxExclusiveDesktop);
+    }
+
+    public int getRxDesktopTimeout() {
+        return builder.getRxDesktopTimeout();
+    }
+
+    @DataBoundSetter
+    public void setRxDesktopTimeout(int rxDesktopTimeout) {
+        builder.setRxDesktopTimeout(rxDesktopTimeout);
+    }
+
+    public int getRxDesktopLeaseTimeout() {
+        return builder.getRxDesktopLeaseTimeout();
+    }
+
+    @DataBoundSetter
+    public void setRxDesktopLeaseTimeout(int rxDesktopLeaseTimeout) {
+        builder.setRxDesktopLeaseTimeout(rxDesktopLeaseTimeout);
+    }
+
+    public int getRxRetryCount() {
+        return builder.getRxRetryCount();
+    }
+
+    @DataBoundSetter
+    public void setRxRetryCount(int rxRetryCount) {
+        builder.setRxRetryCount(rxRetryCount);
+    }
+
+    public int getRxReportRetentionCount() {
+        return builder.getRxReportRetentionCount();
+    }
+
+    @DataBoundSetter
+    public void setRxReportRetentionCount(int rxReportRetentionCount) {
+        builder.setRxReportRetentionCount(rxReportRetentionCount);
+    }
+
+    public int getRxReportRetentionDays() {
+        return builder.getRxReportRetentionDays();
+    }
+
+    @DataBoundSetter
+    public void setRxReportRetentionDays(int rxReportRetentionDays) {
+        builder.setRxReportRetentionDays(rxReportRetentionDays);
+    }
+
+    public String getRxBinaryJob() {
+        return builder.getRxBinaryJob();
+    }
+
+    @DataBoundSetter
+    public void setRxBinaryJob(String rxBinaryJob) {
+        builder.setRxBinaryJob(rxBinaryJob);
+    }
+
+    public String getRxBinaryFilter() {
+        return builder.getRxBinaryFilter();
+    }
+
+    @DataBoundSetter
+    public void setRxBinaryFilter(String rxBinaryFilter) {
+        builder.setRxBinaryFilter(rxBinaryFilter);
+    }
+
+    public String getRxAdditionalTestSuites() {
+        return builder.getRxAdditionalTestSuites();
+    }
+
+    @DataBoundSetter
+    public void setRxAdditionalTestSuites(String rxAdditionalTestSuites) {
+        builder.setRxAdditionalTestSuites(rxAdditionalTestSuites);
+    }
+
+    /**
+     * @return The builder holding the configuration of this step
+     */
+    RanorexRunnerBuilder getBuilder() {
+        return builder;
+    }
+
+    @Override
+    public StepExecution start(StepContext context) throws Exception {
+        return new RanorexStepExecution(context, builder);
+    }
+
+    @Extension
+    public static final class DescriptorImpl extends StepDescriptor {
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(Run.class, FilePath.class, Launcher.class,
+                    TaskListener.class, EnvVars.class)));
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "ranorex";
+        }
+
+        @Override
+        public String getDisplayName() {
+            return "Run a Ranorex test suite";
+        }
+
+        /**
+         * The configuration page and the help files are shared with the build step
+         */
+        @Override
+        public String getHelpFile(String fieldName) {
+            return getBuilderDescriptor().getHelpFile(fieldName);
+        }
+
+        static RanorexRunnerBuilder.DescriptorImpl getBuilderDescriptor() {
+            return Jenkins.getInstance().getDescriptorByType(RanorexRunnerBuilder.DescriptorImpl.class);
+        }
+
+        // The shared configuration page sends its form validation to this descriptor, the checks of the build step
+        // are used
+
+        public ComboBoxModel doFillRxRunConfigurationItems(@AncestorInPath Item item,
+                                                           @QueryParameter String rxTestSuiteFilePath) {
+            return getBuilderDescriptor().doFillRxRunConfigurationItems(item, rxTestSuiteFilePath);
+        }
+
+        public FormValidation doCheckRxRunConfiguration(@AncestorInPath Item item, @QueryParameter String value,
+                                                        @QueryParameter String rxTestSuiteFilePath) {
+            return getBuilderDescriptor().doCheckRxRunConfiguration(item, value, rxTestSuiteFilePath);
+        }
+
+        public FormValidation doCheckRxReportDirectory(@QueryParameter String value) {
+            return getBuilderDescriptor().doCheckRxReportDirectory(value);
+        }
+
+        public FormValidation doCheckRxReportFile(@QueryParameter String value) {
+            return getBuilderDescriptor().doCheckRxReportFile(value);
+        }
+
+        public FormValidation doCheckRxZippedReportDirectory(@QueryParameter String value) {
+            return getBuilderDescriptor().doCheckRxZippedReportDirectory(value);
+        }
+
+        public FormValidation doCheckRxZippedReportFile(@QueryParameter String value,
+                                                        @QueryParameter String rxReportFile) {
+            return getBuilderDescriptor().doCheckRxZippedReportFile(value, rxReportFile);
+        }
+
+        public FormValidation doCheckRxShardNumber(@QueryParameter String value, @QueryParameter String rxShardCount) {
+            return getBuilderDescriptor().doCheckRxShardNumber(value, rxShardCount);
+        }
+
+        public FormValidation doCheckRxGlobalParameter(@QueryParameter String value) {
+            return getBuilderDescriptor().doCheckRxGlobalParameter(value);
+        }
+
+        public FormValidation doCheckCmdLineArgs(@QueryParameter String value) {
+            return getBuilderDescriptor().doCheckCmdLineArgs(value);
+        }
+
+        public FormValidation doCheckRxTestRailUser(@QueryParameter String value) {
+            return getBuilderDescriptor().doCheckRxTestRailUser(value);
+        }
+
+        public FormValidation doCheckRxTestRailPassword(@QueryParameter String value) {
+            return getBuilderDescriptor().doCheckRxTestRailPassword(value);
+        }
+    }
+}
@@ -0,0 +1,548 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import com.ranorex.jenkinsranorexplugin.util.BatchScript;
+import com.ranorex.jenkinsranorexplugin.util.JUnitReportSummary;
+import com.ranorex.jenkinsranorexplugin.util.PhaseTimings;
+import com.ranorex.jenkinsranorexplugin.util.PhaseTimings.Phase;
+import hudson.AbortException;
+import hudson.EnvVars;
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.Util;
+import hudson.model.Computer;
+import hudson.model.Node;
+import hudson.model.Result;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.util.ArgumentListBuilder;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import jenkins.model.Jenkins;
+import jenkins.util.Timer;
+import org.apache.commons.lang.BooleanUtils;
+import org.jenkinsci.plugins.durabletask.Controller;
+import org.jenkinsci.plugins.durabletask.WindowsBatchScript;
+import org.jenkinsci.plugins.workflow.steps.FlowInterruptedException;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+
+import javax.annotation.CheckForNull;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs the test executable of a {@link RanorexStep} without blocking a controller thread.
+ * <p>
+ * The paths are resolved and the reports are post-processed on a dedicated thread pool. The test executable
+ * itself is started as a durable task on the node, which writes the output and the exit code to files in the
+ * working directory. The controller only polls these files from time to time, so a long test run does not hold a
+ * thread and continues after a restart of the controller or a reconnect of the node.
+ * <p>
+ * Several test suites, sharded test runs and retries of failed test cases start several invocations, a filtered
+ * console output is filtered on the node while the test executable runs, and a direct launch must not go through
+ * the batch script of the durable task. These run the synchronous build step on a thread of this pool instead, which
+ * is not durable: stopping the step interrupts the thread and kills the test executable, and after a restart of the
+ * controller the step fails.
+ */
+final class RanorexStepExecution extends StepExecution {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = Logger.getLogger(RanorexStepExecution.class.getName());
+    private static final long POLL_INTERVAL = TimeUnit.SECONDS.toMillis(5);
+    private static final long MAX_POLL_INTERVAL = TimeUnit.SECONDS.toMillis(30);
+    /**
+     * Runs the preparation, the post-processing and the synchronous build step. The synchronous build step blocks
+     * its thread for the whole test run, so the remoting pool of the controller is not used.
+     */
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(
+            new NamingThreadFactory(new DaemonThreadFactory(), RanorexStepExecution.class.getSimpleName()));
+
+    private final RanorexRunnerBuilder builder;
+    private final PhaseTimings timings = new PhaseTimings();
+    @CheckForNull
+    private volatile Controller controller;
+    @CheckForNull
+    private String node;
+    @CheckForNull
+    private String workingDirectory;
+    /** The generated test suite with the global parameters, deleted once the test executable terminated */
+    @CheckForNull
+    private volatile String parameterSuite;
+    @CheckForNull
+    private JUnitReportLocator locator;
+    @CheckForNull
+    private ReportArchiver archiver;
+    private long started;
+    private long lastOutput;
+    private boolean output;
+    private long pollInterval = POLL_INTERVAL;
+    private boolean synchronous;
+    @CheckForNull
+    private Integer exitCode;
+    @CheckForNull
+    private RanorexTimeoutCause timeout;
+    private volatile boolean stopped;
+
+    private transient RanorexExecution execution;
+    private transient OutputStream sink;
+    @CheckForNull
+    private transient volatile Future<?> task;
+    @CheckForNull
+    private transient volatile DesktopLease desktopLease;
+    /** Set once the test executable terminated, a lease acquired afterwards is released again */
+    private transient volatile boolean terminated;
+
+    RanorexStepExecution(StepContext context, RanorexRunnerBuilder builder) {
+        super(context);
+        this.builder = builder;
+    }
+
+    @Override
+    public boolean start() throws Exception {
+        submit(new Runnable() {
+            @Override
+            public void run() {
+                launch();
+            }
+        });
+        return false;
+    }
+
+    /**
+     * Runs work of the step on a pooled thread, the thread is interrupted when the step is stopped
+     */
+    void submit(Runnable work) {
+        task = EXECUTOR.submit(work);
+    }
+
+    /**
+     * Resolves the paths and starts the test executable as durable task
+     */
+    private void launch() {
+        try {
+            Run<?, ?> run = getContext().get(Run.class);
+            FilePath workspace = getContext().get(FilePath.class);
+            Launcher launcher = getContext().get(Launcher.class);
+            TaskListener listener = getContext().get(TaskListener.class);
+            EnvVars env = getContext().get(EnvVars.class);
+            boolean summarize = RanorexStep.DescriptorImpl.getBuilderDescriptor().isUseSummarize();
+            if (builder.getRxShardCount() > 1 || builder.getRxRetryCount() > 0
+                    || BooleanUtils.isTrue(builder.getRxFilterConsole())
+                    || BooleanUtils.isTrue(builder.getRxDirectLaunch())
+                    || ! builder.getAdditionalTestSuites().isEmpty()) {
+                synchronous = true;
+                finish(run, builder.perform(run, workspace, workspace, env, launcher, listener, summarize));
+                return;
+            }
+
+            boolean prepared;
+            try {
+                prepared = prepare(run, workspace, listener, false);
+            } catch (AbortException e) {
+                listener.error(e.getMessage());
+                finish(run, Result.FAILURE);
+                return;
+            }
+            if (! prepared) {
+                finish(run, Result.SUCCESS);
+                return;
+            }
+            if (summarize) {
+                execution.printSummary();
+            }
+            if (execution.getPlan().isJUnitReport()) {
+                locator = JUnitReportLocator.snapshot(execution.getReportDirectory(), execution.getUsedRxReportFile());
+            }
+            archiver = execution.startReportArchiver();
+
+            // The durable task runs the script with cmd.exe itself
+            ArgumentListBuilder arguments = execution.createTestArguments("");
+            String script = BatchScript.commandLine(arguments.toList());
+            execution.getLogger().println("Executing : " + arguments.toString());
+            FilePath directory = execution.getCurrentWorkspace();
+            Computer computer = directory.toComputer();
+            node = computer != null ? computer.getName() : "";
+            workingDirectory = directory.getRemote();
+            parameterSuite = execution.writeParameterSuite("");
+            if (! leaseDesktop(execution::leaseDesktop)) {
+                deleteParameterSuite(directory);
+                return;
+            }
+            long spawn = System.nanoTime();
+            controller = new WindowsBatchScript(script).launch(env, directory, launcher, listener);
+            timings.addSince(Phase.SPAWN, spawn);
+            if (stopped) {
+                // stop() did not see the controller yet
+                controller.stop(directory, launcher);
+                releaseDesktop();
+                deleteParameterSuite(directory);
+                return;
+            }
+            started = System.currentTimeMillis();
+            lastOutput = started;
+            schedule();
+        } catch (Exception e) {
+            releaseDesktop();
+            FilePath directory = controller == null ? getWorkingDirectory() : null;
+            if (directory != null) {
+                deleteParameterSuite(directory);
+            }
+            fail(e);
+        }
+    }
+
+    /**
+     * Waits for the desktop of the node. A lease acquired after the step was stopped or the test executable
+     * terminated is released again, stop() or check() may have missed it.
+     *
+     * @param acquire Waits for the lease, may return null if the desktop is not leased
+     * @return False if the step was stopped or the test executable terminated
+     */
+    boolean leaseDesktop(Callable<DesktopLease> acquire) throws Exception {
+        desktopLease = acquire.call();
+        if (stopped || terminated) {
+            releaseDesktop();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Takes the desktop of the node again after a restart of the controller, the test executable is still running
+     */
+    private void resumeDesktopLease() {
+        submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    TaskListener listener = getContext().get(TaskListener.class);
+                    leaseDesktop(() -> DesktopLease.acquire(DesktopLease.getNode(getContext().get(EnvVars.class)),
+                            0, listener.getLogger()));
+                } catch (InterruptedException e) {
+                    LOGGER.log(Level.FINE, "Stopped while waiting for the desktop", e);
+                } catch (Exception e) {
+                    LOGGER.log(Level.WARNING, "Cannot take the desktop again after the restart", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Frees the desktop of the node for the next build once the test executable terminated
+     */
+    private void releaseDesktop() {
+        DesktopLease lease = desktopLease;
+        if (lease != null) {
+            desktopLease = null;
+            lease.close();
+        }
+    }
+
+    /**
+     * Deletes the generated test suite with the global parameters, the test executable no longer reads it
+     *
+     * @param directory The working directory of the test executable
+     */
+    private void deleteParameterSuite(FilePath directory) {
+        String path = parameterSuite;
+        if (path == null) {
+            return;
+        }
+        parameterSuite = null;
+        try {
+            new FilePath(directory.getChannel(), path).delete();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Cannot delete " + path, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Resolves the paths of the build. After a restart of the controller only the paths are resolved again, the
+     * test suite is not copied again.
+     */
+    private boolean prepare(Run<?, ?> run, FilePath workspace, TaskListener listener, boolean restore)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        execution = new RanorexExecution(builder, builder.getInvocationPlan(), run, getContext().get(EnvVars.class),
+                listener);
+        execution.getTimings().addSince(Phase.ARGUMENTS, start);
+        return restore ? execution.restore(workspace, workspace) : execution.prepare(workspace, workspace);
+    }
+
+    private void schedule() {
+        if (! stopped) {
+            Timer.get().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    check();
+                }
+            }, pollInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Copies new output to the build log, enforces the timeouts and waits for the exit code
+     */
+    private void check() {
+        if (stopped || controller == null) {
+            return;
+        }
+        try {
+            FilePath directory = getWorkingDirectory();
+            Launcher launcher = getLauncher();
+            if (directory == null || launcher == null) {
+                // The node is offline, it may reconnect
+                schedule();
+                return;
+            }
+            long now = System.currentTimeMillis();
+            if (controller.writeLog(directory, getSink(directory))) {
+                if (! output) {
+                    output = true;
+                    timings.add(Phase.FIRST_OUTPUT, now - started);
+                }
+                lastOutput = now;
+                pollInterval = POLL_INTERVAL;
+            } else {
+                // Poll less often while the test executable is quiet
+                pollInterval = Math.min(pollInterval * 2, MAX_POLL_INTERVAL);
+            }
+            Integer status = controller.exitStatus(directory, launcher);
+            if (status == null) {
+                checkTimeouts(directory, launcher, now);
+                schedule();
+                return;
+            }
+            terminated = true;
+            releaseDesktop();
+            controller.writeLog(directory, getSink(directory));
+            getSink(directory).flush();
+            endRunningTests();
+            controller.cleanup(directory);
+            deleteParameterSuite(directory);
+            timings.add(Phase.EXECUTION, now - started);
+            exitCode = status;
+            EXECUTOR.submit(new Runnable() {
+                @Override
+                public void run() {
+                    complete();
+                }
+            });
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Cannot poll the Ranorex test executable, trying again", e);
+            schedule();
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    private void checkTimeouts(FilePath directory, Launcher launcher, long now) throws IOException,
+            InterruptedException {
+        if (timeout != null) {
+            return;
+        }
+        long runTimeout = TimeUnit.MINUTES.toMillis(builder.getRxTimeout());
+        long inactivityTimeout = TimeUnit.MINUTES.toMillis(builder.getRxInactivityTimeout());
+        // The desktop is only freed once the test executable terminated, so it is stopped when the lease expires
+        long leaseTimeout = BooleanUtils.isTrue(builder.getRxExclusiveDesktop())
+                ? TimeUnit.MINUTES.toMillis(builder.getRxDesktopLeaseTimeout()) : 0;
+        String reason = null;
+        if (runTimeout > 0 && now - started >= runTimeout) {
+            reason = "the run timeout of " + Util.getTimeSpanString(runTimeout) + " was exceeded";
+        } else if (inactivityTimeout > 0 && now - lastOutput >= inactivityTimeout) {
+            reason = "no output for " + Util.getTimeSpanString(inactivityTimeout);
+        } else if (leaseTimeout > 0 && now - started >= leaseTimeout) {
+            reason = "the desktop lease timeout of " + Util.getTimeSpanString(leaseTimeout) + " was exceeded";
+        }
+        if (reason != null) {
+            controller.stop(directory, launcher);
+            timeout = new RanorexTimeoutCause(reason, now - started, System.currentTimeMillis() - now);
+        }
+    }
+
+    /**
+     * Post-processes the reports after the test executable terminated and completes the step
+     */
+    private void complete() {
+        try {
+            Run<?, ?> run = getContext().get(Run.class);
+            if (execution == null && ! prepare(run, getContext().get(FilePath.class),
+                    getContext().get(TaskListener.class), true)) {
+                finish(run, Result.SUCCESS);
+                return;
+            }
+            execution.getTimings().add(timings);
+            FilePath reportDirectory = execution.getReportDirectory();
+            if (archiver != null) {
+                execution.archiveReport(archiver.at(reportDirectory), "");
+            }
+            execution.cleanupReports();
+            if (timeout != null) {
+                execution.recordTimeout(timeout);
+                execution.publishTimings();
+                getContext().onFailure(new FlowInterruptedException(Result.ABORTED, timeout));
+                return;
+            }
+            if (locator != null) {
+                JUnitReportSummary summary = execution.summarizeJUnitReports(locator.at(reportDirectory)
+                        .findNewReports());
+                execution.publishJUnitSummary(summary);
+            }
+            execution.publishTimings();
+            finish(run, getResult(exitCode));
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * @param exitCode The exit code of the test executable, null if it is unknown
+     * @return The result of the step
+     */
+    static Result getResult(@CheckForNull Integer exitCode) {
+        return exitCode != null && exitCode == 0 ? Result.SUCCESS : Result.FAILURE;
+    }
+
+    /**
+     * Completes the step like the build step, a failed test run marks the build as failed but the Pipeline
+     * continues. A stopped step has already been completed.
+     */
+    void finish(@CheckForNull Run<?, ?> run, Result result) {
+        if (stopped) {
+            return;
+        }
+        if (result == Result.ABORTED) {
+            getContext().onFailure(new FlowInterruptedException(Result.ABORTED));
+            return;
+        }
+        if (result.isWorseThan(Result.SUCCESS) && run != null) {
+            run.setResult(result);
+        }
+        getContext().onSuccess(null);
+    }
+
+    /**
+     * Fails the step unless it has been stopped, which already completed it
+     */
+    private void fail(Throwable cause) {
+        if (! stopped) {
+            getContext().onFailure(cause);
+        }
+    }
+
+    @Override
+    public void stop(Throwable cause) throws Exception {
+        stopped = true;
+        try {
+            Future<?> running = task;
+            if (running != null) {
+                // Ends the preparation, or kills the test executable of the synchronous build step
+                running.cancel(true);
+            }
+            if (controller != null) {
+                FilePath directory = getWorkingDirectory();
+                Launcher launcher = getLauncher();
+                if (directory != null && launcher != null) {
+                    controller.stop(directory, launcher);
+                    deleteParameterSuite(directory);
+                }
+                endRunningTests();
+            }
+        } finally {
+            releaseDesktop();
+            getContext().onFailure(cause);
+        }
+    }
+
+    @Override
+    public void onResume() {
+        if (exitCode != null) {
+            EXECUTOR.submit(new Runnable() {
+                @Override
+                public void run() {
+                    complete();
+                }
+            });
+        } else if (controller != null) {
+            if (BooleanUtils.isTrue(builder.getRxExclusiveDesktop())) {
+                resumeDesktopLease();
+            }
+            schedule();
+        } else if (synchronous) {
+            getContext().onFailure(new AbortException("The Ranorex test run is not durable with several test suites,"
+                    + " sharding, retries, console filtering or a direct launch and was lost by the restart of"
+                    + " Jenkins"));
+        } else {
+            getContext().onFailure(new AbortException(
+                    "The Ranorex test executable was not started before Jenkins was restarted"));
+        }
+    }
+
+    @Override
+    public String getStatus() {
+        if (controller == null) {
+            return "preparing the Ranorex test run";
+        }
+        if (exitCode == null) {
+            return "waiting for the Ranorex test executable in " + workingDirectory + " on " + node;
+        }
+        return "processing the Ranorex reports";
+    }
+
+    @CheckForNull
+    private Computer getComputer() {
+        Jenkins jenkins = Jenkins.getInstance();
+        return node == null || node.isEmpty() ? jenkins.toComputer() : jenkins.getComputer(node);
+    }
+
+    @CheckForNull
+    private FilePath getWorkingDirectory() {
+        if (workingDirectory == null) {
+            return null;
+        }
+        Computer computer = getComputer();
+        if (computer == null || computer.getChannel() == null) {
+            return null;
+        }
+        return new FilePath(computer.getChannel(), workingDirectory);
+    }
+
+    @CheckForNull
+    private Launcher getLauncher() throws IOException, InterruptedException {
+        Computer computer = getComputer();
+        Node n = computer != null ? computer.getNode() : null;
+        return n != null ? n.createLauncher(getContext().get(TaskListener.class)) : null;
+    }
+
+    /**
+     * Ends the test cases of the progress which did not complete before the test executable terminated
+     */
+    private void endRunningTests() throws IOException, InterruptedException {
+        Run<?, ?> run = getContext().get(Run.class);
+        if (run != null) {
+            RanorexProgressAction.getOrCreate(run).endRunning(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * @return The stream which passes the output to the build log and the progress of the build
+     */
+    private OutputStream getSink(FilePath directory) throws IOException, InterruptedException {
+        if (sink == null) {
+            Computer computer = directory.toComputer();
+            sink = new RanorexConsoleOutputStream(getContext().get(TaskListener.class).getLogger(),
+                    computer != null ? computer.getDefaultCharset() : Charset.defaultCharset(),
+                    RanorexProgressAction.getOrCreate(getContext().get(Run.class)));
+        }
+        return sink;
+    }
+}
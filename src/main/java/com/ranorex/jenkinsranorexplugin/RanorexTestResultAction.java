@@ -0,0 +1,77 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import com.ranorex.jenkinsranorexplugin.util.JUnitReportSummary;
+import hudson.Util;
+import hudson.model.Run;
+import jenkins.model.RunAction2;
+
+import java.io.IOException;
+
+/**
+ * Shows the aggregated JUnit results of all Ranorex test runs of a build. Only the summary is stored, the
+ * JUnit reports themselves stay on the node which executed the tests.
+ */
+public class RanorexTestResultAction implements RunAction2 {
+    private final JUnitReportSummary summary = new JUnitReportSummary();
+    private transient Run<?, ?> run;
+
+    /**
+     * Returns the test result action of the build, the action is created if it does not exist yet
+     *
+     * @param run The current build
+     * @return The test result action of the build
+     */
+    static RanorexTestResultAction getOrCreate(Run<?, ?> run) {
+        return RunActions.getOrCreate(run, RanorexTestResultAction.class, RanorexTestResultAction::new);
+    }
+
+    /**
+     * Adds the summary of further JUnit reports
+     *
+     * @param reports The summary of the JUnit reports
+     * @throws IOException If the build cannot be saved
+     */
+    synchronized void add(JUnitReportSummary reports) throws IOException {
+        summary.add(reports);
+        run.save();
+    }
+
+    public synchronized JUnitReportSummary getSummary() {
+        JUnitReportSummary copy = new JUnitReportSummary();
+        copy.add(summary);
+        return copy;
+    }
+
+    public String getDurationString() {
+        return Util.getTimeSpanString((long) (getSummary().getDuration() * 1000));
+    }
+
+    public Run<?, ?> getRun() {
+        return run;
+    }
+
+    @Override
+    public void onAttached(Run<?, ?> run) {
+        this.run = run;
+    }
+
+    @Override
+    public void onLoad(Run<?, ?> run) {
+        this.run = run;
+    }
+
+    @Override
+    public String getIconFileName() {
+        return "clipboard.png";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Ranorex Test Results";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "ranorex-results";
+    }
+}
@@ -0,0 +1,44 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import hudson.Util;
+import jenkins.model.CauseOfInterruption;
+
+/**
+ * Records that a Ranorex test run was aborted because it ran too long or stopped writing output
+ */
+public class RanorexTimeoutCause extends CauseOfInterruption {
+    private static final long serialVersionUID = 1L;
+
+    private final String reason;
+    private final long elapsed;
+    private final long killDuration;
+
+    /**
+     * @param reason       Describes which timeout was exceeded
+     * @param elapsed      The runtime of the test executable in milliseconds until it was killed
+     * @param killDuration The time in milliseconds it took to kill the process tree and free the executor
+     */
+    RanorexTimeoutCause(String reason, long elapsed, long killDuration) {
+        this.reason = reason;
+        this.elapsed = elapsed;
+        this.killDuration = killDuration;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public long getElapsed() {
+        return elapsed;
+    }
+
+    public long getKillDuration() {
+        return killDuration;
+    }
+
+    @Override
+    public String getShortDescription() {
+        return "Ranorex test run aborted after " + Util.getTimeSpanString(elapsed) + ": " + reason
+                + ". The process tree was killed within " + Util.getTimeSpanString(killDuration) + ".";
+    }
+}
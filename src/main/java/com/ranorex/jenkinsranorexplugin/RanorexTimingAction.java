@@ -0,0 +1,121 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import com.ranorex.jenkinsranorexplugin.util.PhaseTimings;
+import hudson.Util;
+import hudson.model.Api;
+import hudson.model.Run;
+import jenkins.model.RunAction2;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shows how long the phases of all Ranorex build steps of a build took, e.g. how much time was spent before
+ * the test executable wrote its first output. The timings are also available through the REST API.
+ */
+@ExportedBean
+public class RanorexTimingAction implements RunAction2 {
+    private final PhaseTimings timings = new PhaseTimings();
+    private transient Run<?, ?> run;
+
+    /**
+     * Returns the timing action of the build, the action is created if it does not exist yet
+     *
+     * @param run The current build
+     * @return The timing action of the build
+     */
+    static RanorexTimingAction getOrCreate(Run<?, ?> run) {
+        return RunActions.getOrCreate(run, RanorexTimingAction.class, RanorexTimingAction::new);
+    }
+
+    /**
+     * Adds the timings of a build step
+     *
+     * @param stepTimings The timings of the build step
+     * @throws IOException If the build cannot be saved
+     */
+    void add(PhaseTimings stepTimings) throws IOException {
+        timings.add(stepTimings);
+        run.save();
+    }
+
+    @Exported
+    public List<Phase> getPhases() {
+        List<Phase> phases = new ArrayList<>();
+        for (PhaseTimings.Phase phase : PhaseTimings.Phase.values()) {
+            phases.add(new Phase(phase, timings.get(phase)));
+        }
+        return phases;
+    }
+
+    public Api getApi() {
+        return new Api(this);
+    }
+
+    public Run<?, ?> getRun() {
+        return run;
+    }
+
+    @Override
+    public void onAttached(Run<?, ?> run) {
+        this.run = run;
+    }
+
+    @Override
+    public void onLoad(Run<?, ?> run) {
+        this.run = run;
+    }
+
+    @Override
+    public String getIconFileName() {
+        return "clock.png";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Ranorex Timings";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "ranorex-timings";
+    }
+
+    /**
+     * Duration of a single phase
+     */
+    @ExportedBean (defaultVisibility = 2)
+    public static final class Phase {
+        private final PhaseTimings.Phase phase;
+        private final long duration;
+
+        Phase(PhaseTimings.Phase phase, long duration) {
+            this.phase = phase;
+            this.duration = duration;
+        }
+
+        @Exported
+        public String getName() {
+            return phase.getMetricName();
+        }
+
+        public String getDisplayName() {
+            return phase.getDisplayName();
+        }
+
+        /**
+         * @return The duration in milliseconds
+         */
+        @Exported
+        public long getDuration() {
+            return duration;
+        }
+
+        public String getDurationString() {
+            return Util.getTimeSpanString(duration);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import com.ranorex.jenkinsranorexplugin.util.BinaryManifest;
+import com.ranorex.jenkinsranorexplugin.util.ContentCache;
+import com.ranorex.jenkinsranorexplugin.util.FileUtil;
+import hudson.FilePath;
+import hudson.remoting.Channel;
+import hudson.remoting.RemoteOutputStream;
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
+import jenkins.security.MasterToSlaveCallable;
+import org.apache.commons.compress.archivers.zip.ParallelScatterZipCreator;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+
+/**
+ * Compresses the report files of an invocation on the node which executed the tests and streams the archive to
+ * the controller in one pass. Only files written after the archiver was started, and before it was stopped if it
+ * was, are added, already compressed formats like screenshots are stored without compressing them again.
+ */
+final class ReportArchiver implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final transient FilePath reportDirectory;
+    private final long since;
+    /** The time of the node when the archiver was stopped, 0 if it was not stopped */
+    private final long until;
+
+    private ReportArchiver(FilePath reportDirectory, long since, long until) {
+        this.reportDirectory = reportDirectory;
+        this.since = since;
+        this.until = until;
+    }
+
+    /**
+     * Remembers the current time of the node, so only files written afterwards are archived
+     *
+     * @param reportDirectory The directory the reports are written to
+     * @return The archiver
+     * @throws IOException          If the node cannot be reached
+     * @throws InterruptedException If the build is aborted
+     */
+    static ReportArchiver start(FilePath reportDirectory) throws IOException, InterruptedException {
+        return new ReportArchiver(reportDirectory, reportDirectory.act(new CurrentTime()), 0);
+    }
+
+    /**
+     * Remembers the current time of the node, so files written afterwards by the next invocation are not archived
+     *
+     * @return An archiver with the same start time which ignores files written from now on
+     * @throws IOException          If the node cannot be reached
+     * @throws InterruptedException If the build is aborted
+     */
+    ReportArchiver stop() throws IOException, InterruptedException {
+        return new ReportArchiver(reportDirectory, since, reportDirectory.act(new CurrentTime()));
+    }
+
+    /**
+     * @param directory The report directory, resolved again after the archiver was deserialized
+     * @return An archiver with the same start and stop time for the given report directory
+     */
+    ReportArchiver at(FilePath directory) {
+        return new ReportArchiver(directory, since, until);
+    }
+
+    FilePath getReportDirectory() {
+        return reportDirectory;
+    }
+
+    /**
+     * Hashes the screenshots and other already compressed report files written since the start on the node
+     *
+     * @return The hashes of the files by their path relative to the report directory
+     * @throws IOException          If the files cannot be read
+     * @throws InterruptedException If the build is aborted
+     */
+    BinaryManifest scanBlobs() throws IOException, InterruptedException {
+        if (! reportDirectory.isDirectory()) {
+            return new BinaryManifest();
+        }
+        return reportDirectory.act(new Scan(since, until));
+    }
+
+    /**
+     * Compresses all report files written since the start and writes the archive to the given file
+     *
+     * @param target The archive file on the controller
+     * @return The number of archived files
+     * @throws IOException          If the files cannot be compressed or transferred
+     * @throws InterruptedException If the build is aborted
+     */
+    int archiveTo(File target) throws IOException, InterruptedException {
+        return archiveTo(target, Collections.<String>emptySet());
+    }
+
+    /**
+     * Compresses the report files written since the start, except the given files, and writes the archive to the
+     * given file
+     *
+     * @param target   The archive file on the controller
+     * @param excluded The paths relative to the report directory of the files which are stored elsewhere
+     * @return The number of archived files
+     * @throws IOException          If the files cannot be compressed or transferred
+     * @throws InterruptedException If the build is aborted
+     */
+    int archiveTo(File target, Set<String> excluded) throws IOException, InterruptedException {
+        if (! reportDirectory.isDirectory()) {
+            return 0;
+        }
+        File directory = target.getParentFile();
+        if (! directory.isDirectory() && ! directory.mkdirs()) {
+            throw new IOException("Cannot create directory " + directory);
+        }
+        try (OutputStream out = new FileOutputStream(target)) {
+            int files = reportDirectory.act(new Compress(since, until, excluded, new RemoteOutputStream(out)));
+            VirtualChannel channel = reportDirectory.getChannel();
+            if (channel instanceof Channel) {
+                // Make sure all writes arrived before the file is closed
+                ((Channel) channel).syncLocalIO();
+            }
+            return files;
+        }
+    }
+
+    private static final class CurrentTime extends MasterToSlaveCallable<Long, IOException> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Long call() {
+            return System.currentTimeMillis();
+        }
+    }
+
+    private static final class Scan extends MasterToSlaveFileCallable<BinaryManifest> {
+        private static final long serialVersionUID = 1L;
+
+        private final long since;
+        private final long until;
+
+        Scan(long since, long until) {
+            this.since = since;
+            this.until = until;
+        }
+
+        @Override
+        public BinaryManifest invoke(File directory, VirtualChannel channel) throws IOException {
+            List<File> files = new ArrayList<>();
+            collect(directory, since, until, files);
+            BinaryManifest manifest = new BinaryManifest();
+            for (File file : files) {
+                if (FileUtil.isCompressed(file.getName())) {
+                    manifest.put(relativePath(directory, file), ContentCache.hashOf(file), file.length());
+                }
+            }
+            return manifest;
+        }
+    }
+
+    private static final class Compress extends MasterToSlaveFileCallable<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final long since;
+        private final long until;
+        private final HashSet<String> excluded;
+        private final OutputStream out;
+
+        Compress(long since, long until, Set<String> excluded, OutputStream out) {
+            this.since = since;
+            this.until = until;
+            this.excluded = new HashSet<>(excluded);
+            this.out = out;
+        }
+
+        @Override
+        public Integer invoke(File directory, VirtualChannel channel) throws IOException, InterruptedException {
+            List<File> files = new ArrayList<>();
+            collect(directory, since, until, files);
+            files.removeIf(file -> excluded.contains(relativePath(directory, file)));
+            int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), files.size()));
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                ParallelScatterZipCreator creator = new ParallelScatterZipCreator(pool);
+                for (File file : files) {
+                    ZipArchiveEntry entry = new ZipArchiveEntry(relativePath(directory, file));
+                    entry.setMethod(FileUtil.isCompressed(file.getName()) ? ZipEntry.STORED : ZipEntry.DEFLATED);
+                    entry.setTime(file.lastModified());
+                    creator.addArchiveEntry(entry, () -> {
+                        try {
+                            return new FileInputStream(file);
+                        } catch (FileNotFoundException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+                try (ZipArchiveOutputStream zip = new ZipArchiveOutputStream(new BufferedOutputStream(out))) {
+                    creator.writeTo(zip);
+                } catch (ExecutionException e) {
+                    throw new IOException("Cannot compress report files", e.getCause());
+                }
+            } finally {
+                // writeTo() only shuts the pool down if it succeeds, the threads must not outlive a failed archive
+                pool.shutdownNow();
+            }
+            return files.size();
+        }
+    }
+
+    private static void collect(File directory, long since, long until, List<File> files) {
+        File[] children = directory.listFiles();
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            if (child.isDirectory()) {
+                collect(child, since, until, files);
+            } else if (child.lastModified() >= since && (until <= 0 || child.lastModified() <= until)) {
+                files.add(child);
+            }
+        }
+    }
+
+    private static String relativePath(File directory, File file) {
+        return file.getAbsolutePath().substring(directory.getAbsolutePath().length() + 1)
+                .replace(File.separatorChar, '/');
+    }
+}
@@ -0,0 +1,216 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import com.ranorex.jenkinsranorexplugin.util.BinaryManifest;
+import com.ranorex.jenkinsranorexplugin.util.ContentCache;
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.listeners.RunListener;
+import hudson.util.AtomicFileWriter;
+import jenkins.util.Timer;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+/**
+ * Stores the screenshots of archived reports once per job.
+ * <p>
+ * Most screenshots of a test suite are identical from build to build. They are stored in {@code ranorex-blobs} in
+ * the job directory under the hash of their content, the report archive of a build only contains the other report
+ * files and a manifest which maps the paths of the screenshots to their hashes. The complete report is assembled
+ * again when it is downloaded. Screenshots which are no longer referenced by any build are deleted when a build is
+ * deleted.
+ */
+abstract class ReportBlobStore {
+    private static final Logger LOGGER = Logger.getLogger(ReportBlobStore.class.getName());
+    private static final String STORE_DIRECTORY = "ranorex-blobs";
+    static final String MANIFEST_EXTENSION = ".blobs";
+    static final String ARCHIVE_EXTENSION = ".zip";
+    /** Blobs stored or used within this time are kept, their build may not have written its manifest yet */
+    private static final long GRACE_PERIOD = TimeUnit.DAYS.toMillis(1);
+
+    /**
+     * @param job The job
+     * @return The store of the job
+     */
+    static ContentCache of(Job<?, ?> job) {
+        return new ContentCache(new File(job.getRootDir(), STORE_DIRECTORY));
+    }
+
+    /**
+     * Transfers the screenshots which are not stored yet and marks the others as used
+     *
+     * @param job             The job which owns the store
+     * @param reportDirectory The report directory on the node
+     * @param blobs           The screenshots of the report
+     * @return The number of transferred screenshots
+     * @throws IOException          If a screenshot cannot be transferred
+     * @throws InterruptedException If the build is aborted
+     */
+    static int store(Job<?, ?> job, FilePath reportDirectory, BinaryManifest blobs) throws IOException,
+            InterruptedException {
+        ContentCache store = of(job);
+        Set<String> missing = new HashSet<>(store.getMissing(blobs.getDistinctHashes()));
+        int transferred = 0;
+        for (Map.Entry<String, String> blob : blobs.getHashes().entrySet()) {
+            String hash = blob.getValue();
+            if (missing.remove(hash)) {
+                store.put(hash, reportDirectory.child(blob.getKey()).read());
+                transferred++;
+            } else {
+                store.touch(hash);
+            }
+        }
+        return transferred;
+    }
+
+    /**
+     * Writes the manifest of a report archive next to the archive
+     *
+     * @param archive The report archive in the build directory
+     * @param blobs   The screenshots of the report
+     * @throws IOException If the manifest cannot be written
+     */
+    static void writeManifest(File archive, BinaryManifest blobs) throws IOException {
+        AtomicFileWriter writer = new AtomicFileWriter(manifestOf(archive), "UTF-8");
+        try {
+            blobs.write(writer);
+            writer.commit();
+        } finally {
+            writer.abort();
+        }
+    }
+
+    private static File manifestOf(File archive) {
+        String name = archive.getName();
+        return new File(archive.getParentFile(), name.substring(0, name.length() - ARCHIVE_EXTENSION.length())
+                + MANIFEST_EXTENSION);
+    }
+
+    private static BinaryManifest readManifest(File manifest) throws IOException {
+        try (InputStream in = new FileInputStream(manifest)) {
+            return BinaryManifest.read(in);
+        }
+    }
+
+    /**
+     * Writes the complete report, the files of the archive together with the screenshots from the store
+     *
+     * @param job     The job which owns the store
+     * @param archive The report archive in the build directory
+     * @param out     Receives the complete report as ZIP archive
+     * @throws IOException If the report cannot be read or written
+     */
+    static void writeReport(Job<?, ?> job, File archive, OutputStream out) throws IOException {
+        ContentCache store = of(job);
+        BinaryManifest blobs = readManifest(manifestOf(archive));
+        try (ZipFile zip = new ZipFile(archive); ZipArchiveOutputStream target = new ZipArchiveOutputStream(out)) {
+            Enumeration<ZipArchiveEntry> entries = zip.getEntries();
+            while (entries.hasMoreElements()) {
+                ZipArchiveEntry entry = entries.nextElement();
+                try (InputStream in = zip.getRawInputStream(entry)) {
+                    target.addRawArchiveEntry(entry, in);
+                }
+            }
+            for (Map.Entry<String, String> blob : blobs.getHashes().entrySet()) {
+                File file = store.getFile(blob.getValue());
+                if (! file.isFile()) {
+                    LOGGER.log(Level.WARNING, "Screenshot {0} of {1} is missing", new Object[]{blob.getKey(),
+                            archive});
+                    continue;
+                }
+                // Entries of a stream must declare size and checksum in advance to be stored uncompressed
+                ZipArchiveEntry entry = new ZipArchiveEntry(blob.getKey());
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(file.length());
+                entry.setCrc(checksumOf(file));
+                entry.setTime(file.lastModified());
+                target.putArchiveEntry(entry);
+                Files.copy(file.toPath(), target);
+                target.closeArchiveEntry();
+            }
+            target.finish();
+        }
+    }
+
+    private static long checksumOf(File file) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[8192];
+        try (InputStream in = new FileInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Deletes the screenshots which are not referenced by any build of the job
+     *
+     * @param job     The job which owns the store
+     * @param deleted The directory of a build which is being deleted, its references are ignored
+     */
+    static void collectGarbage(Job<?, ?> job, File deleted) {
+        Set<String> referenced = new HashSet<>();
+        File[] builds = job.getBuildDir().listFiles();
+        if (builds == null) {
+            return;
+        }
+        for (File build : builds) {
+            if (! build.isDirectory() || Files.isSymbolicLink(build.toPath()) || build.equals(deleted)) {
+                continue;
+            }
+            File[] manifests = build.listFiles((dir, name) -> name.endsWith(MANIFEST_EXTENSION));
+            if (manifests == null) {
+                continue;
+            }
+            for (File manifest : manifests) {
+                try {
+                    referenced.addAll(readManifest(manifest).getDistinctHashes());
+                } catch (IOException e) {
+                    // Keep everything rather than deleting screenshots which may be referenced
+                    LOGGER.log(Level.WARNING, "Cannot read " + manifest, e);
+                    return;
+                }
+            }
+        }
+        int count = of(job).deleteUnreferenced(referenced, System.currentTimeMillis() - GRACE_PERIOD);
+        LOGGER.log(Level.FINE, "Deleted {0} unreferenced Ranorex screenshots of {1}", new Object[]{count, job});
+    }
+
+    @Extension
+    public static final class Listener extends RunListener<Run<?, ?>> {
+        @Override
+        public void onDeleted(Run<?, ?> run) {
+            if (! new File(run.getParent().getRootDir(), STORE_DIRECTORY).isDirectory()) {
+                return;
+            }
+            final Job<?, ?> job = run.getParent();
+            final File deleted = run.getRootDir();
+            Timer.get().submit(new Runnable() {
+                @Override
+                public void run() {
+                    collectGarbage(job, deleted);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import com.ranorex.jenkinsranorexplugin.util.ReportRetention;
+import hudson.FilePath;
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Deletes the old reports of a report directory on the node which executed the tests.
+ * <p>
+ * The cleanup is started asynchronously after the build step, the build does not wait for it. The expired
+ * reports are deleted by several threads, because a report directory with its screenshots may contain thousands
+ * of files.
+ */
+final class ReportCleanup extends MasterToSlaveFileCallable<Integer> {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = Logger.getLogger(ReportCleanup.class.getName());
+
+    private final ArrayList<String> extensions;
+    private final int count;
+    private final int days;
+
+    private ReportCleanup(List<String> extensions, int count, int days) {
+        this.extensions = new ArrayList<>(extensions);
+        this.count = count;
+        this.days = days;
+    }
+
+    /**
+     * Starts the cleanup of a report directory without waiting for it
+     *
+     * @param reportDirectory The report directory on the node
+     * @param extensions      The extensions of the reports in the directory
+     * @param count           The number of newest reports to keep, 0 if the number is not limited
+     * @param days            The number of days reports are kept, 0 if the age is not limited
+     * @return The number of deleted reports and files, when the cleanup has finished
+     * @throws IOException          If the node cannot be reached
+     * @throws InterruptedException If the build is aborted
+     */
+    static Future<Integer> start(FilePath reportDirectory, List<String> extensions, int count, int days)
+            throws IOException, InterruptedException {
+        return reportDirectory.actAsync(new ReportCleanup(extensions, count, days));
+    }
+
+    @Override
+    public Integer invoke(File directory, VirtualChannel channel) throws InterruptedException {
+        ReportRetention retention = new ReportRetention(count, days);
+        long now = System.currentTimeMillis();
+        List<File> expired = new ArrayList<>();
+        for (String extension : extensions) {
+            expired.addAll(retention.select(directory, extension, now));
+        }
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), expired.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        AtomicInteger deleted = new AtomicInteger();
+        try {
+            for (File file : expired) {
+                executor.submit(() -> {
+                    try {
+                        deleted.addAndGet(delete(file.toPath()));
+                    } catch (IOException e) {
+                        LOGGER.log(Level.FINE, "Cannot delete the Ranorex report " + file, e);
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        executor.awaitTermination(1, TimeUnit.HOURS);
+        return deleted.get();
+    }
+
+    private static int delete(Path path) throws IOException {
+        if (! Files.isDirectory(path)) {
+            return Files.deleteIfExists(path) ? 1 : 0;
+        }
+        int deleted = 0;
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path child : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                if (Files.deleteIfExists(child)) {
+                    deleted++;
+                }
+            }
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,167 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import com.ranorex.jenkinsranorexplugin.util.FileUtil;
+import com.ranorex.jenkinsranorexplugin.util.StringUtil;
+import hudson.AbortException;
+import hudson.FilePath;
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
+
+import javax.annotation.CheckForNull;
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * The paths of a single build, resolved on the node which executes the test suite.
+ * <p>
+ * The working directory, the test executable and the report directories are resolved by one {@link Resolver}
+ * call, so a build needs only one round trip to the node before the test executable is started and a wrong
+ * path fails the build before the process is launched.
+ */
+final class ResolvedPaths implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String workingDirectory;
+    private final String reportBase;
+    private final String reportDirectory;
+    @CheckForNull
+    private final String zippedReportDirectory;
+
+    ResolvedPaths(String workingDirectory, String reportBase, String reportDirectory,
+                  @CheckForNull String zippedReportDirectory) {
+        this.workingDirectory = workingDirectory;
+        this.reportBase = reportBase;
+        this.reportDirectory = reportDirectory;
+        this.zippedReportDirectory = zippedReportDirectory;
+    }
+
+    /**
+     * Resolves the paths of a build on the node which owns the workspace
+     *
+     * @param workspace               The workspace used to resolve the working directory of the test executable
+     * @param reportBase              The workspace path used to resolve the report directories
+     * @param testSuiteFile           The configured path of the test suite
+     * @param executableFile          The name of the test executable
+     * @param reportDirectory         The configured report directory, may be empty
+     * @param zippedReportDirectory   The configured zipped report directory, may be empty
+     * @param zippedReport            True if the report is compressed by Ranorex
+     * @return The resolved paths
+     * @throws AbortException       If the test executable does not exist or a report directory cannot be created
+     * @throws IOException          If the node cannot be reached
+     * @throws InterruptedException If the build is aborted
+     */
+    static ResolvedPaths resolve(FilePath workspace, String reportBase, String testSuiteFile, String executableFile,
+                                 @CheckForNull String reportDirectory, @CheckForNull String zippedReportDirectory,
+                                 boolean zippedReport) throws IOException, InterruptedException {
+        return workspace.act(new Resolver(reportBase, testSuiteFile, executableFile, reportDirectory,
+                zippedReportDirectory, zippedReport));
+    }
+
+    /**
+     * @return The directory which contains the test executable, without a trailing backslash
+     */
+    String getWorkingDirectory() {
+        return workingDirectory;
+    }
+
+    /**
+     * @return The directory the report directories are merged with, including the trailing backslash
+     */
+    String getReportBase() {
+        return reportBase;
+    }
+
+    /**
+     * @return The absolute report directory including the trailing backslash
+     */
+    String getReportDirectory() {
+        return reportDirectory;
+    }
+
+    /**
+     * @return The absolute zipped report directory including the trailing backslash or null if the report is not
+     * compressed
+     */
+    @CheckForNull
+    String getZippedReportDirectory() {
+        return zippedReportDirectory;
+    }
+
+    /**
+     * Resolves the paths on the node, checks the test executable and creates the report directories
+     */
+    static final class Resolver extends MasterToSlaveFileCallable<ResolvedPaths> {
+        private static final long serialVersionUID = 1L;
+
+        private final String reportBase;
+        private final String testSuiteFile;
+        private final String executableFile;
+        @CheckForNull
+        private final String reportDirectory;
+        @CheckForNull
+        private final String zippedReportDirectory;
+        private final boolean zippedReport;
+
+        Resolver(String reportBase, String testSuiteFile, String executableFile, @CheckForNull String reportDirectory,
+                 @CheckForNull String zippedReportDirectory, boolean zippedReport) {
+            this.reportBase = reportBase;
+            this.testSuiteFile = testSuiteFile;
+            this.executableFile = executableFile;
+            this.reportDirectory = reportDirectory;
+            this.zippedReportDirectory = zippedReportDirectory;
+            this.zippedReport = zippedReport;
+        }
+
+        @Override
+        public ResolvedPaths invoke(File workspace, VirtualChannel channel) throws IOException {
+            String workingDirectory = normalize(FileUtil.getRanorexWorkingDirectory(workspace.getPath(),
+                    testSuiteFile));
+            File executable = toFile(StringUtil.appendBackslash(workingDirectory) + executableFile);
+            if (! executable.isFile()) {
+                throw new AbortException("Ranorex test executable '" + executable.getPath() + "' does not exist");
+            }
+
+            // Ranorex Reportdirectory
+            String base = StringUtil.appendBackslash(normalize(FileUtil.getRanorexWorkingDirectory(reportBase,
+                    testSuiteFile)));
+            String usedReportDirectory = StringUtil.appendBackslash(absoluteDirectory(base, reportDirectory));
+            createDirectory(usedReportDirectory);
+
+            // Zipped Ranorex Reportdirectory
+            String usedZippedReportDirectory = null;
+            if (zippedReport) {
+                usedZippedReportDirectory = StringUtil.appendBackslash(absoluteDirectory(base,
+                        zippedReportDirectory));
+                createDirectory(usedZippedReportDirectory);
+            }
+            return new ResolvedPaths(workingDirectory, base, usedReportDirectory, usedZippedReportDirectory);
+        }
+
+        private static String absoluteDirectory(String base, @CheckForNull String directory) {
+            if (StringUtil.isNullOrSpace(directory)) {
+                return base;
+            }
+            return FileUtil.getAbsoluteReportDirectory(base, directory);
+        }
+
+        private static void createDirectory(String directory) throws IOException {
+            File file = toFile(directory);
+            if (! file.isDirectory() && ! file.mkdirs() && ! file.isDirectory()) {
+                throw new AbortException("Ranorex report directory '" + directory + "' cannot be created");
+            }
+        }
+
+        private static String normalize(String path) {
+            return new File(path).getPath();
+        }
+
+        /**
+         * The paths are built with backslashes for the Windows node, they are converted so the checks also work
+         * on nodes with a different separator
+         */
+        private static File toFile(String path) {
+            return new File(path.replace('\\', File.separatorChar));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import hudson.model.Action;
+import hudson.model.Run;
+
+import java.util.function.Supplier;
+
+/**
+ * Creates the actions which several build steps of a build share
+ */
+final class RunActions {
+    /** Guards the check and the creation of the actions, the monitor of the build is used by Jenkins itself */
+    private static final Object LOCK = new Object();
+
+    private RunActions() {
+    }
+
+    /**
+     * Returns the action of the given type of the build, the action is created if it does not exist yet
+     *
+     * @param run     The current build
+     * @param type    The type of the action
+     * @param factory Creates the action
+     * @param <T>     The type of the action
+     * @return The action of the build
+     */
+    static <T extends Action> T getOrCreate(Run<?, ?> run, Class<T> type, Supplier<T> factory) {
+        synchronized (LOCK) {
+            T action = run.getAction(type);
+            if (action == null) {
+                action = factory.get();
+                run.addAction(action);
+            }
+            return action;
+        }
+    }
+}
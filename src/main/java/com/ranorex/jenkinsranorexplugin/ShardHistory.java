@@ -0,0 +1,91 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import com.ranorex.jenkinsranorexplugin.util.DurationHistory;
+import hudson.Extension;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import hudson.util.AtomicFileWriter;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stores the durations of the test containers of sharded test runs per job.
+ * <p>
+ * The history is only updated after a build has completed, so all shards of a running build see the same
+ * history.
+ */
+abstract class ShardHistory {
+    private static final Logger LOGGER = Logger.getLogger(ShardHistory.class.getName());
+    private static final String HISTORY_FILE = "ranorex-durations.txt";
+    // Not the monitor of the job, which is held by core while it loads and saves the job
+    private static final ConcurrentMap<String, Object> LOCKS = new ConcurrentHashMap<>();
+
+    /**
+     * @param job The job
+     * @return The durations measured by earlier builds of the job, empty if the history cannot be read
+     */
+    static DurationHistory load(Job<?, ?> job) {
+        File file = new File(job.getRootDir(), HISTORY_FILE);
+        if (! file.isFile()) {
+            return new DurationHistory();
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            return DurationHistory.read(in);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Cannot read " + file, e);
+            return new DurationHistory();
+        }
+    }
+
+    /**
+     * Adds the durations measured by all shards of a build to the history of its job
+     *
+     * @param run The completed build
+     * @throws IOException If the history cannot be written
+     */
+    static void record(Run<?, ?> run) throws IOException {
+        RanorexShardAction action = run.getAction(RanorexShardAction.class);
+        if (action == null) {
+            return;
+        }
+        Job<?, ?> job = run.getParent();
+        synchronized (LOCKS.computeIfAbsent(job.getFullName(), name -> new Object())) {
+            DurationHistory history = load(job);
+            for (RanorexShardAction.Shard shard : action.getShards()) {
+                for (Map.Entry<String, Long> duration : shard.getDurations().entrySet()) {
+                    history.record(duration.getKey(), duration.getValue());
+                }
+            }
+            history.completeBuild();
+            AtomicFileWriter writer = new AtomicFileWriter(new File(job.getRootDir(), HISTORY_FILE), "UTF-8");
+            try {
+                history.write(writer);
+                writer.commit();
+            } finally {
+                writer.abort();
+            }
+        }
+    }
+
+    @Extension
+    public static final class Listener extends RunListener<Run<?, ?>> {
+        @Override
+        public void onCompleted(Run<?, ?> run, TaskListener listener) {
+            try {
+                record(run);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Cannot record the Ranorex test durations of " + run, e);
+            }
+        }
+    }
+}
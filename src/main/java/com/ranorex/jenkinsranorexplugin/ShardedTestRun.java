@@ -0,0 +1,165 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import com.ranorex.jenkinsranorexplugin.util.DurationHistory;
+import com.ranorex.jenkinsranorexplugin.util.JUnitReportMerger;
+import com.ranorex.jenkinsranorexplugin.util.JUnitReportSummary;
+import com.ranorex.jenkinsranorexplugin.util.ShardPlanner;
+import com.ranorex.jenkinsranorexplugin.util.TestSuiteFile;
+import hudson.EnvVars;
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.Util;
+import hudson.model.Computer;
+import hudson.model.Result;
+import hudson.model.Run;
+import hudson.util.ArgumentListBuilder;
+
+import javax.annotation.CheckForNull;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs one shard of a test suite. The top level test containers of the test suite are split into balanced
+ * shards, using the durations measured by earlier builds if available, and every container of the selected
+ * shard is executed by its own invocation of the test executable.
+ * The JUnit reports of all invocations are merged into one report per shard, which is collected by the
+ * {@link RanorexShardAction} of the build.
+ */
+final class ShardedTestRun {
+    private static final String TEST_SUITE_EXTENSION = ".rxtst";
+
+    private final RanorexExecution execution;
+    private final int shardCount;
+    private final int shardNumber;
+    private final int retryCount;
+
+    /**
+     * @param execution   The prepared execution
+     * @param shardCount  The total number of shards
+     * @param shardNumber The number of the shard which is executed, starting at 1
+     * @param retryCount  The maximum number of times a failed test case is run again
+     */
+    ShardedTestRun(RanorexExecution execution, int shardCount, int shardNumber, int retryCount) {
+        this.execution = execution;
+        this.shardCount = shardCount;
+        this.shardNumber = shardNumber;
+        this.retryCount = retryCount;
+    }
+
+    /**
+     * Runs all test containers of the shard
+     *
+     * @param run      The current build, may be null if the results should not be recorded
+     * @param launcher Starts the processes
+     * @param env      The environment variables of the processes
+     * @return The result of the shard
+     * @throws IOException          If the test suite cannot be read or a process cannot be started
+     * @throws InterruptedException If the build is aborted
+     */
+    Result run(@CheckForNull Run<?, ?> run, Launcher launcher, EnvVars env) throws IOException, InterruptedException {
+        PrintStream logger = execution.getLogger();
+        if (shardNumber < 1 || shardNumber > shardCount) {
+            logger.println("Shard number " + shardNumber + " is not between 1 and " + shardCount);
+            return Result.FAILURE;
+        }
+        FilePath testSuiteFile = execution.getTestSuiteFile();
+        if (! testSuiteFile.getName().endsWith(TEST_SUITE_EXTENSION) || ! testSuiteFile.exists()) {
+            logger.println("Sharding requires the Ranorex test suite file (*.rxtst), '" + testSuiteFile.getRemote()
+                    + "' cannot be read");
+            return Result.FAILURE;
+        }
+        TestSuiteFile testSuite = TestSuiteIndex.read(testSuiteFile);
+        List<String> testContainers = plan(run, testSuite.getTestContainers(), logger).get(shardNumber - 1);
+        logger.println("Ranorex shard " + shardNumber + " of " + shardCount + ": " + testContainers.size() + " of "
+                + testSuite.getTestContainers().size() + " test containers");
+
+        Result result = Result.SUCCESS;
+        List<FilePath> junitReports = new ArrayList<>();
+        List<String> reportFiles = new ArrayList<>();
+        JUnitReportSummary summary = new JUnitReportSummary();
+        Map<String, Long> durations = new LinkedHashMap<>();
+        for (int i = 0; i < testContainers.size(); i++) {
+            String reportSuffix = "_shard" + shardNumber + "_" + (i + 1);
+            String reportFile = execution.getUsedRxReportFile() + reportSuffix;
+            JUnitReportLocator locator = JUnitReportLocator.snapshot(execution.getReportDirectory(), reportFile);
+
+            ArgumentListBuilder arguments = execution.createArguments(reportSuffix,
+                    "/testcase:" + testContainers.get(i), "/junit");
+            ReportArchiver archiver = execution.startReportArchiver();
+            long start = System.currentTimeMillis();
+            int exitCode = execution.launch(launcher, env, reportSuffix, arguments);
+            long duration = System.currentTimeMillis() - start;
+            List<FilePath> reports = locator.findNewReports();
+            junitReports.addAll(reports);
+            execution.archiveReport(archiver, reportSuffix);
+            reportFiles.add(reportFile + "." + execution.getPlan().getReportExtension());
+            if (execution.getTimeout() == null) {
+                durations.put(testContainers.get(i), duration);
+                JUnitReportSummary containerSummary = execution.summarizeJUnitReports(reports);
+                if (exitCode != 0 && (retryCount == 0 || ! new FailedTestRetry(execution, retryCount)
+                        .retry(containerSummary, launcher, env, reportSuffix, junitReports))) {
+                    result = Result.FAILURE;
+                }
+                summary.add(containerSummary);
+            }
+            if (execution.getTimeout() != null) {
+                // The remaining containers of the shard are skipped
+                result = Result.ABORTED;
+                break;
+            }
+        }
+
+        execution.publishJUnitSummary(summary);
+        if (run != null) {
+            RanorexShardAction action = RanorexShardAction.getOrCreate(run);
+            File shardReport = action.getShardReport(shardNumber);
+            mergeReports(junitReports, shardReport);
+            Computer computer = execution.getCurrentWorkspace().toComputer();
+            action.addShard(new RanorexShardAction.Shard(shardNumber, shardCount,
+                    computer != null ? computer.getDisplayName() : null, testContainers, reportFiles,
+                    result.toString(), durations));
+            logger.println("Merged " + junitReports.size() + " JUnit reports of shard " + shardNumber);
+        }
+        return result;
+    }
+
+    /**
+     * Splits the test containers into shards. If earlier builds of the job measured the durations of the test
+     * containers, the shards are balanced by duration, otherwise by the number of test containers.
+     */
+    private List<List<String>> plan(@CheckForNull Run<?, ?> run, List<String> testContainers, PrintStream logger) {
+        if (run == null) {
+            return ShardPlanner.split(testContainers, shardCount);
+        }
+        DurationHistory history = ShardHistory.load(run.getParent());
+        List<List<String>> plan;
+        if (history.isEmpty()) {
+            plan = ShardPlanner.split(testContainers, shardCount);
+        } else {
+            plan = ShardPlanner.schedule(testContainers, shardCount, history::estimate);
+            logger.println("Ranorex shards are balanced by the durations of earlier builds");
+        }
+        String key = Util.getDigestOf(shardCount + "\n" + String.join("\n", testContainers));
+        return RanorexShardAction.getOrCreate(run).putPlanIfAbsent(key, plan);
+    }
+
+    private static void mergeReports(List<FilePath> junitReports, File shardReport) throws IOException,
+            InterruptedException {
+        try (OutputStream out = new FileOutputStream(shardReport);
+             JUnitReportMerger merger = new JUnitReportMerger(out)) {
+            for (FilePath junitReport : junitReports) {
+                try (InputStream in = junitReport.read()) {
+                    merger.add(in);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import com.ranorex.jenkinsranorexplugin.util.FileUtil;
+import com.ranorex.jenkinsranorexplugin.util.StringUtil;
+import com.ranorex.jenkinsranorexplugin.util.TestSuiteCache;
+import com.ranorex.jenkinsranorexplugin.util.TestSuiteFile;
+import hudson.FilePath;
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Reads the structure of a test suite on the node which owns the file.
+ * <p>
+ * The parsed test suites are cached by content hash in the JVM of the node, so the test suite is only parsed
+ * again after it has been changed.
+ */
+abstract class TestSuiteIndex {
+    private static final TestSuiteCache CACHE = new TestSuiteCache();
+
+    /**
+     * Locates the test suite file inside a workspace
+     *
+     * @param workspace         The workspace of the job
+     * @param testSuiteFilePath The configured path of the test suite
+     * @return The test suite file on the node which owns the workspace
+     */
+    static FilePath locate(FilePath workspace, String testSuiteFilePath) {
+        String[] splitPath = StringUtil.splitPath(testSuiteFilePath);
+        String directory = FileUtil.getRanorexWorkingDirectory(workspace.getRemote(), testSuiteFilePath);
+        return new FilePath(workspace.getChannel(), directory).child(splitPath[splitPath.length - 1]);
+    }
+
+    /**
+     * @param testSuiteFile The *.rxtst file
+     * @return The structure of the test suite
+     * @throws IOException          If the file cannot be read or is not a valid test suite file
+     * @throws InterruptedException If the build is aborted
+     */
+    static TestSuiteFile read(FilePath testSuiteFile) throws IOException, InterruptedException {
+        return testSuiteFile.act(new Reader());
+    }
+
+    private static final class Reader extends MasterToSlaveFileCallable<TestSuiteFile> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public TestSuiteFile invoke(File testSuiteFile, VirtualChannel channel) throws IOException {
+            return CACHE.get(Files.readAllBytes(testSuiteFile.toPath()));
+        }
+    }
+}
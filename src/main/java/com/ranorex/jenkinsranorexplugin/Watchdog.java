@@ -0,0 +1,145 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import hudson.Proc;
+import hudson.Util;
+
+import javax.annotation.CheckForNull;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waits for the test executable and kills its process tree if it runs longer than the run timeout or the desktop
+ * lease timeout, or does not write any output for longer than the inactivity timeout.
+ */
+final class Watchdog {
+    private static final long POLL_INTERVAL = 100;
+
+    private final long timeout;
+    private final long inactivityTimeout;
+    private final long leaseTimeout;
+    private volatile long lastActivity;
+    private volatile long firstActivity = -1;
+    @CheckForNull
+    private RanorexTimeoutCause cause;
+
+    /**
+     * @param timeout           The maximum runtime in milliseconds, 0 to disable the run timeout
+     * @param inactivityTimeout The maximum time without output in milliseconds, 0 to disable the inactivity timeout
+     */
+    Watchdog(long timeout, long inactivityTimeout) {
+        this(timeout, inactivityTimeout, 0);
+    }
+
+    /**
+     * @param timeout           The maximum runtime in milliseconds, 0 to disable the run timeout
+     * @param inactivityTimeout The maximum time without output in milliseconds, 0 to disable the inactivity timeout
+     * @param leaseTimeout      The maximum time in milliseconds the process may hold the desktop of the node, 0 to
+     *                          hold it until the process terminates
+     */
+    Watchdog(long timeout, long inactivityTimeout, long leaseTimeout) {
+        this.timeout = timeout;
+        this.inactivityTimeout = inactivityTimeout;
+        this.leaseTimeout = leaseTimeout;
+        this.lastActivity = now();
+    }
+
+    /**
+     * Wraps the stream which receives the output of the process, every write counts as activity
+     *
+     * @param out The stream to wrap, it is not closed by the returned stream
+     * @return The wrapped stream
+     */
+    OutputStream watch(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(int b) throws IOException {
+                activity();
+                out.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                activity();
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+
+    private void activity() {
+        lastActivity = now();
+        if (firstActivity < 0) {
+            firstActivity = lastActivity;
+        }
+    }
+
+    /**
+     * @return The time of the first output as returned by {@link #now()}, or -1 if there was no output yet
+     */
+    long getFirstActivity() {
+        return firstActivity;
+    }
+
+    /**
+     * Waits until the process terminates or one of the timeouts is exceeded. The process tree is killed if the
+     * build is aborted while waiting.
+     *
+     * @param proc The started process
+     * @return The exit code of the process
+     * @throws IOException          If the process cannot be killed
+     * @throws InterruptedException If the build is aborted while waiting for the process
+     */
+    int join(Proc proc) throws IOException, InterruptedException {
+        if (timeout <= 0 && inactivityTimeout <= 0 && leaseTimeout <= 0) {
+            return proc.join();
+        }
+        long start = now();
+        lastActivity = start;
+        try {
+            while (proc.isAlive()) {
+                long now = now();
+                String reason = null;
+                if (timeout > 0 && now - start >= timeout) {
+                    reason = "the run timeout of " + Util.getTimeSpanString(timeout) + " was exceeded";
+                } else if (inactivityTimeout > 0 && now - lastActivity >= inactivityTimeout) {
+                    reason = "no output for " + Util.getTimeSpanString(inactivityTimeout);
+                } else if (leaseTimeout > 0 && now - start >= leaseTimeout) {
+                    reason = "the desktop lease timeout of " + Util.getTimeSpanString(leaseTimeout) + " was exceeded";
+                }
+                if (reason != null) {
+                    proc.kill();
+                    int exitCode = proc.join();
+                    cause = new RanorexTimeoutCause(reason, now - start, now() - now);
+                    return exitCode;
+                }
+                Thread.sleep(POLL_INTERVAL);
+            }
+            return proc.join();
+        } catch (InterruptedException e) {
+            // Proc.join() kills the process when interrupted, polling has to do the same
+            proc.kill();
+            throw e;
+        }
+    }
+
+    /**
+     * @return The reason why the process was killed or null if it terminated on its own
+     */
+    @CheckForNull
+    RanorexTimeoutCause getCause() {
+        return cause;
+    }
+
+    /**
+     * @return The current time of the monotonic clock used by the watchdog in milliseconds
+     */
+    static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+}
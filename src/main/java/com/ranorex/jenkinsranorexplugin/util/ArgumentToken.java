@@ -0,0 +1,145 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import javax.annotation.CheckForNull;
+
+/**
+ * A single argument of a global parameter or command line argument field. The token only stores the positions
+ * of the flag separator ':' and the first '=' inside the raw field, the parts are extracted on demand.
+ */
+public final class ArgumentToken {
+    private static final int NONE = - 1;
+
+    private final String source;
+    private final int start;
+    private final int end;
+    private final int separator;
+    private final int equals;
+
+    ArgumentToken(String source, int start, int end, int separator, int equals) {
+        this.source = source;
+        this.start = start;
+        this.end = end;
+        this.separator = separator;
+        this.equals = equals;
+    }
+
+    /**
+     * Creates a token for a single argument, the argument is not split
+     *
+     * @param argument The argument
+     * @return The token spanning the whole argument
+     */
+    public static ArgumentToken of(String argument) {
+        int separator = NONE;
+        int equals = NONE;
+        for (int i = 0; i < argument.length() && equals == NONE; i++) {
+            char c = argument.charAt(i);
+            if (c == '=') {
+                equals = i;
+            } else if (c == ':' && separator == NONE) {
+                separator = i;
+            }
+        }
+        return new ArgumentToken(argument, 0, argument.length(), separator, equals);
+    }
+
+    /**
+     * @return The raw text of the argument
+     */
+    public String getText() {
+        return source.substring(start, end);
+    }
+
+    /**
+     * @return True if the argument only contains white spaces
+     */
+    public boolean isBlank() {
+        for (int i = start; i < end; i++) {
+            if (source.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return True if the argument contains a flag separated by ':' from the rest of the argument
+     */
+    public boolean hasSeparator() {
+        return separator > start;
+    }
+
+    /**
+     * @return True if the argument contains a '='
+     */
+    public boolean hasEquals() {
+        return equals != NONE;
+    }
+
+    /**
+     * @return The flag without slashes. If the argument contains no separator the whole argument is the flag.
+     */
+    public String getFlag() {
+        return withoutSlashes(start, hasSeparator() ? separator : end);
+    }
+
+    /**
+     * @return The text between the separator (if any) and the first '=', or the rest of the argument if there
+     * is no '='
+     */
+    public String getName() {
+        int nameStart = separator != NONE ? separator + 1 : start;
+        return source.substring(nameStart, equals != NONE ? equals : end);
+    }
+
+    /**
+     * @return The text after the first '=' or null if there is no '='
+     */
+    @CheckForNull
+    public String getValue() {
+        return equals != NONE ? source.substring(equals + 1, end) : null;
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * @return The position of the flag separator in the raw field or -1
+     */
+    public int getSeparator() {
+        return separator;
+    }
+
+    /**
+     * @return The position of the first '=' in the raw field or -1
+     */
+    public int getEquals() {
+        return equals;
+    }
+
+    private String withoutSlashes(int from, int to) {
+        StringBuilder sb = null;
+        for (int i = from; i < to; i++) {
+            char c = source.charAt(i);
+            if (c == '/') {
+                if (sb == null) {
+                    sb = new StringBuilder(to - from);
+                    sb.append(source, from, i);
+                }
+            } else if (sb != null) {
+                sb.append(c);
+            }
+        }
+        return sb != null ? sb.toString() : source.substring(from, to);
+    }
+
+    @Override
+    public String toString() {
+        return getText();
+    }
+}
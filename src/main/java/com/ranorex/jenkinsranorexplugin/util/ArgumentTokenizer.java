@@ -0,0 +1,66 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public abstract class ArgumentTokenizer {
+    /**
+     * Characters which separate the arguments of a global parameter or command line argument field
+     */
+    public static final String ARGUMENT_SEPARATOR = "\t\r\n;";
+
+    /**
+     * Splits the raw field into arguments in a single pass. Empty arguments and arguments which only contain white
+     * spaces are skipped. The flag separator ':' is only recognized in front of the first '=', so values may
+     * contain colons, e.g. drive letters.
+     *
+     * @param input The raw global parameter or command line argument field
+     * @return The tokens in the order of the input
+     */
+    public static List<ArgumentToken> tokenize(String input) {
+        if (input == null || input.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<ArgumentToken> tokens = new ArrayList<>();
+        int start = 0;
+        int separator = - 1;
+        int equals = - 1;
+        boolean blank = true;
+        int length = input.length();
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? input.charAt(i) : ';';
+            switch (c) {
+                case '\t':
+                case '\r':
+                case '\n':
+                case ';':
+                    if (! blank) {
+                        tokens.add(new ArgumentToken(input, start, i, separator, equals));
+                    }
+                    start = i + 1;
+                    separator = - 1;
+                    equals = - 1;
+                    blank = true;
+                    break;
+                case ':':
+                    if (separator < 0 && equals < 0) {
+                        separator = i;
+                    }
+                    blank = false;
+                    break;
+                case '=':
+                    if (equals < 0) {
+                        equals = i;
+                    }
+                    blank = false;
+                    break;
+                default:
+                    if (c > ' ') {
+                        blank = false;
+                    }
+            }
+        }
+        return tokens;
+    }
+}
@@ -1,11 +1,22 @@
 package com.ranorex.jenkinsranorexplugin.util;
 
+import javax.annotation.CheckForNull;
+
 public abstract class BaseArgument {
     protected final static String SEPARATOR = ":";
     protected String flag;
     protected String name;
     protected String value;
 
+    protected BaseArgument() {
+    }
+
+    protected BaseArgument(String flag, String name, String value) {
+        this.flag = flag;
+        this.name = name;
+        this.value = value;
+    }
+
     public String getFlag() {
         return flag;
     }
@@ -18,6 +29,14 @@ public abstract class BaseArgument {
         return value;
     }
 
+    /**
+     * @return The registered Ranorex flag or null if the flag is unknown
+     */
+    @CheckForNull
+    public RanorexFlag getRanorexFlag() {
+        return RanorexFlag.forName(flag);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -35,12 +54,14 @@ public abstract class BaseArgument {
     }
 
     public void trim() {
-        try {
+        if (flag != null) {
             flag = flag.trim();
+        }
+        if (name != null) {
             name = name.trim();
+        }
+        if (value != null) {
             value = value.trim();
-        } catch (NullPointerException e) {
-            System.out.println("[WARNING] [CmdArgument] - Method trim() threw NullPointerException because part of the Argument where null or empty");
         }
     }
 }
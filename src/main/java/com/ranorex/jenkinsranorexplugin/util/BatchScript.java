@@ -0,0 +1,73 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import java.util.List;
+
+/**
+ * Writes command lines for Windows batch scripts
+ */
+public abstract class BatchScript {
+    private static final String SPECIAL_CHARACTERS = " \t&|<>^(),;=\"";
+
+    /**
+     * Joins the arguments to one line of a batch script. Arguments are quoted like the Windows command line parser
+     * of the test executable expects it and percent signs are escaped, so Ranorex placeholders like %S are not
+     * expanded as environment variables.
+     *
+     * @param arguments The executable followed by its arguments
+     * @return The command line
+     */
+    public static String commandLine(List<String> arguments) {
+        StringBuilder sb = new StringBuilder();
+        for (String argument : arguments) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(quote(argument).replace("%", "%%"));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param argument A single argument
+     * @return The argument, enclosed in quotes if it is empty or contains special characters
+     */
+    static String quote(String argument) {
+        if (! argument.isEmpty() && ! containsSpecialCharacter(argument)) {
+            return argument;
+        }
+        StringBuilder sb = new StringBuilder("\"");
+        int backslashes = 0;
+        for (char c : argument.toCharArray()) {
+            if (c == '\\') {
+                backslashes++;
+                continue;
+            }
+            if (c == '"') {
+                // Backslashes in front of a quote and the quote itself are escaped
+                appendBackslashes(sb, backslashes * 2 + 1);
+            } else {
+                appendBackslashes(sb, backslashes);
+            }
+            backslashes = 0;
+            sb.append(c);
+        }
+        // Backslashes in front of the closing quote are escaped
+        appendBackslashes(sb, backslashes * 2);
+        return sb.append('"').toString();
+    }
+
+    private static boolean containsSpecialCharacter(String argument) {
+        for (char c : argument.toCharArray()) {
+            if (SPECIAL_CHARACTERS.indexOf(c) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void appendBackslashes(StringBuilder sb, int count) {
+        for (int i = 0; i < count; i++) {
+            sb.append('\\');
+        }
+    }
+}
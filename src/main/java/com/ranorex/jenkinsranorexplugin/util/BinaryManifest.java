@@ -0,0 +1,167 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Serializable;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The content hashes of the files of a test suite.
+ * <p>
+ * The manifest is stored as one line per file, containing the hash, the size in bytes, the last modification time
+ * in milliseconds and the relative path separated by tabs. Manifests of earlier versions do not contain the last
+ * modification time.
+ */
+public final class BinaryManifest implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final char SEPARATOR = '\t';
+
+    private final Map<String, String> hashes = new TreeMap<>();
+    private final Map<String, Long> sizes = new TreeMap<>();
+    private final Map<String, Long> lastModified = new TreeMap<>();
+
+    /**
+     * Reads a manifest file
+     *
+     * @param in The content of the manifest file
+     * @return The manifest, lines which cannot be read are skipped
+     * @throws IOException If the manifest cannot be read
+     */
+    public static BinaryManifest read(InputStream in) throws IOException {
+        BinaryManifest manifest = new BinaryManifest();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            // Paths never contain a tab, so a line with three fields was written by an earlier version
+            String[] fields = line.split(String.valueOf(SEPARATOR), 4);
+            if (fields.length < 3 || fields[0].isEmpty() || fields[fields.length - 1].isEmpty()) {
+                continue;
+            }
+            try {
+                manifest.put(fields[fields.length - 1], fields[0], Long.parseLong(fields[1]),
+                        fields.length == 4 ? Long.parseLong(fields[2]) : 0);
+            } catch (NumberFormatException e) {
+                // Skip the corrupt line, the file is hashed again
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * Writes the manifest file
+     *
+     * @param writer Receives the content of the manifest file
+     * @throws IOException If the manifest cannot be written
+     */
+    public void write(Writer writer) throws IOException {
+        for (Map.Entry<String, String> entry : hashes.entrySet()) {
+            writer.write(entry.getValue() + SEPARATOR + sizes.get(entry.getKey()) + SEPARATOR
+                    + lastModified.get(entry.getKey()) + SEPARATOR + entry.getKey() + "\n");
+        }
+        writer.flush();
+    }
+
+    /**
+     * Adds a file
+     *
+     * @param path The path of the file relative to the test suite directory, with forward slashes
+     * @param hash The hash of the content
+     * @param size The size in bytes
+     */
+    public void put(String path, String hash, long size) {
+        put(path, hash, size, 0);
+    }
+
+    /**
+     * Adds a file
+     *
+     * @param path         The path of the file relative to the test suite directory, with forward slashes
+     * @param hash         The hash of the content
+     * @param size         The size in bytes
+     * @param lastModified The last modification time in milliseconds, 0 if it is unknown
+     */
+    public void put(String path, String hash, long size, long lastModified) {
+        if (StringUtil.isNullOrSpace(path) || path.indexOf(SEPARATOR) >= 0 || path.indexOf('\n') >= 0
+                || size < 0) {
+            return;
+        }
+        hashes.put(path, hash);
+        sizes.put(path, size);
+        this.lastModified.put(path, Math.max(0, lastModified));
+    }
+
+    /**
+     * @param path The relative path of a file
+     * @return True if the manifest contains the file
+     */
+    public boolean contains(String path) {
+        return hashes.containsKey(path);
+    }
+
+    /**
+     * Returns the part of the manifest which contains the given files
+     *
+     * @param paths The relative paths of the files
+     * @return A manifest of the files which are contained in this manifest
+     */
+    public BinaryManifest select(Iterable<String> paths) {
+        BinaryManifest manifest = new BinaryManifest();
+        for (String path : paths) {
+            if (hashes.containsKey(path)) {
+                manifest.put(path, hashes.get(path), sizes.get(path), lastModified.get(path));
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * @return The hashes by relative path
+     */
+    public Map<String, String> getHashes() {
+        return Collections.unmodifiableMap(hashes);
+    }
+
+    /**
+     * @param path The relative path of a file
+     * @return The size of the file in bytes, -1 if the manifest does not contain the file
+     */
+    public long getSize(String path) {
+        Long size = sizes.get(path);
+        return size != null ? size : -1;
+    }
+
+    /**
+     * @param path The relative path of a file
+     * @return The last modification time of the file in milliseconds, 0 if it is unknown
+     */
+    public long getLastModified(String path) {
+        Long time = lastModified.get(path);
+        return time != null ? time : 0;
+    }
+
+    /**
+     * @return The distinct hashes of all files
+     */
+    public Set<String> getDistinctHashes() {
+        return new HashSet<>(hashes.values());
+    }
+
+    /**
+     * @return The total size of all files in bytes
+     */
+    public long getSize() {
+        long size = 0;
+        for (long s : sizes.values()) {
+            size += s;
+        }
+        return size;
+    }
+}
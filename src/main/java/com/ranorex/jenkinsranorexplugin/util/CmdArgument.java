@@ -2,49 +2,84 @@ package com.ranorex.jenkinsranorexplugin.util;
 
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 public class CmdArgument extends BaseArgument {
-    private static final ArrayList<String> IGNORE_ARGUMENTS = new ArrayList<>(Arrays.asList(
-            "param", "pa",
-            "listconfigparams", "lcp",
-            "reportfile", "rf",
-            "zipreport", "zr",
-            "junit", "ju",
-            "listglobalparams", "lp",
-            "listtestcaseparams", "ltcpa",
-            "runconfig", "rc",
-            "testrail",
-            "truser",
-            "trpass",
-            "trrunid",
-            "trrunname"
-    ));
     private static final String SEPARATOR = ":";
 
     public CmdArgument(String argumentString) {
         if (StringUtil.isNullOrSpace(argumentString)) {
             throw new IllegalArgumentException("Argument must be not null or empty!");
         }
-        //isValid(argumentString) &&
-        if (! isIgnored(argumentString)) {
-            try {
-                String splitArgument[] = trySplitArgument(argumentString);
-                switch (splitArgument.length) {
-                    case 3:
-                        this.value = splitArgument[2];
-                    case 2:
-                        this.name = splitArgument[1];
-                    case 1:
-                        this.flag = splitArgument[0];
-                        break;
+        ParsedArgument<CmdArgument> parsed = parse(ArgumentToken.of(argumentString));
+        if (! parsed.isValid()) {
+            throw new InvalidParameterException(parsed.getDiagnostic());
+        }
+        CmdArgument argument = parsed.getArgument();
+        this.flag = argument.flag;
+        this.name = argument.name;
+        this.value = argument.value;
+    }
+
+    private CmdArgument(String flag, String name, String value) {
+        super(flag, name, value);
+    }
+
+    /**
+     * Parses a single command line argument without throwing
+     *
+     * @param token The token created by the {@link ArgumentTokenizer}
+     * @return The parsed argument or the reason why the argument will be ignored
+     */
+    public static ParsedArgument<CmdArgument> parse(ArgumentToken token) {
+        if (token.isBlank()) {
+            return ParsedArgument.invalid(token, "Argument must be not null or empty!");
+        }
+        String flag = token.getFlag();
+        if (StringUtil.isNullOrSpace(flag)) {
+            return ParsedArgument.invalid(token, "Argument '" + token.getText() + "' has no flag");
+        }
+        RanorexFlag rxFlag = RanorexFlag.forName(flag);
+        if (rxFlag != null && rxFlag.isPluginManaged()) {
+            return ParsedArgument.invalid(token, "Argument '" + token.getText() + "' will be ignored");
+        }
+        if (! token.hasSeparator()) {
+            if (rxFlag != null && rxFlag.isTakesValue()) {
+                return ParsedArgument.invalid(token, "Argument '" + token.getText() + "' requires a value");
+            }
+            return ParsedArgument.valid(token, new CmdArgument(flag, null, null));
+        }
+        return ParsedArgument.valid(token, new CmdArgument(flag, token.getName(), token.getValue()));
+    }
+
+    /**
+     * Parses all command line arguments of the given field. If a flag which must not be repeated occurs more than
+     * once, only the last occurrence is used.
+     *
+     * @param cmdLineArgs The raw command line argument field
+     * @return The parsed arguments in the order of the field
+     */
+    public static List<ParsedArgument<CmdArgument>> parseAll(String cmdLineArgs) {
+        List<ParsedArgument<CmdArgument>> parsedArguments = new ArrayList<>();
+        Map<RanorexFlag, Integer> lastOccurrence = new EnumMap<>(RanorexFlag.class);
+        for (ArgumentToken token : ArgumentTokenizer.tokenize(cmdLineArgs)) {
+            ParsedArgument<CmdArgument> parsed = parse(token);
+            if (parsed.isValid()) {
+                RanorexFlag rxFlag = parsed.getArgument().getRanorexFlag();
+                if (rxFlag != null && ! rxFlag.isRepeatable()) {
+                    Integer previous = lastOccurrence.put(rxFlag, parsedArguments.size());
+                    if (previous != null) {
+                        ArgumentToken overridden = parsedArguments.get(previous).getToken();
+                        parsedArguments.set(previous, ParsedArgument.<CmdArgument>invalid(overridden, "Argument '"
+                                + overridden.getText() + "' is overridden by '" + token.getText() + "'"));
+                    }
                 }
-            } catch (InvalidParameterException e) {
-                throw e;
             }
-        } else {
-            throw new InvalidParameterException("Argument '" + argumentString + "' will be ignored");
+            parsedArguments.add(parsed);
         }
+        return parsedArguments;
     }
 
     public static String tryExtractFlag(String argumentString) {
@@ -67,12 +102,12 @@ public class CmdArgument extends BaseArgument {
         if (StringUtil.isNullOrSpace(argumentString)) {
             throw new IllegalArgumentException("Argument must be not null or empty!");
         }
-        try {
-            String flag = tryExtractFlag(argumentString);
-            return IGNORE_ARGUMENTS.contains(flag);
-        } catch (IllegalArgumentException e) {
+        String flag = ArgumentToken.of(argumentString).getFlag();
+        if (StringUtil.isNullOrSpace(flag)) {
             return true;
         }
+        RanorexFlag rxFlag = RanorexFlag.forName(flag);
+        return rxFlag != null && rxFlag.isPluginManaged();
     }
 
     protected static String[] trySplitArgument(String argumentString) {
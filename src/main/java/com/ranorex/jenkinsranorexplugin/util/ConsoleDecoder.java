@@ -0,0 +1,94 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import javax.annotation.CheckForNull;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Recognizes the lines a Ranorex test executable prints when a test suite element starts or completes, e.g.
+ * <pre>
+ * [2019/05/14 10:12:03.147][Info    ][Test]: Test Case 'Login' started.
+ * [2019/05/14 10:12:09.881][Success ][Test]: Test Case 'Login' completed with status 'Success'.
+ * </pre>
+ * The decoder works on single lines and keeps no state, so it can be applied to the output while it is written.
+ */
+public abstract class ConsoleDecoder {
+    private static final Pattern ELEMENT = Pattern.compile(
+            "(test suite|test container|test case|smart folder|test module|module)\\s+'([^']*)'"
+                    + "(?:\\s+iteration\\s*#?(\\d+))?\\s+(started|completed)(?:.*?status\\s+'?(\\w+))?",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern ITERATION = Pattern.compile(
+            "iteration\\s*#?(\\d+)\\s+(started|completed)(?:.*?status\\s+'?(\\w+))?", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * @param line A single line of the console output without line terminator
+     * @return The decoded event or null if the line does not start or complete a test suite element
+     */
+    @CheckForNull
+    public static ConsoleEvent decode(CharSequence line) {
+        if (! mayContainEvent(line)) {
+            return null;
+        }
+        Matcher matcher = ELEMENT.matcher(line);
+        if (matcher.find()) {
+            ConsoleEvent.Kind kind = toKind(matcher.group(1));
+            int iteration = matcher.group(3) != null ? Integer.parseInt(matcher.group(3)) : 0;
+            if (iteration > 0) {
+                kind = ConsoleEvent.Kind.ITERATION;
+            }
+            return new ConsoleEvent(kind, isStarted(matcher.group(4)), matcher.group(2), iteration,
+                    matcher.group(5));
+        }
+        matcher = ITERATION.matcher(line);
+        if (matcher.find()) {
+            return new ConsoleEvent(ConsoleEvent.Kind.ITERATION, isStarted(matcher.group(2)), null,
+                    Integer.parseInt(matcher.group(1)), matcher.group(3));
+        }
+        return null;
+    }
+
+    /**
+     * Cheap check which avoids running the regular expressions for the majority of lines
+     */
+    private static boolean mayContainEvent(CharSequence line) {
+        for (int i = 0; i < line.length(); i++) {
+            char c = Character.toLowerCase(line.charAt(i));
+            if ((c == 's' || c == 'c') && (startsWith(line, i, "started") || startsWith(line, i, "completed"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean startsWith(CharSequence line, int offset, String prefix) {
+        if (line.length() - offset < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (Character.toLowerCase(line.charAt(offset + i)) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isStarted(String state) {
+        return "started".equalsIgnoreCase(state);
+    }
+
+    private static ConsoleEvent.Kind toKind(String element) {
+        switch (element.toLowerCase(Locale.ENGLISH)) {
+            case "test suite":
+                return ConsoleEvent.Kind.TEST_SUITE;
+            case "test container":
+                return ConsoleEvent.Kind.TEST_CONTAINER;
+            case "smart folder":
+                return ConsoleEvent.Kind.SMART_FOLDER;
+            case "test case":
+                return ConsoleEvent.Kind.TEST_CASE;
+            default:
+                return ConsoleEvent.Kind.MODULE;
+        }
+    }
+}
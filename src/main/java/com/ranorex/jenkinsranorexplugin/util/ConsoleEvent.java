@@ -0,0 +1,68 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import javax.annotation.CheckForNull;
+
+/**
+ * A start or end of a test suite element, decoded from one line of the Ranorex console output
+ */
+public final class ConsoleEvent {
+    public enum Kind {
+        TEST_SUITE, TEST_CONTAINER, TEST_CASE, SMART_FOLDER, ITERATION, MODULE
+    }
+
+    private final Kind kind;
+    private final boolean started;
+    @CheckForNull
+    private final String name;
+    private final int iteration;
+    @CheckForNull
+    private final String status;
+
+    ConsoleEvent(Kind kind, boolean started, @CheckForNull String name, int iteration, @CheckForNull String status) {
+        this.kind = kind;
+        this.started = started;
+        this.name = name;
+        this.iteration = iteration;
+        this.status = status;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return True if the element started, false if it completed
+     */
+    public boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * @return The name of the element or null for iterations without a name
+     */
+    @CheckForNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The number of the iteration or 0 if the event does not belong to an iteration
+     */
+    public int getIteration() {
+        return iteration;
+    }
+
+    /**
+     * @return The status of a completed element, e.g. 'Success' or 'Failed', or null
+     */
+    @CheckForNull
+    public String getStatus() {
+        return status;
+    }
+
+    @Override
+    public String toString() {
+        return kind + " '" + name + "'" + (iteration > 0 ? " #" + iteration : "")
+                + (started ? " started" : " completed with status " + status);
+    }
+}
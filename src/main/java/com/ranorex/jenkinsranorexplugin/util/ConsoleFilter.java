@@ -0,0 +1,67 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import java.util.Locale;
+
+/**
+ * Decides which lines of the Ranorex console output are shown in the build log when the output is filtered, e.g.
+ * <pre>
+ * [2019/05/14 10:12:05.301][Error   ][Validation]: Attribute 'Text' does not match.
+ * [2019/05/14 10:12:09.881][Success ][Test]: Test Case 'Login' completed with status 'Success'.
+ * </pre>
+ * Errors, warnings and the start and end of test suite elements other than modules are relevant. Lines without the
+ * Ranorex prefix, e.g. messages of the test executable before the test suite starts, are relevant if they mention
+ * an error, an exception or a warning.
+ */
+public abstract class ConsoleFilter {
+    private static final String[] RELEVANT_LEVELS = {"error", "failure", "fatal", "warn", "warning"};
+    private static final String[] RELEVANT_WORDS = {"error", "exception", "warning"};
+
+    /**
+     * @param line A single line of the console output without line terminator
+     * @return True if the line is shown in the filtered build log
+     */
+    public static boolean isRelevant(CharSequence line) {
+        String level = levelOf(line);
+        if (level != null) {
+            for (String relevant : RELEVANT_LEVELS) {
+                if (level.equals(relevant)) {
+                    return true;
+                }
+            }
+            ConsoleEvent event = ConsoleDecoder.decode(line);
+            return event != null && event.getKind() != ConsoleEvent.Kind.MODULE;
+        }
+        String text = line.toString().toLowerCase(Locale.ENGLISH);
+        for (String word : RELEVANT_WORDS) {
+            if (text.contains(word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The lower case level of a line with the Ranorex prefix {@code [time][level]} or null
+     */
+    private static String levelOf(CharSequence line) {
+        if (line.length() == 0 || line.charAt(0) != '[') {
+            return null;
+        }
+        int open = -1;
+        for (int i = 1; i + 1 < line.length(); i++) {
+            if (line.charAt(i) == ']') {
+                open = line.charAt(i + 1) == '[' ? i + 2 : -1;
+                break;
+            }
+        }
+        if (open < 0) {
+            return null;
+        }
+        for (int i = open; i < line.length(); i++) {
+            if (line.charAt(i) == ']') {
+                return line.subSequence(open, i).toString().trim().toLowerCase(Locale.ENGLISH);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,290 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A content-addressed file store in a directory. Every file is stored under the SHA-256 hash of its
+ * content, the last modification time of a cached file is the time it was last used.
+ */
+public final class ContentCache {
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final File directory;
+
+    /**
+     * @param directory The cache directory, it is created on first use
+     */
+    public ContentCache(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @param hash The hash of a file
+     * @return The cache file for the hash, which may not exist yet
+     */
+    public File getFile(String hash) {
+        return new File(directory, hash);
+    }
+
+    /**
+     * Returns the hashes which are not cached yet
+     *
+     * @param hashes The hashes of the required files
+     * @return The hashes of the files which have to be transferred
+     */
+    public List<String> getMissing(Collection<String> hashes) {
+        List<String> missing = new ArrayList<>();
+        for (String hash : hashes) {
+            if (! getFile(hash).isFile() && ! missing.contains(hash)) {
+                missing.add(hash);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Adds a file to the cache. The content is written to a temporary file first, so a concurrent build never sees
+     * an incomplete file.
+     *
+     * @param hash    The hash of the content
+     * @param content The content of the file
+     * @throws IOException If the file cannot be written or the content does not match the hash
+     */
+    public void put(String hash, InputStream content) throws IOException {
+        if (! directory.isDirectory() && ! directory.mkdirs() && ! directory.isDirectory()) {
+            throw new IOException("Cannot create directory " + directory);
+        }
+        File temp = File.createTempFile("upload", TEMP_SUFFIX, directory);
+        try {
+            MessageDigest digest = newDigest();
+            try (InputStream in = content) {
+                byte[] buffer = new byte[8192];
+                try (OutputStream out = Files.newOutputStream(temp.toPath())) {
+                    int read;
+                    while ((read = in.read(buffer)) >= 0) {
+                        digest.update(buffer, 0, read);
+                        out.write(buffer, 0, read);
+                    }
+                }
+            }
+            String actual = toHex(digest.digest());
+            if (! actual.equals(hash)) {
+                throw new IOException("The content of " + hash + " has the hash " + actual);
+            }
+            Files.move(temp.toPath(), getFile(hash).toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+    }
+
+    /**
+     * Places a cached file at the target path. The file is copied, a test run may change the files in its working
+     * directory and must never change the cache. A target with the content of the cached file is kept.
+     * <p>
+     * The content is hashed again while it is copied, a cached file which no longer matches its hash is deleted so
+     * it is transferred again by the next build.
+     *
+     * @param hash   The hash of the file
+     * @param target The path the file should have
+     * @return True if the target was changed, false if it already had the content of the cached file
+     * @throws IOException If the file is not cached, is damaged or cannot be placed
+     */
+    public boolean materialize(String hash, File target) throws IOException {
+        return materialize(hash, target, 0);
+    }
+
+    /**
+     * Places a cached file at the target path like {@link #materialize(String, File)} and sets its last
+     * modification time. A target with the size and the last modification time of the cached file is kept without
+     * hashing it, a test run which changes the file also changes its last modification time.
+     *
+     * @param hash         The hash of the file
+     * @param target       The path the file should have
+     * @param lastModified The last modification time of the file in milliseconds, 0 if it is unknown
+     * @return True if the target was changed, false if it already had the content of the cached file
+     * @throws IOException If the file is not cached, is damaged or cannot be placed
+     */
+    public boolean materialize(String hash, File target, long lastModified) throws IOException {
+        Path source = getFile(hash).toPath();
+        if (! Files.isRegularFile(source)) {
+            throw new IOException("File " + hash + " is not cached");
+        }
+        touch(source.toFile());
+        Path path = target.toPath();
+        if (Files.isRegularFile(path) && ! Files.isSameFile(source, path)
+                && Files.size(path) == Files.size(source)) {
+            // File systems store the time with different precision, whole seconds are kept by all of them
+            if (lastModified > 0 && target.lastModified() / 1000 == lastModified / 1000) {
+                return false;
+            }
+            if (hashOf(target).equals(hash)) {
+                setLastModified(target, lastModified);
+                return false;
+            }
+        }
+        File parent = target.getParentFile();
+        if (parent != null && ! parent.isDirectory() && ! parent.mkdirs() && ! parent.isDirectory()) {
+            throw new IOException("Cannot create directory " + parent);
+        }
+        // Also breaks a hard link to the cache file, which earlier versions created
+        Files.deleteIfExists(path);
+        MessageDigest digest = newDigest();
+        try (InputStream in = Files.newInputStream(source); OutputStream out = Files.newOutputStream(path)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+            }
+        }
+        String actual = toHex(digest.digest());
+        if (! actual.equals(hash)) {
+            Files.deleteIfExists(path);
+            Files.deleteIfExists(source);
+            throw new IOException("The cached file " + hash + " is damaged, it has the hash " + actual);
+        }
+        setLastModified(target, lastModified);
+        return true;
+    }
+
+    /**
+     * Deletes the least recently used files until the cache is not larger than the given size
+     *
+     * @param maxSize The maximum size of the cache in bytes
+     * @param keep    The hashes of files which must not be deleted, e.g. the files used by the current build
+     * @return The number of deleted files
+     */
+    public int evict(long maxSize, Set<String> keep) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return 0;
+        }
+        long size = 0;
+        for (File file : files) {
+            size += file.length();
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        int deleted = 0;
+        for (File file : files) {
+            if (size <= maxSize) {
+                break;
+            }
+            if (keep.contains(file.getName()) || file.getName().endsWith(TEMP_SUFFIX)) {
+                continue;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                size -= length;
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Marks a cached file as used, so it is not deleted as unreferenced or least recently used file
+     *
+     * @param hash The hash of the file
+     * @return True if the file is cached
+     */
+    public boolean touch(String hash) {
+        File file = getFile(hash);
+        if (! file.isFile()) {
+            return false;
+        }
+        touch(file);
+        return true;
+    }
+
+    /**
+     * Deletes the files which are no longer referenced. Files used after the given time are kept, they may belong
+     * to a build which has not recorded its references yet.
+     *
+     * @param referenced The hashes of all referenced files
+     * @param usedBefore Only files last used before this time in milliseconds are deleted
+     * @return The number of deleted files
+     */
+    public int deleteUnreferenced(Set<String> referenced, long usedBefore) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return 0;
+        }
+        int deleted = 0;
+        for (File file : files) {
+            if (! referenced.contains(file.getName()) && file.lastModified() < usedBefore && file.delete()) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    private static void touch(File file) {
+        // Best effort, a file which cannot be touched is just evicted earlier
+        file.setLastModified(System.currentTimeMillis());
+    }
+
+    private static void setLastModified(File file, long lastModified) {
+        // Best effort, a file whose time cannot be set is just hashed again by the next build
+        if (lastModified > 0) {
+            file.setLastModified(lastModified);
+        }
+    }
+
+    /**
+     * @param file A file
+     * @return The hex encoded SHA-256 hash of the content of the file
+     * @throws IOException If the file cannot be read
+     */
+    public static String hashOf(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return hashOf(in);
+        }
+    }
+
+    /**
+     * @param in A stream, it is read until the end but not closed
+     * @return The hex encoded SHA-256 hash of the content of the stream
+     * @throws IOException If the stream cannot be read
+     */
+    public static String hashOf(InputStream in) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            digest.update(buffer, 0, read);
+        }
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,163 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Durations of test containers measured by earlier builds of a job.
+ * <p>
+ * The history is stored as one line per test container, containing the duration in milliseconds, the number of
+ * builds which did not report the test container and the name, separated by tabs. A new measurement is averaged
+ * with the stored duration, so a single slow run does not change the estimate completely. Test containers which
+ * were not reported by the last {@link #MAX_MISSED_BUILDS} builds were renamed or deleted and are removed.
+ */
+public final class DurationHistory {
+    static final long DEFAULT_ESTIMATE = 60000L;
+    static final int MAX_MISSED_BUILDS = 10;
+    private static final char SEPARATOR = '\t';
+
+    private final Map<String, Long> durations = new TreeMap<>();
+    private final Map<String, Integer> missedBuilds = new HashMap<>();
+    private final Set<String> recorded = new HashSet<>();
+
+    /**
+     * Reads a history file
+     *
+     * @param in The content of the history file
+     * @return The history, lines which cannot be read are skipped
+     * @throws IOException If the history cannot be read
+     */
+    public static DurationHistory read(InputStream in) throws IOException {
+        DurationHistory history = new DurationHistory();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            int separator = line.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == line.length() - 1) {
+                continue;
+            }
+            try {
+                long duration = Long.parseLong(line.substring(0, separator));
+                String name = line.substring(separator + 1);
+                int missed = 0;
+                // Files written before the missed builds were stored contain only the duration and the name
+                int nameSeparator = name.indexOf(SEPARATOR);
+                if (nameSeparator > 0) {
+                    missed = Integer.parseInt(name.substring(0, nameSeparator));
+                    name = name.substring(nameSeparator + 1);
+                }
+                if (duration >= 0 && missed >= 0 && ! name.isEmpty()) {
+                    history.durations.put(name, duration);
+                    history.missedBuilds.put(name, missed);
+                }
+            } catch (NumberFormatException e) {
+                // Skip the corrupt line, the duration is measured again by the next build
+            }
+        }
+        return history;
+    }
+
+    /**
+     * Writes the history file
+     *
+     * @param writer Receives the content of the history file
+     * @throws IOException If the history cannot be written
+     */
+    public void write(Writer writer) throws IOException {
+        for (Map.Entry<String, Long> entry : durations.entrySet()) {
+            writer.write(entry.getValue() + String.valueOf(SEPARATOR) + getMissedBuilds(entry.getKey()) + SEPARATOR
+                    + entry.getKey() + "\n");
+        }
+        writer.flush();
+    }
+
+    /**
+     * Records a measured duration
+     *
+     * @param name     The name of the test container
+     * @param duration The duration in milliseconds
+     */
+    public void record(String name, long duration) {
+        if (StringUtil.isNullOrSpace(name) || name.indexOf(SEPARATOR) >= 0 || name.indexOf('\n') >= 0
+                || duration < 0) {
+            return;
+        }
+        Long previous = durations.get(name);
+        durations.put(name, previous == null ? duration : (previous + duration) / 2);
+        missedBuilds.put(name, 0);
+        recorded.add(name);
+    }
+
+    /**
+     * Completes the durations of a build. Test containers which the build did not report count one more missed
+     * build, they are removed after {@link #MAX_MISSED_BUILDS} missed builds.
+     */
+    public void completeBuild() {
+        for (Iterator<String> names = durations.keySet().iterator(); names.hasNext(); ) {
+            String name = names.next();
+            if (recorded.contains(name)) {
+                continue;
+            }
+            int missed = getMissedBuilds(name) + 1;
+            if (missed >= MAX_MISSED_BUILDS) {
+                names.remove();
+                missedBuilds.remove(name);
+            } else {
+                missedBuilds.put(name, missed);
+            }
+        }
+        recorded.clear();
+    }
+
+    private int getMissedBuilds(String name) {
+        Integer missed = missedBuilds.get(name);
+        return missed != null ? missed : 0;
+    }
+
+    /**
+     * Estimates the duration of a test container. Test containers without history are estimated with the average
+     * of all known durations, or one minute if the history is empty.
+     *
+     * @param name The name of the test container
+     * @return The estimated duration in milliseconds
+     */
+    public long estimate(String name) {
+        Long duration = durations.get(name);
+        if (duration != null) {
+            return duration;
+        }
+        if (durations.isEmpty()) {
+            return DEFAULT_ESTIMATE;
+        }
+        long total = 0;
+        for (long known : durations.values()) {
+            total += known;
+        }
+        return total / durations.size();
+    }
+
+    /**
+     * @return True if no duration has been recorded
+     */
+    public boolean isEmpty() {
+        return durations.isEmpty();
+    }
+
+    /**
+     * @return The recorded durations in milliseconds by name
+     */
+    public Map<String, Long> getDurations() {
+        return Collections.unmodifiableMap(durations);
+    }
+}
@@ -8,11 +8,18 @@ package com.ranorex.jenkinsranorexplugin.util;
 import hudson.FilePath;
 
 import java.io.File;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
 
 /**
  * @author mstoegerer
  */
 public abstract class FileUtil {
+    private static final Set<String> COMPRESSED_EXTENSIONS = new HashSet<>(Arrays.asList(
+            "png", "jpg", "jpeg", "gif", "zip", "rxzlog", "gz", "7z"
+    ));
 
     /**
      * Translate the TestSuitefilename to the TestExecutionfilename
@@ -43,12 +50,23 @@ public abstract class FileUtil {
      * @return The directory in which the Ranorex Test Suite is located
      */
     public static FilePath getRanorexWorkingDirectory(FilePath jenkinsDirectory, String testSuiteFile) {
+        return new FilePath(new File(getRanorexWorkingDirectory(jenkinsDirectory.getRemote(), testSuiteFile)));
+    }
+
+    /**
+     * Get the absolute path to the Ranorex Test Suite file
+     *
+     * @param jenkinsDirectory The path of the current workspace for the Jenkins Job
+     * @param testSuiteFile    The path to the Ranorex Test Suite
+     * @return The directory in which the Ranorex Test Suite is located
+     */
+    public static String getRanorexWorkingDirectory(String jenkinsDirectory, String testSuiteFile) {
         String[] splitName = StringUtil.splitPath(testSuiteFile);
         StringBuilder directory = new StringBuilder();
 
         //If the Test Suite Path is relative, append it to the Jenkins Workspace
         if (! isAbsolutePath(testSuiteFile)) {
-            directory.append(jenkinsDirectory.getRemote());
+            directory.append(jenkinsDirectory);
         }
 
         for (String name : splitName) {
@@ -61,7 +79,7 @@ public abstract class FileUtil {
             }
         }
 
-        return new FilePath(new File(directory.toString()));
+        return directory.toString();
     }
 
     /**
@@ -143,4 +161,27 @@ public abstract class FileUtil {
         }
         return fileName;
     }
+
+    /**
+     * Creates an Ant style pattern which matches the JUnit report Ranorex creates next to the given report.
+     * Placeholders like %S or %T are resolved by Ranorex at runtime, so they are replaced by wildcards.
+     *
+     * @param reportFile The Ranorex report filename without extension
+     * @return Pattern matching the JUnit report
+     */
+    public static String getJUnitReportPattern(String reportFile) {
+        return reportFile.replaceAll("%[A-Za-z]", "*") + ".*junit.xml";
+    }
+
+    /**
+     * Checks if the file format is already compressed, so compressing it again would only cost time
+     *
+     * @param fileName The name of the file
+     * @return True if the file extension belongs to a compressed format
+     */
+    public static boolean isCompressed(String fileName) {
+        int position = fileName.lastIndexOf('.');
+        return position >= 0
+                && COMPRESSED_EXTENSIONS.contains(fileName.substring(position + 1).toLowerCase(Locale.ENGLISH));
+    }
 }
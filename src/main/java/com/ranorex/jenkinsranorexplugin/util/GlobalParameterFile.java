@@ -0,0 +1,329 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Reads global parameters from parameter files and writes them into a copy of a test suite (*.rxtst) file.
+ * <p>
+ * The global parameters of a test suite are the {@code param} elements in the {@code parameters} element of the
+ * {@code testsuite} element. The test suite is copied event by event, so its size does not matter.
+ */
+public abstract class GlobalParameterFile {
+    private static final String JSON_EXTENSION = ".json";
+    private static final String TEST_SUITE_ELEMENT = "testsuite";
+    private static final String PARAMETERS_ELEMENT = "parameters";
+    private static final String PARAM_ELEMENT = "param";
+    private static final String NAME_ATTRIBUTE = "name";
+
+    /**
+     * Reads the parameters of a parameter file, the format is chosen by the file extension
+     *
+     * @param reader   The content of the parameter file
+     * @param fileName The name of the file, JSON if it ends with '.json', properties otherwise
+     * @return The parameters by name
+     * @throws IOException If the content cannot be read or is not valid
+     */
+    public static Map<String, String> read(Reader reader, String fileName) throws IOException {
+        if (fileName.toLowerCase(Locale.ENGLISH).endsWith(JSON_EXTENSION)) {
+            return readJson(reader);
+        }
+        return readProperties(reader);
+    }
+
+    /**
+     * Reads the parameters of a Java properties file
+     *
+     * @param reader The content of the properties file
+     * @return The parameters by name
+     * @throws IOException If the content cannot be read
+     */
+    public static Map<String, String> readProperties(Reader reader) throws IOException {
+        Properties properties = new Properties();
+        properties.load(reader);
+        Map<String, String> parameters = new LinkedHashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            parameters.put(name, properties.getProperty(name));
+        }
+        return parameters;
+    }
+
+    /**
+     * Reads the parameters of a JSON object whose members are strings, numbers or booleans. Members which are null
+     * are skipped.
+     *
+     * @param reader The content of the JSON file
+     * @return The parameters by name in the order of the file
+     * @throws IOException If the content cannot be read or is not a flat JSON object
+     */
+    public static Map<String, String> readJson(Reader reader) throws IOException {
+        return new JsonObjectReader(new BufferedReader(reader)).read();
+    }
+
+    /**
+     * Copies a test suite file and sets the given global parameters. Existing parameters keep their position,
+     * new parameters are appended to the parameters of the test suite.
+     *
+     * @param testSuite  The content of the *.rxtst file
+     * @param parameters The values of the global parameters by name
+     * @param out        Receives the copy of the test suite, encoded as UTF-8
+     * @return The number of parameters set
+     * @throws IOException If the test suite is not valid or cannot be written
+     */
+    public static int writeTestSuite(InputStream testSuite, Map<String, String> parameters, OutputStream out)
+            throws IOException {
+        Map<String, String> remaining = new LinkedHashMap<>(parameters);
+        XMLEventFactory events = XMLEventFactory.newInstance();
+        int count = 0;
+        int depth = 0;
+        int suiteDepth = -1;
+        int parametersDepth = -1;
+        int skipDepth = -1;
+        boolean parametersFound = false;
+        QName suiteName = null;
+        try {
+            XMLEventReader reader = TestSuiteFile.createInputFactory().createXMLEventReader(testSuite);
+            XMLEventWriter writer = XMLOutputFactory.newInstance().createXMLEventWriter(out, "UTF-8");
+            try {
+                while (reader.hasNext()) {
+                    XMLEvent event = reader.nextEvent();
+                    if (event.isStartDocument()) {
+                        writer.add(events.createStartDocument("UTF-8", "1.0"));
+                    } else if (event.isStartElement()) {
+                        depth++;
+                        if (skipDepth >= 0) {
+                            continue;
+                        }
+                        StartElement start = event.asStartElement();
+                        String element = start.getName().getLocalPart().toLowerCase(Locale.ENGLISH);
+                        if (suiteDepth == -1 && TEST_SUITE_ELEMENT.equals(element)) {
+                            suiteDepth = depth;
+                            suiteName = start.getName();
+                        } else if (depth == suiteDepth + 1 && ! parametersFound
+                                && PARAMETERS_ELEMENT.equals(element)) {
+                            parametersDepth = depth;
+                            parametersFound = true;
+                        } else if (depth == parametersDepth + 1 && PARAM_ELEMENT.equals(element)) {
+                            Attribute name = start.getAttributeByName(new QName(NAME_ATTRIBUTE));
+                            String value = name != null ? remaining.remove(name.getValue()) : null;
+                            if (value != null) {
+                                // The original value is replaced
+                                writer.add(event);
+                                writer.add(events.createCharacters(value));
+                                skipDepth = depth;
+                                count++;
+                                continue;
+                            }
+                        }
+                        writer.add(event);
+                    } else if (event.isEndElement()) {
+                        if (skipDepth >= 0) {
+                            if (depth == skipDepth) {
+                                writer.add(event);
+                                skipDepth = -1;
+                            }
+                            depth--;
+                            continue;
+                        }
+                        if (depth == parametersDepth) {
+                            count += writeParameters(writer, events, suiteName, remaining);
+                            parametersDepth = -1;
+                        } else if (depth == suiteDepth) {
+                            if (! parametersFound && ! remaining.isEmpty()) {
+                                QName parametersName = new QName(suiteName.getNamespaceURI(), PARAMETERS_ELEMENT,
+                                        suiteName.getPrefix());
+                                writer.add(events.createStartElement(parametersName, null, null));
+                                count += writeParameters(writer, events, suiteName, remaining);
+                                writer.add(events.createEndElement(parametersName, null));
+                            }
+                            // Only the first test suite is changed
+                            suiteDepth = -2;
+                        }
+                        writer.add(event);
+                        depth--;
+                    } else if (skipDepth < 0) {
+                        writer.add(event);
+                    }
+                }
+                writer.flush();
+            } finally {
+                reader.close();
+                writer.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Test suite file is not valid: " + e.getMessage(), e);
+        }
+        if (suiteName == null) {
+            throw new IOException("Test suite file is not valid: no test suite found");
+        }
+        return count;
+    }
+
+    private static int writeParameters(XMLEventWriter writer, XMLEventFactory events, QName suiteName,
+                                       Map<String, String> parameters) throws XMLStreamException {
+        QName paramName = new QName(suiteName.getNamespaceURI(), PARAM_ELEMENT, suiteName.getPrefix());
+        int count = parameters.size();
+        for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+            writer.add(events.createStartElement(paramName, null, null));
+            writer.add(events.createAttribute(NAME_ATTRIBUTE, parameter.getKey()));
+            writer.add(events.createCharacters(parameter.getValue()));
+            writer.add(events.createEndElement(paramName, null));
+        }
+        parameters.clear();
+        return count;
+    }
+
+    /**
+     * Reads a JSON object character by character, without building a document
+     */
+    private static final class JsonObjectReader {
+        private final Reader reader;
+        private int next;
+
+        JsonObjectReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        Map<String, String> read() throws IOException {
+            Map<String, String> parameters = new LinkedHashMap<>();
+            advance();
+            expect('{');
+            if (next == '}') {
+                advance();
+            } else {
+                while (true) {
+                    String name = readString();
+                    expect(':');
+                    String value = readValue();
+                    if (value != null) {
+                        parameters.put(name, value);
+                    }
+                    if (next == ',') {
+                        advance();
+                    } else {
+                        expect('}');
+                        break;
+                    }
+                }
+            }
+            if (next != -1) {
+                throw error("end of file");
+            }
+            return parameters;
+        }
+
+        /**
+         * @return The value as text or null if the value is null
+         */
+        private String readValue() throws IOException {
+            if (next == '"') {
+                return readString();
+            }
+            StringBuilder literal = new StringBuilder();
+            while (next != -1 && next != ',' && next != '}' && ! Character.isWhitespace(next)) {
+                literal.append((char) next);
+                next = reader.read();
+            }
+            skipWhitespace();
+            String value = literal.toString();
+            if ("null".equals(value)) {
+                return null;
+            }
+            if ("true".equals(value) || "false".equals(value) || value.matches("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?")) {
+                return value;
+            }
+            throw error("a string, number or boolean");
+        }
+
+        private String readString() throws IOException {
+            if (next != '"') {
+                throw error("'\"'");
+            }
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                int c = reader.read();
+                if (c == -1) {
+                    throw error("'\"'");
+                } else if (c == '"') {
+                    break;
+                } else if (c == '\\') {
+                    value.append(readEscape());
+                } else {
+                    value.append((char) c);
+                }
+            }
+            advance();
+            return value.toString();
+        }
+
+        private char readEscape() throws IOException {
+            int c = reader.read();
+            switch (c) {
+                case '"':
+                case '\\':
+                case '/':
+                    return (char) c;
+                case 'b':
+                    return '\b';
+                case 'f':
+                    return '\f';
+                case 'n':
+                    return '\n';
+                case 'r':
+                    return '\r';
+                case 't':
+                    return '\t';
+                case 'u':
+                    char[] hex = new char[4];
+                    for (int i = 0; i < hex.length; i++) {
+                        int digit = reader.read();
+                        if (Character.digit(digit, 16) < 0) {
+                            throw error("a hexadecimal digit");
+                        }
+                        hex[i] = (char) digit;
+                    }
+                    return (char) Integer.parseInt(new String(hex), 16);
+                default:
+                    throw error("an escape sequence");
+            }
+        }
+
+        private void expect(char expected) throws IOException {
+            if (next != expected) {
+                throw error("'" + expected + "'");
+            }
+            advance();
+        }
+
+        private void advance() throws IOException {
+            next = reader.read();
+            skipWhitespace();
+        }
+
+        private void skipWhitespace() throws IOException {
+            while (next != -1 && Character.isWhitespace(next)) {
+                next = reader.read();
+            }
+        }
+
+        private IOException error(String expected) {
+            return new IOException("Parameter file is not a JSON object of parameters: expected " + expected);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.XMLEvent;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Merges several JUnit reports into a single report. All 'testsuite' elements of the added reports are copied,
+ * in order, into one 'testsuites' root element. The reports are streamed, so the memory usage does not depend
+ * on the size of the reports.
+ */
+public final class JUnitReportMerger implements Closeable {
+    private static final String TEST_SUITE_ELEMENT = "testsuite";
+    private static final String TEST_SUITES_ELEMENT = "testsuites";
+
+    private final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
+    private final XMLEventWriter writer;
+
+    /**
+     * @param merged Receives the merged report
+     * @throws IOException If the merged report cannot be written
+     */
+    public JUnitReportMerger(OutputStream merged) throws IOException {
+        try {
+            writer = XMLOutputFactory.newInstance().createXMLEventWriter(merged, "UTF-8");
+            writer.add(eventFactory.createStartDocument("UTF-8", "1.0"));
+            writer.add(eventFactory.createStartElement("", "", TEST_SUITES_ELEMENT));
+        } catch (XMLStreamException e) {
+            throw new IOException("JUnit report cannot be written: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Copies all test suites of the given report into the merged report
+     *
+     * @param report The JUnit report
+     * @throws IOException If the report cannot be read
+     */
+    public void add(InputStream report) throws IOException {
+        try {
+            XMLEventReader reader = TestSuiteFile.createInputFactory().createXMLEventReader(report);
+            try {
+                int suiteDepth = 0;
+                while (reader.hasNext()) {
+                    XMLEvent event = reader.nextEvent();
+                    if (event.isStartElement()
+                            && TEST_SUITE_ELEMENT.equals(event.asStartElement().getName().getLocalPart())) {
+                        suiteDepth++;
+                    }
+                    if (suiteDepth > 0) {
+                        writer.add(event);
+                    }
+                    if (event.isEndElement()
+                            && TEST_SUITE_ELEMENT.equals(event.asEndElement().getName().getLocalPart())) {
+                        suiteDepth--;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("JUnit report cannot be merged: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Completes the merged report. The underlying output stream is not closed.
+     *
+     * @throws IOException If the merged report cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            writer.add(eventFactory.createEndElement("", "", TEST_SUITES_ELEMENT));
+            writer.add(eventFactory.createEndDocument());
+            writer.flush();
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("JUnit report cannot be written: " + e.getMessage(), e);
+        }
+    }
+}
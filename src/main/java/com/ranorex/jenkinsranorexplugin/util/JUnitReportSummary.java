@@ -0,0 +1,275 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import javax.annotation.CheckForNull;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Aggregated result of one or more JUnit reports. The report is read with a streaming parser and only the
+ * counts and a limited number of failed test cases are kept, so the memory used does not depend on the size
+ * of the report.
+ */
+public final class JUnitReportSummary implements Serializable {
+    private static final long serialVersionUID = 1L;
+    static final int MAX_FAILED_TESTS = 100;
+    static final int MAX_MESSAGE_LENGTH = 500;
+
+    private int tests;
+    private int failures;
+    private int errors;
+    private int skipped;
+    private int flaky;
+    private double duration;
+    private final List<FailedTest> failedTests = new ArrayList<>();
+
+    /**
+     * Reads a JUnit report
+     *
+     * @param report The content of the JUnit report
+     * @return The summary of the report
+     * @throws IOException If the content is not a valid XML file
+     */
+    public static JUnitReportSummary parse(InputStream report) throws IOException {
+        JUnitReportSummary summary = new JUnitReportSummary();
+        try {
+            XMLStreamReader reader = TestSuiteFile.createInputFactory().createXMLStreamReader(report);
+            try {
+                String className = null;
+                String testName = null;
+                String failureType = null;
+                String message = null;
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        switch (reader.getLocalName()) {
+                            case "testcase":
+                                summary.tests++;
+                                className = reader.getAttributeValue(null, "classname");
+                                testName = reader.getAttributeValue(null, "name");
+                                failureType = null;
+                                message = null;
+                                summary.duration += parseTime(reader.getAttributeValue(null, "time"));
+                                break;
+                            case "failure":
+                            case "error":
+                                if (testName != null && failureType == null) {
+                                    failureType = reader.getLocalName();
+                                    message = reader.getAttributeValue(null, "message");
+                                }
+                                break;
+                            case "skipped":
+                                if (testName != null) {
+                                    summary.skipped++;
+                                }
+                                break;
+                            default:
+                                break;
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT && "testcase".equals(reader.getLocalName())) {
+                        if (failureType != null) {
+                            summary.addFailure(new FailedTest(className, testName, truncate(message),
+                                    "error".equals(failureType)));
+                        }
+                        testName = null;
+                        failureType = null;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("JUnit report is not valid: " + e.getMessage(), e);
+        }
+        return summary;
+    }
+
+    /**
+     * Adds the counts and failed test cases of another summary to this summary
+     *
+     * @param other The summary to add
+     */
+    public void add(JUnitReportSummary other) {
+        tests += other.tests;
+        skipped += other.skipped;
+        duration += other.duration;
+        failures += other.failures;
+        errors += other.errors;
+        flaky += other.flaky;
+        for (FailedTest failedTest : other.failedTests) {
+            if (failedTests.size() >= MAX_FAILED_TESTS) {
+                break;
+            }
+            failedTests.add(failedTest);
+        }
+    }
+
+    private void addFailure(FailedTest failedTest) {
+        if (failedTest.isError()) {
+            errors++;
+        } else {
+            failures++;
+        }
+        if (failedTests.size() < MAX_FAILED_TESTS) {
+            failedTests.add(failedTest);
+        }
+    }
+
+    /**
+     * @return True if all failed test cases are listed in {@link #getFailedTests()}
+     */
+    public boolean isComplete() {
+        return failedTests.size() == failures + errors;
+    }
+
+    /**
+     * @return The distinct names of the failed test cases
+     */
+    public Set<String> getFailedTestNames() {
+        Set<String> names = new LinkedHashSet<>();
+        for (FailedTest failedTest : failedTests) {
+            if (failedTest.getName() != null) {
+                names.add(failedTest.getName());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Records that a failed test case passed when it was run again. The test case no longer counts as failed
+     * but as flaky.
+     *
+     * @param testName The name of the test case
+     */
+    public void markPassed(String testName) {
+        for (Iterator<FailedTest> iterator = failedTests.iterator(); iterator.hasNext(); ) {
+            FailedTest failedTest = iterator.next();
+            if (testName.equals(failedTest.getName())) {
+                iterator.remove();
+                if (failedTest.isError()) {
+                    errors--;
+                } else {
+                    failures--;
+                }
+                flaky++;
+            }
+        }
+    }
+
+    private static double parseTime(@CheckForNull String time) {
+        if (StringUtil.isNullOrSpace(time)) {
+            return 0;
+        }
+        try {
+            return Double.parseDouble(time.trim().replace(",", ""));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @CheckForNull
+    private static String truncate(@CheckForNull String message) {
+        if (message == null || message.length() <= MAX_MESSAGE_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_MESSAGE_LENGTH) + "...";
+    }
+
+    public int getTests() {
+        return tests;
+    }
+
+    public int getFailures() {
+        return failures;
+    }
+
+    public int getErrors() {
+        return errors;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public int getPassed() {
+        return tests - failures - errors - skipped;
+    }
+
+    /**
+     * @return The number of test cases which failed at first and passed when they were run again
+     */
+    public int getFlaky() {
+        return flaky;
+    }
+
+    /**
+     * @return The sum of the durations of all test cases in seconds
+     */
+    public double getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return The first failed test cases, at most {@value #MAX_FAILED_TESTS}
+     */
+    public List<FailedTest> getFailedTests() {
+        return Collections.unmodifiableList(failedTests);
+    }
+
+    @Override
+    public String toString() {
+        return tests + " tests, " + failures + " failures, " + errors + " errors, " + skipped + " skipped"
+                + (flaky > 0 ? ", " + flaky + " passed on retry" : "");
+    }
+
+    /**
+     * A failed test case of the report
+     */
+    public static final class FailedTest implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        @CheckForNull
+        private final String className;
+        private final String name;
+        @CheckForNull
+        private final String message;
+        private final boolean error;
+
+        FailedTest(@CheckForNull String className, String name, @CheckForNull String message, boolean error) {
+            this.className = className;
+            this.name = name;
+            this.message = message;
+            this.error = error;
+        }
+
+        @CheckForNull
+        public String getClassName() {
+            return className;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @CheckForNull
+        public String getMessage() {
+            return message;
+        }
+
+        /**
+         * @return True if the test case ended with an error instead of a failed assertion
+         */
+        public boolean isError() {
+            return error;
+        }
+    }
+}
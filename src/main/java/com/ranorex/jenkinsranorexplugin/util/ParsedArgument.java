@@ -0,0 +1,55 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import javax.annotation.CheckForNull;
+
+/**
+ * The result of parsing a single {@link ArgumentToken}. Either holds the parsed argument or a diagnostic
+ * message describing why the token was rejected.
+ *
+ * @param <T> The type of the parsed argument
+ */
+public final class ParsedArgument<T extends BaseArgument> {
+    private final ArgumentToken token;
+    @CheckForNull
+    private final T argument;
+    @CheckForNull
+    private final String diagnostic;
+
+    private ParsedArgument(ArgumentToken token, @CheckForNull T argument, @CheckForNull String diagnostic) {
+        this.token = token;
+        this.argument = argument;
+        this.diagnostic = diagnostic;
+    }
+
+    static <T extends BaseArgument> ParsedArgument<T> valid(ArgumentToken token, T argument) {
+        return new ParsedArgument<>(token, argument, null);
+    }
+
+    static <T extends BaseArgument> ParsedArgument<T> invalid(ArgumentToken token, String diagnostic) {
+        return new ParsedArgument<>(token, null, diagnostic);
+    }
+
+    public boolean isValid() {
+        return argument != null;
+    }
+
+    public ArgumentToken getToken() {
+        return token;
+    }
+
+    /**
+     * @return The parsed argument or null if the token was rejected
+     */
+    @CheckForNull
+    public T getArgument() {
+        return argument;
+    }
+
+    /**
+     * @return The reason why the token was rejected or null if the token is valid
+     */
+    @CheckForNull
+    public String getDiagnostic() {
+        return diagnostic;
+    }
+}
@@ -0,0 +1,121 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Histograms of the phase durations of Ranorex build steps by job and node, written in the Prometheus text
+ * exposition format.
+ * <p>
+ * At most {@link #MAX_SERIES} combinations of job and node are kept, the combination which did not record a build
+ * step for the longest time is dropped first. Deleted and renamed jobs are removed with {@link #remove(String)}.
+ */
+public final class PhaseHistograms {
+    static final String METRIC = "ranorex_phase_duration_seconds";
+    static final int MAX_SERIES = Integer.getInteger(PhaseHistograms.class.getName() + ".maxSeries", 1000);
+    /**
+     * Upper bounds of the buckets in seconds, from process spawn overhead up to test runs of several hours
+     */
+    static final double[] BUCKETS = {0.1, 0.5, 1, 5, 10, 30, 60, 300, 600, 1800, 3600, 7200, 14400};
+
+    // Least recently recorded first
+    private final Map<String, Series> series = new LinkedHashMap<String, Series>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Series> eldest) {
+            return size() > MAX_SERIES;
+        }
+    };
+
+    /**
+     * Records the timings of one build step
+     *
+     * @param job     The full name of the job
+     * @param node    The name of the node which executed the build step
+     * @param timings The phase timings of the build step
+     */
+    public synchronized void record(String job, String node, PhaseTimings timings) {
+        String labels = "job=\"" + escape(job) + "\",node=\"" + escape(node) + "\"";
+        Series histograms = series.get(labels);
+        if (histograms == null) {
+            histograms = new Series(job);
+            series.put(labels, histograms);
+        }
+        for (PhaseTimings.Phase phase : PhaseTimings.Phase.values()) {
+            histograms.phases[phase.ordinal()].observe(timings.get(phase) / 1000.0);
+        }
+    }
+
+    /**
+     * Removes the histograms of a job on all nodes
+     *
+     * @param job The full name of the job
+     */
+    public synchronized void remove(String job) {
+        series.values().removeIf(histograms -> histograms.job.equals(job));
+    }
+
+    /**
+     * Writes all histograms in the Prometheus text exposition format
+     *
+     * @param writer Receives the metrics
+     * @throws IOException If the metrics cannot be written
+     */
+    public synchronized void write(Writer writer) throws IOException {
+        writer.write("# HELP " + METRIC + " Duration of the phases of Ranorex build steps\n");
+        writer.write("# TYPE " + METRIC + " histogram\n");
+        for (Map.Entry<String, Series> entry : new TreeMap<>(series).entrySet()) {
+            for (PhaseTimings.Phase phase : PhaseTimings.Phase.values()) {
+                String labels = entry.getKey() + ",phase=\"" + phase.getMetricName() + "\"";
+                Histogram histogram = entry.getValue().phases[phase.ordinal()];
+                long cumulative = 0;
+                for (int i = 0; i < BUCKETS.length; i++) {
+                    cumulative += histogram.buckets[i];
+                    writer.write(METRIC + "_bucket{" + labels + ",le=\"" + BUCKETS[i] + "\"} " + cumulative + "\n");
+                }
+                writer.write(METRIC + "_bucket{" + labels + ",le=\"+Inf\"} " + histogram.count + "\n");
+                writer.write(METRIC + "_sum{" + labels + "} " + histogram.sum + "\n");
+                writer.write(METRIC + "_count{" + labels + "} " + histogram.count + "\n");
+            }
+        }
+        writer.flush();
+    }
+
+    static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * The histograms of all phases of one job on one node
+     */
+    private static final class Series {
+        private final String job;
+        private final Histogram[] phases = new Histogram[PhaseTimings.Phase.values().length];
+
+        Series(String job) {
+            this.job = job;
+            for (int i = 0; i < phases.length; i++) {
+                phases[i] = new Histogram();
+            }
+        }
+    }
+
+    private static final class Histogram {
+        private final long[] buckets = new long[BUCKETS.length];
+        private long count;
+        private double sum;
+
+        void observe(double seconds) {
+            for (int i = 0; i < BUCKETS.length; i++) {
+                if (seconds <= BUCKETS[i]) {
+                    buckets[i]++;
+                    break;
+                }
+            }
+            count++;
+            sum += seconds;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accumulated durations of the phases of a Ranorex build step
+ */
+public final class PhaseTimings implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The phases of a build step. The durations are stored by position, so new phases are added at the end.
+     */
+    public enum Phase {
+        ARGUMENTS("Argument compilation"),
+        PATHS("Path resolution"),
+        SPAWN("Process spawn"),
+        FIRST_OUTPUT("Time to first output"),
+        EXECUTION("Test execution"),
+        REPORTS("Report post-processing"),
+        DESKTOP_WAIT("Desktop queue wait");
+
+        private final String displayName;
+
+        Phase(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        /**
+         * @return The name used in metrics and the REST API, e.g. first_output
+         */
+        public String getMetricName() {
+            return name().toLowerCase(Locale.ENGLISH);
+        }
+    }
+
+    private long[] durations = new long[Phase.values().length];
+
+    /**
+     * @param phase    The phase
+     * @param duration The duration in milliseconds which is added to the phase
+     */
+    public synchronized void add(Phase phase, long duration) {
+        if (duration > 0) {
+            durations[phase.ordinal()] += duration;
+        }
+    }
+
+    /**
+     * Adds the time which passed since the given start to the phase
+     *
+     * @param phase The phase
+     * @param start The start of the phase as returned by {@link System#nanoTime()}
+     */
+    public void addSince(Phase phase, long start) {
+        add(phase, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * @param other Timings which are added to these timings
+     */
+    public void add(PhaseTimings other) {
+        for (Phase phase : Phase.values()) {
+            add(phase, other.get(phase));
+        }
+    }
+
+    /**
+     * @param phase The phase
+     * @return The accumulated duration of the phase in milliseconds
+     */
+    public synchronized long get(Phase phase) {
+        return durations[phase.ordinal()];
+    }
+
+    /**
+     * Timings recorded before a phase was added have fewer durations
+     */
+    private Object readResolve() {
+        if (durations == null) {
+            durations = new long[Phase.values().length];
+        } else if (durations.length < Phase.values().length) {
+            durations = Arrays.copyOf(durations, Phase.values().length);
+        }
+        return this;
+    }
+}
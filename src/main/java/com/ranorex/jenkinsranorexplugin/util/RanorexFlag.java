@@ -0,0 +1,115 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import javax.annotation.CheckForNull;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The command line flags of a Ranorex test executable and their aliases
+ */
+public enum RanorexFlag {
+    // Only print information and do not run the test suite
+    HELP(true, false, false, "help", "?"),
+    LIST_CONFIG_PARAMS(true, false, false, "listconfigparams", "lcp"),
+    LIST_GLOBAL_PARAMS(true, false, false, "listglobalparams", "lp"),
+    LIST_TEST_CASE_PARAMS(true, true, false, "listtestcaseparams", "listtestcontainerparams", "ltcpa"),
+    // Set by the plugin configuration
+    RUN_CONFIG(true, true, false, "runconfig", "rc"),
+    REPORT_FILE(true, true, false, "reportfile", "rf"),
+    ZIP_REPORT(true, false, false, "zipreport", "zr"),
+    ZIP_REPORT_FILE(true, true, false, "zipreportfile", "zrf"),
+    JUNIT(true, false, false, "junit", "ju"),
+    PARAM(true, true, true, "param", "pa"),
+    TEST_RAIL(true, false, false, "testrail"),
+    TEST_RAIL_USER(true, true, false, "truser"),
+    TEST_RAIL_PASSWORD(true, true, false, "trpass"),
+    TEST_RAIL_RUN_ID(true, true, false, "trrunid"),
+    TEST_RAIL_RUN_NAME(true, true, false, "trrunname"),
+    // Additional command line arguments
+    REPORT_LEVEL(false, true, false, "reportlevel", "rl"),
+    TEST_SUITE(false, true, false, "testsuite", "ts"),
+    TEST_CASE(false, true, false, "testcase", "testcontainer", "tc"),
+    MODULE(false, true, false, "module", "mo"),
+    TEST_CASE_PARAM(false, true, true, "testcaseparam", "testcontainerparam", "tcpa"),
+    TEST_CASE_DATA_RANGE(false, true, true, "testcasedatarange", "testcontainerdatarange", "tcdr"),
+    RUN_LABEL(false, true, false, "runlabel", "rul"),
+    ENDPOINT(false, true, false, "endpoint", "ep"),
+    ENDPOINT_CONFIG(false, true, false, "endpointconfig", "epc"),
+    ENDPOINT_CONFIG_FILE_PATH(false, true, false, "endpointconfigfilepath", "epcfp");
+
+    private static final Map<String, RanorexFlag> BY_NAME = new HashMap<>();
+
+    static {
+        for (RanorexFlag flag : values()) {
+            for (String name : flag.names) {
+                BY_NAME.put(name, flag);
+            }
+        }
+    }
+
+    private final boolean pluginManaged;
+    private final boolean takesValue;
+    private final boolean repeatable;
+    private final List<String> names;
+
+    RanorexFlag(boolean pluginManaged, boolean takesValue, boolean repeatable, String... names) {
+        this.pluginManaged = pluginManaged;
+        this.takesValue = takesValue;
+        this.repeatable = repeatable;
+        this.names = Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    /**
+     * Looks up a flag by its name or one of its aliases, ignoring case and surrounding white spaces
+     *
+     * @param name The flag without the leading slash
+     * @return The flag or null if the flag is unknown
+     */
+    @CheckForNull
+    public static RanorexFlag forName(@CheckForNull String name) {
+        if (name == null) {
+            return null;
+        }
+        RanorexFlag flag = BY_NAME.get(name);
+        return flag != null ? flag : BY_NAME.get(name.trim().toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * @return The full name of the flag
+     */
+    public String getName() {
+        return names.get(0);
+    }
+
+    /**
+     * @return The full name followed by all aliases
+     */
+    public List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * @return True if the flag is set by the plugin and must not be passed as additional command line argument
+     */
+    public boolean isPluginManaged() {
+        return pluginManaged;
+    }
+
+    /**
+     * @return True if the flag requires a value, e.g. /reportlevel:Info
+     */
+    public boolean isTakesValue() {
+        return takesValue;
+    }
+
+    /**
+     * @return True if the flag may occur more than once on one command line
+     */
+    public boolean isRepeatable() {
+        return repeatable;
+    }
+}
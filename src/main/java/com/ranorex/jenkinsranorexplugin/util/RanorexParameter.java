@@ -2,28 +2,55 @@ package com.ranorex.jenkinsranorexplugin.util;
 
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.List;
 
 public class RanorexParameter extends BaseArgument {
-    private static final ArrayList<String> WHITELIST_PARAM_FLAGS = new ArrayList<>(Arrays.asList(
-            "pa", "param"
-    ));
     private static final String SEPARATOR = ":";
 
 
     public RanorexParameter(String parameterString) {
-        if (isValid(parameterString)) {
-            try {
-                String[] splitParam = trySplitArgument(parameterString);
-                this.flag = splitParam[0];
-                this.name = splitParam[1];
-                this.value = splitParam[2];
-            } catch (InvalidParameterException e) {
-                throw e;
-            }
-        } else {
-            throw new InvalidParameterException("'" + parameterString + "' is not a valid Parameter");
+        ParsedArgument<RanorexParameter> parsed = parse(ArgumentToken.of(parameterString));
+        if (! parsed.isValid()) {
+            throw new InvalidParameterException(parsed.getDiagnostic());
         }
+        RanorexParameter parameter = parsed.getArgument();
+        this.flag = parameter.flag;
+        this.name = parameter.name;
+        this.value = parameter.value;
+    }
+
+    private RanorexParameter(String flag, String name, String value) {
+        super(flag, name, value);
+    }
+
+    /**
+     * Parses a single global parameter without throwing. Parameters without a flag use the flag 'pa'.
+     *
+     * @param token The token created by the {@link ArgumentTokenizer}
+     * @return The parsed parameter or the reason why the parameter is not valid
+     */
+    public static ParsedArgument<RanorexParameter> parse(ArgumentToken token) {
+        String flag = token.hasSeparator() ? token.getFlag() : "";
+        boolean defaultFlag = StringUtil.isNullOrSpace(flag);
+        if (! defaultFlag && ! isValidFlag(flag) || ! containsValidNameValuePair(token)) {
+            return ParsedArgument.invalid(token, "'" + token.getText() + "' is not a valid Parameter");
+        }
+        return ParsedArgument.valid(token, new RanorexParameter(defaultFlag ? "pa" : flag, token.getName(),
+                token.getValue()));
+    }
+
+    /**
+     * Parses all global parameters of the given field
+     *
+     * @param parameters The raw global parameter field
+     * @return The parsed parameters in the order of the field
+     */
+    public static List<ParsedArgument<RanorexParameter>> parseAll(String parameters) {
+        List<ParsedArgument<RanorexParameter>> parsedParameters = new ArrayList<>();
+        for (ArgumentToken token : ArgumentTokenizer.tokenize(parameters)) {
+            parsedParameters.add(parse(token));
+        }
+        return parsedParameters;
     }
 
     protected static String[] trySplitArgument(String parameterString) {
@@ -50,7 +77,7 @@ public class RanorexParameter extends BaseArgument {
     }
 
     public static boolean isValidFlag(String parameterFlag) {
-        return WHITELIST_PARAM_FLAGS.contains(parameterFlag.trim());
+        return RanorexFlag.forName(parameterFlag) == RanorexFlag.PARAM;
     }
 
     public static boolean containsValidNameValuePair(String parameterString) {
@@ -58,15 +85,13 @@ public class RanorexParameter extends BaseArgument {
         return equalPosition > 0 && equalPosition < parameterString.length() - 1;
     }
 
+    private static boolean containsValidNameValuePair(ArgumentToken token) {
+        int equalPosition = token.getEquals() - token.getStart();
+        return equalPosition > 0 && equalPosition < token.getEnd() - token.getStart() - 1;
+    }
+
     public static boolean isValid(String parameterString) {
-        String flag = "";
-        try {
-            flag = tryExtractFlag(parameterString);
-        } catch (Exception e) {
-        }
-        boolean isValidNameValuePair = containsValidNameValuePair(parameterString);
-        return isValidFlag(flag) && isValidNameValuePair
-                || StringUtil.isNullOrSpace(flag) && isValidNameValuePair;
+        return parameterString != null && parse(ArgumentToken.of(parameterString)).isValid();
     }
 
     public static String tryExtractFlag(String parameterString) {
@@ -0,0 +1,91 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Selects the old reports of a report directory which should be deleted.
+ * <p>
+ * A report is a file with the report extension together with the files Ranorex writes next to it, e.g. the
+ * {@code .data} directory with the screenshots and the JUnit report. A report is kept if it is one of the newest
+ * reports or if it is younger than the given number of days.
+ */
+public final class ReportRetention {
+    private static final String JUNIT_SUFFIX = "junit.xml";
+
+    private final int count;
+    private final int days;
+
+    /**
+     * @param count The number of newest reports to keep, 0 if the number is not limited
+     * @param days  The number of days reports are kept, 0 if the age is not limited
+     */
+    public ReportRetention(int count, int days) {
+        this.count = Math.max(0, count);
+        this.days = Math.max(0, days);
+    }
+
+    /**
+     * @return True if reports are deleted at all
+     */
+    public boolean isEnabled() {
+        return count > 0 || days > 0;
+    }
+
+    /**
+     * Returns the files of the reports which are neither among the newest reports nor young enough
+     *
+     * @param directory The report directory
+     * @param extension The extension of the reports without leading dot, e.g. rxlog
+     * @param now       The current time in milliseconds
+     * @return The report files and the files written next to them
+     */
+    public List<File> select(File directory, String extension, long now) {
+        List<File> expired = new ArrayList<>();
+        File[] children = directory.listFiles();
+        if (! isEnabled() || children == null) {
+            return expired;
+        }
+        String suffix = "." + extension.toLowerCase(Locale.ENGLISH);
+        List<File> reports = new ArrayList<>();
+        for (File child : children) {
+            if (child.isFile() && child.getName().toLowerCase(Locale.ENGLISH).endsWith(suffix)) {
+                reports.add(child);
+            }
+        }
+        reports.sort(Comparator.comparingLong(File::lastModified).reversed());
+        long maxAge = TimeUnit.DAYS.toMillis(days);
+        for (int i = 0; i < reports.size(); i++) {
+            File report = reports.get(i);
+            boolean newest = count > 0 && i < count;
+            boolean young = days > 0 && now - report.lastModified() < maxAge;
+            if (newest || young) {
+                continue;
+            }
+            expired.add(report);
+            expired.addAll(companionsOf(report, children, suffix.length()));
+        }
+        return expired;
+    }
+
+    private static List<File> companionsOf(File report, File[] children, int suffixLength) {
+        String name = report.getName();
+        String base = name.substring(0, name.length() - suffixLength) + ".";
+        List<File> companions = new ArrayList<>();
+        for (File child : children) {
+            String childName = child.getName();
+            if (childName.equals(name)) {
+                continue;
+            }
+            if (childName.startsWith(name + ".")
+                    || childName.startsWith(base) && childName.endsWith(JUNIT_SUFFIX)) {
+                companions.add(child);
+            }
+        }
+        return companions;
+    }
+}
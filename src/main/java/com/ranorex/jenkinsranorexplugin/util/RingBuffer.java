@@ -0,0 +1,81 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Keeps the last bytes written to it. When the buffer is full, the oldest bytes are overwritten, so the memory used
+ * is bounded no matter how much is written.
+ */
+public final class RingBuffer {
+    private final byte[] buffer;
+    private int start;
+    private int size;
+    private long dropped;
+
+    /**
+     * @param capacity The maximum number of bytes kept
+     */
+    public RingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive");
+        }
+        this.buffer = new byte[capacity];
+    }
+
+    /**
+     * Appends bytes, dropping the oldest bytes if the buffer is full
+     *
+     * @param b   The data
+     * @param off The offset of the first byte in the data
+     * @param len The number of bytes to append
+     */
+    public void write(byte[] b, int off, int len) {
+        int capacity = buffer.length;
+        if (len >= capacity) {
+            dropped += size + len - capacity;
+            System.arraycopy(b, off + len - capacity, buffer, 0, capacity);
+            start = 0;
+            size = capacity;
+            return;
+        }
+        int end = (start + size) % capacity;
+        int first = Math.min(len, capacity - end);
+        System.arraycopy(b, off, buffer, end, first);
+        System.arraycopy(b, off + first, buffer, 0, len - first);
+        int overflow = size + len - capacity;
+        if (overflow > 0) {
+            start = (start + overflow) % capacity;
+            size = capacity;
+            dropped += overflow;
+        } else {
+            size += len;
+        }
+    }
+
+    /**
+     * Writes the kept bytes from the oldest to the newest
+     *
+     * @param out Receives the bytes, it is not closed
+     * @throws IOException If the bytes cannot be written
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        int first = Math.min(size, buffer.length - start);
+        out.write(buffer, start, first);
+        out.write(buffer, 0, size - first);
+    }
+
+    /**
+     * @return The number of kept bytes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The number of bytes which were overwritten
+     */
+    public long getDropped() {
+        return dropped;
+    }
+}
@@ -0,0 +1,87 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+public abstract class ShardPlanner {
+
+    /**
+     * Splits the items into balanced shards. The order of the items is kept and the size of two shards differs
+     * by at most one item.
+     *
+     * @param items      The items which should be split, e.g. the test containers of a test suite
+     * @param shardCount The number of shards
+     * @param <T>        The type of the items
+     * @return A list with exactly shardCount shards
+     */
+    public static <T> List<List<T>> split(List<T> items, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be greater than zero");
+        }
+        List<List<T>> shards = new ArrayList<>(shardCount);
+        int baseSize = items.size() / shardCount;
+        int remainder = items.size() % shardCount;
+        int start = 0;
+        for (int shard = 0; shard < shardCount; shard++) {
+            int size = baseSize + (shard < remainder ? 1 : 0);
+            shards.add(new ArrayList<>(items.subList(start, start + size)));
+            start += size;
+        }
+        return shards;
+    }
+
+    /**
+     * Splits the items into shards with about the same estimated duration. The items are assigned longest first,
+     * every item goes to the shard with the lowest total duration so far. Within a shard the items keep their
+     * original order.
+     *
+     * @param items      The items which should be split, e.g. the test containers of a test suite
+     * @param shardCount The number of shards
+     * @param estimate   Estimates the duration of an item
+     * @param <T>        The type of the items
+     * @return A list with exactly shardCount shards
+     */
+    public static <T> List<List<T>> schedule(List<T> items, int shardCount, ToLongFunction<? super T> estimate) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be greater than zero");
+        }
+        final long[] durations = new long[items.size()];
+        List<Integer> order = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            durations[i] = estimate.applyAsLong(items.get(i));
+            order.add(i);
+        }
+        // Stable sort, items with the same duration are assigned in their original order
+        Collections.sort(order, Comparator.comparingLong((Integer i) -> durations[i]).reversed());
+
+        long[] loads = new long[shardCount];
+        List<List<Integer>> assigned = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            assigned.add(new ArrayList<Integer>());
+        }
+        for (int index : order) {
+            int lightest = 0;
+            for (int shard = 1; shard < shardCount; shard++) {
+                if (loads[shard] < loads[lightest]) {
+                    lightest = shard;
+                }
+            }
+            loads[lightest] += durations[index];
+            assigned.get(lightest).add(index);
+        }
+
+        List<List<T>> shards = new ArrayList<>(shardCount);
+        for (List<Integer> indexes : assigned) {
+            Collections.sort(indexes);
+            List<T> shard = new ArrayList<>(indexes.size());
+            for (int index : indexes) {
+                shard.add(items.get(index));
+            }
+            shards.add(shard);
+        }
+        return shards;
+    }
+}
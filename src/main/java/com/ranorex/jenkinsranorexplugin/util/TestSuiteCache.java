@@ -0,0 +1,87 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches parsed test suite files by the hash of their content.
+ * <p>
+ * A test suite only changes when it is rebuilt, so builds and the configuration page reuse the parsed structure
+ * as long as the content of the *.rxtst file is the same.
+ */
+public final class TestSuiteCache {
+    static final int DEFAULT_CAPACITY = 64;
+
+    private final Map<String, TestSuiteFile> entries;
+
+    /**
+     * @param capacity The maximum number of cached test suites, the least recently used entry is dropped first
+     */
+    public TestSuiteCache(final int capacity) {
+        this.entries = new LinkedHashMap<String, TestSuiteFile>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TestSuiteFile> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public TestSuiteCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Returns the parsed test suite for the given content, the content is only parsed if it is not cached yet
+     *
+     * @param content The content of the *.rxtst file
+     * @return The parsed test suite
+     * @throws IOException If the content is not a valid test suite file
+     */
+    public TestSuiteFile get(byte[] content) throws IOException {
+        String hash = hashOf(content);
+        synchronized (entries) {
+            TestSuiteFile testSuite = entries.get(hash);
+            if (testSuite != null) {
+                return testSuite;
+            }
+        }
+        // Parsed outside of the lock, two threads may parse the same content but the result is identical
+        TestSuiteFile testSuite = TestSuiteFile.parse(new ByteArrayInputStream(content));
+        synchronized (entries) {
+            entries.put(hash, testSuite);
+        }
+        return testSuite;
+    }
+
+    /**
+     * @return The number of cached test suites
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @param content Any content
+     * @return The hex encoded SHA-256 hash of the content
+     */
+    static String hashOf(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Structure of a Ranorex test suite (*.rxtst) file
+ */
+public final class TestSuiteFile implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final List<String> CONTAINER_ELEMENTS = Arrays.asList(
+            "testcase", "testcontainer", "smartfolder"
+    );
+    private static final String TEST_SUITE_ELEMENT = "testsuite";
+    private static final String TEST_CASE_ELEMENT = "testcase";
+    private static final String RUN_CONFIG_ELEMENT = "runconfig";
+    private static final String NAME_ATTRIBUTE = "name";
+
+    private final String name;
+    private final List<String> testContainers;
+    private final List<String> testCases;
+    private final List<String> runConfigurations;
+
+    private TestSuiteFile(String name, List<String> testContainers, List<String> testCases,
+                          List<String> runConfigurations) {
+        this.name = name;
+        this.testContainers = Collections.unmodifiableList(testContainers);
+        this.testCases = Collections.unmodifiableList(testCases);
+        this.runConfigurations = Collections.unmodifiableList(runConfigurations);
+    }
+
+    /**
+     * Reads the structure of a test suite file
+     *
+     * @param testSuite The content of the *.rxtst file
+     * @return The parsed test suite
+     * @throws IOException If the content is not a valid test suite file
+     */
+    public static TestSuiteFile parse(InputStream testSuite) throws IOException {
+        String suiteName = null;
+        List<String> containers = new ArrayList<>();
+        List<String> testCases = new ArrayList<>();
+        List<String> runConfigurations = new ArrayList<>();
+        int containerDepth = 0;
+        try {
+            XMLStreamReader reader = createInputFactory().createXMLStreamReader(testSuite);
+            try {
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        String element = reader.getLocalName().toLowerCase();
+                        if (suiteName == null && TEST_SUITE_ELEMENT.equals(element)) {
+                            suiteName = reader.getAttributeValue(null, NAME_ATTRIBUTE);
+                        } else if (RUN_CONFIG_ELEMENT.equals(element)) {
+                            addName(runConfigurations, reader.getAttributeValue(null, NAME_ATTRIBUTE));
+                        } else if (CONTAINER_ELEMENTS.contains(element)) {
+                            //Only top level containers are returned, nested containers run with their parent
+                            String containerName = reader.getAttributeValue(null, NAME_ATTRIBUTE);
+                            if (containerDepth == 0 && ! StringUtil.isNullOrSpace(containerName)) {
+                                containers.add(containerName);
+                            }
+                            if (TEST_CASE_ELEMENT.equals(element)) {
+                                addName(testCases, containerName);
+                            }
+                            containerDepth++;
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT
+                            && CONTAINER_ELEMENTS.contains(reader.getLocalName().toLowerCase())) {
+                        containerDepth--;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Test suite file is not valid: " + e.getMessage(), e);
+        }
+        return new TestSuiteFile(suiteName, containers, testCases, runConfigurations);
+    }
+
+    private static void addName(List<String> names, String name) {
+        if (! StringUtil.isNullOrSpace(name) && ! names.contains(name)) {
+            names.add(name);
+        }
+    }
+
+    /**
+     * Creates a StAX factory which does not resolve DTDs or external entities
+     *
+     * @return The input factory
+     */
+    static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The names of the top level test cases and smart folders in the order of the test suite
+     */
+    public List<String> getTestContainers() {
+        return testContainers;
+    }
+
+    /**
+     * @return The names of all test cases including nested test cases in the order of the test suite
+     */
+    public List<String> getTestCases() {
+        return testCases;
+    }
+
+    /**
+     * @return The names of the run configurations of the test suite
+     */
+    public List<String> getRunConfigurations() {
+        return runConfigurations;
+    }
+}
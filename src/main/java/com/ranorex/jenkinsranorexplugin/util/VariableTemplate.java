@@ -0,0 +1,147 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A configuration value which references environment variables as {@code ${NAME}} or {@code $NAME}.
+ * <p>
+ * The value is split once into literal and variable segments, so expanding it for a build only joins the segments.
+ * Variables which are not defined are kept as written, {@code $$} stands for a single dollar sign.
+ */
+public final class VariableTemplate {
+    private final String text;
+    private final List<Segment> segments;
+
+    private VariableTemplate(String text, List<Segment> segments) {
+        this.text = text;
+        this.segments = Collections.unmodifiableList(segments);
+    }
+
+    /**
+     * Splits a value into literal and variable segments
+     *
+     * @param text The configured value, may be null
+     * @return The compiled value
+     */
+    public static VariableTemplate compile(String text) {
+        String value = text == null ? "" : text;
+        List<Segment> segments = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < value.length()) {
+            char c = value.charAt(i);
+            if (c != '$' || i + 1 == value.length()) {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            if (value.charAt(i + 1) == '$') {
+                literal.append('$');
+                i += 2;
+                continue;
+            }
+            int end;
+            String name;
+            if (value.charAt(i + 1) == '{') {
+                end = value.indexOf('}', i + 2) + 1;
+                name = end > i + 3 ? value.substring(i + 2, end - 1) : "";
+            } else {
+                end = i + 1;
+                while (end < value.length() && isNameCharacter(value.charAt(end))) {
+                    end++;
+                }
+                name = value.substring(i + 1, end);
+            }
+            if (! isName(name)) {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            if (literal.length() > 0) {
+                segments.add(new Segment(literal.toString(), null));
+                literal.setLength(0);
+            }
+            segments.add(new Segment(value.substring(i, end), name));
+            i = end;
+        }
+        if (literal.length() > 0) {
+            segments.add(new Segment(literal.toString(), null));
+        }
+        return new VariableTemplate(value, segments);
+    }
+
+    /**
+     * A value which does not reference variables, e.g. a password
+     *
+     * @param text The value, may be null
+     * @return The value as template without variable segments
+     */
+    public static VariableTemplate literal(String text) {
+        String value = text == null ? "" : text;
+        return new VariableTemplate(value, Collections.singletonList(new Segment(value, null)));
+    }
+
+    /**
+     * Replaces the variables with their values
+     *
+     * @param env The variables of the build
+     * @return The expanded value
+     */
+    public String expand(Map<String, String> env) {
+        StringBuilder sb = new StringBuilder();
+        for (Segment segment : segments) {
+            String value = segment.variable != null ? env.get(segment.variable) : null;
+            sb.append(value != null ? value : segment.text);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return True if the value does not reference variables
+     */
+    public boolean isConstant() {
+        for (Segment segment : segments) {
+            if (segment.variable != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The value as configured
+     */
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    private static boolean isName(String name) {
+        for (char c : name.toCharArray()) {
+            if (! isNameCharacter(c) && c != '.') {
+                return false;
+            }
+        }
+        return ! name.isEmpty();
+    }
+
+    private static boolean isNameCharacter(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_';
+    }
+
+    /**
+     * A literal text or a variable reference as written in the value
+     */
+    private static final class Segment {
+        private final String text;
+        private final String variable;
+
+        Segment(String text, String variable) {
+            this.text = text;
+            this.variable = variable;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import hudson.AbortException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DesktopLeaseTest {
+    private static final PrintStream LOGGER = new PrintStream(new ByteArrayOutputStream());
+
+    @Test
+    void acquire_ConcurrentBuildsOnOneNode_StandInProcessesDoNotOverlap() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> builds = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                builds.add(executor.submit(() -> {
+                    try (DesktopLease ignored = DesktopLease.acquire("overlap", 0, LOGGER)) {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        // Stand-in for the test executable
+                        Thread.sleep(20);
+                        running.decrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> build : builds) {
+                build.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    void acquire_WaitingBuilds_FirstInFirstOut() throws Exception {
+        DesktopLease first = DesktopLease.acquire("fifo", 0, LOGGER);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> waiting = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            int number = i;
+            Thread thread = new Thread(() -> {
+                try (DesktopLease ignored = DesktopLease.acquire("fifo", 0, LOGGER)) {
+                    order.add(number);
+                } catch (Exception e) {
+                    order.add(-1);
+                }
+            });
+            thread.start();
+            waiting.add(thread);
+            // Make sure the build is queued before the next one asks for the desktop
+            while (thread.getState() != Thread.State.WAITING) {
+                Thread.sleep(1);
+            }
+        }
+        first.close();
+        for (Thread thread : waiting) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        assertEquals(Arrays.asList(0, 1, 2), order);
+    }
+
+    @Test
+    void acquire_DesktopBusyTooLong_AbortException() throws Exception {
+        try (DesktopLease ignored = DesktopLease.acquire("timeout", 0, LOGGER)) {
+            assertThrows(AbortException.class, () -> DesktopLease.acquire("timeout", 50, LOGGER));
+        }
+        DesktopLease.acquire("timeout", 50, LOGGER).close();
+    }
+
+    @Test
+    void acquire_OtherNode_NotBlocked() throws Exception {
+        try (DesktopLease ignored = DesktopLease.acquire("node-a", 0, LOGGER);
+             DesktopLease other = DesktopLease.acquire("node-b", 50, LOGGER)) {
+            assertTrue(other.getWaited() < 50);
+        }
+    }
+
+    @Test
+    void close_Twice_ReleasesOnce() throws Exception {
+        DesktopLease lease = DesktopLease.acquire("twice", 0, LOGGER);
+        lease.close();
+        lease.close();
+        try (DesktopLease ignored = DesktopLease.acquire("twice", 0, LOGGER)) {
+            assertThrows(AbortException.class, () -> DesktopLease.acquire("twice", 50, LOGGER));
+        }
+    }
+}
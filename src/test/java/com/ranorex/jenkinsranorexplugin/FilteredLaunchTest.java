@@ -0,0 +1,17 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import hudson.Launcher;
+import hudson.util.StreamTaskListener;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilteredLaunchTest {
+
+    @Test
+    void supports_DecoratedLauncher_False() {
+        Launcher launcher = new Launcher.LocalLauncher(StreamTaskListener.fromStdout());
+        assertTrue(FilteredLaunch.supports(launcher));
+        assertFalse(FilteredLaunch.supports(launcher.decorateByPrefix("xvfb-run")));
+    }
+}
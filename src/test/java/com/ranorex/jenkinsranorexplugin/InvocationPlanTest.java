@@ -0,0 +1,137 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvocationPlanTest {
+    private static final String REPORT_DIRECTORY = "C:\\Jenkins\\workspace\\Job\\Reports\\";
+
+    private RanorexRunnerBuilder createBuilder() {
+        RanorexRunnerBuilder builder = new RanorexRunnerBuilder();
+        builder.setRxTestSuiteFilePath("bin\\Debug\\TestSuite.rxtst");
+        builder.setRxReportExtension("rxlog");
+        return builder;
+    }
+
+    @Test
+    void getInvocationPlan_SameConfiguration_SamePlan() {
+        RanorexRunnerBuilder builder = createBuilder();
+        assertSame(builder.getInvocationPlan(), builder.getInvocationPlan());
+    }
+
+    @Test
+    void getInvocationPlan_SetterCalled_NewPlan() {
+        RanorexRunnerBuilder builder = createBuilder();
+        InvocationPlan first = builder.getInvocationPlan();
+        builder.setRxRunConfiguration("Smoke");
+        InvocationPlan second = builder.getInvocationPlan();
+        assertNotSame(first, second);
+        assertNotEquals(first.getFingerprint(), second.getFingerprint());
+    }
+
+    @Test
+    void createArguments_DefaultConfiguration_ExecutableAndReportFile() {
+        InvocationPlan plan = createBuilder().getInvocationPlan();
+        List<String> arguments = plan.createArguments(REPORT_DIRECTORY, REPORT_DIRECTORY).toList();
+        assertEquals(Arrays.asList("TestSuite.exe", "/reportfile:" + REPORT_DIRECTORY + "%S_%Y%M%D_%T.rxlog"), arguments);
+    }
+
+    @Test
+    void createArguments_ParametersAndArguments_ParsedOnce() {
+        RanorexRunnerBuilder builder = createBuilder();
+        builder.setRxGlobalParameter("Name=Value;invalid\n/pa:Other = 1");
+        builder.setCmdLineArgs("/rl:Info;/pa:ignored=1");
+        InvocationPlan plan = builder.getInvocationPlan();
+
+        assertEquals(Arrays.asList("/pa:Name=Value", "/pa:Other=1"), plan.getGlobalParameters());
+        assertEquals(Arrays.asList("invalid"), plan.getIgnoredGlobalParameters());
+        assertEquals(Arrays.asList("/rl:Info"), plan.getCommandLineArguments());
+        assertEquals(Arrays.asList("/pa:ignored=1"), plan.getIgnoredCommandLineArguments());
+        assertTrue(plan.createArguments(REPORT_DIRECTORY, REPORT_DIRECTORY).toList().containsAll(Arrays.asList("/pa:Name=Value", "/pa:Other=1", "/rl:Info")));
+    }
+
+    @Test
+    void createArguments_RepeatedCmdArgument_LastOccurrenceUsed() {
+        RanorexRunnerBuilder builder = createBuilder();
+        builder.setCmdLineArgs("/rl:Info;/tcpa:A:x=1;/reportlevel:Debug;/tcpa:B:y=2");
+        InvocationPlan plan = builder.getInvocationPlan();
+
+        assertEquals(Arrays.asList("/tcpa:A:x=1", "/reportlevel:Debug", "/tcpa:B:y=2"), plan.getCommandLineArguments());
+        assertEquals(Arrays.asList("/rl:Info"), plan.getIgnoredCommandLineArguments());
+    }
+
+    @Test
+    void createArguments_ExtraArguments_ReplaceConfiguredFlags() {
+        RanorexRunnerBuilder builder = createBuilder();
+        builder.setRxJUnitReport(true);
+        builder.setCmdLineArgs("/tc:Smoke;/rl:Info");
+        List<String> arguments = builder.getInvocationPlan()
+                .createArguments(REPORT_DIRECTORY, REPORT_DIRECTORY, "_1", "/testcase:Login", "/junit").toList();
+
+        assertEquals(Arrays.asList("TestSuite.exe", "/reportfile:" + REPORT_DIRECTORY + "%S_%Y%M%D_%T_1.rxlog",
+                "/rl:Info", "/testcase:Login", "/junit"), arguments);
+    }
+
+    @Test
+    void createArguments_Variables_ExpandedWithBuildEnvironment() {
+        RanorexRunnerBuilder builder = createBuilder();
+        builder.setRxRunConfiguration("${CONFIG}");
+        builder.setRxReportFile("%S_${BUILD_NUMBER}");
+        builder.setRxGlobalParameter("Url=${APP_URL}");
+        builder.setCmdLineArgs("/rul:$BRANCH;/rl:$UNDEFINED");
+        InvocationPlan plan = builder.getInvocationPlan();
+        Map<String, String> env = new HashMap<>();
+        env.put("CONFIG", "Smoke");
+        env.put("BUILD_NUMBER", "42");
+        env.put("APP_URL", "http://localhost");
+        env.put("BRANCH", "main");
+
+        List<String> arguments = plan.createArguments(REPORT_DIRECTORY, REPORT_DIRECTORY, "", env).toList();
+        assertEquals(Arrays.asList("TestSuite.exe", "/runconfig:Smoke", "/reportfile:" + REPORT_DIRECTORY
+                + "%S_42.rxlog", "/pa:Url=http://localhost", "/rul:main", "/rl:$UNDEFINED"), arguments);
+        assertEquals("%S_42", plan.getReportFile(env));
+        assertSame(plan, builder.getInvocationPlan());
+    }
+
+    @Test
+    void createArguments_ParameterSuite_NoParametersOnCommandLine() {
+        RanorexRunnerBuilder builder = createBuilder();
+        builder.setRxGlobalParameter("Url=${APP_URL};User=admin");
+        builder.setRxParameterSuite(true);
+        InvocationPlan plan = builder.getInvocationPlan();
+        Map<String, String> env = new HashMap<>();
+        env.put("APP_URL", "http://localhost");
+
+        assertTrue(plan.isParameterSuite());
+        assertEquals(Arrays.asList("TestSuite.exe", "/reportfile:" + REPORT_DIRECTORY + "%S_%Y%M%D_%T.rxlog"),
+                plan.createArguments(REPORT_DIRECTORY, REPORT_DIRECTORY, "", env).toList());
+        Map<String, String> expected = new HashMap<>();
+        expected.put("Url", "http://localhost");
+        expected.put("User", "admin");
+        assertEquals(expected, plan.getGlobalParameterValues(env));
+
+        builder.setRxParameterSuite(false);
+        builder.setRxParameterFile("parameters.json");
+        assertTrue(builder.getInvocationPlan().isParameterSuite());
+    }
+
+    @Test
+    void getConfigurationError_AbsoluteReportFile_ErrorMessage() {
+        RanorexRunnerBuilder builder = createBuilder();
+        builder.setRxReportFile("C:\\Report.rxlog");
+        assertEquals("'C:\\Report.rxlog' is not a valid Ranorex Report filename", builder.getInvocationPlan().getConfigurationError());
+    }
+
+    @Test
+    void getConfigurationError_TestRailWithoutCredentials_ErrorMessage() {
+        RanorexRunnerBuilder builder = createBuilder();
+        builder.setRxTestRail(true);
+        assertEquals("Testrail username and password are required", builder.getInvocationPlan().getConfigurationError());
+    }
+}
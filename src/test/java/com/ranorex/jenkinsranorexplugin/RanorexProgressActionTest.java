@@ -0,0 +1,94 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RanorexProgressActionTest {
+    private static final String OUTPUT = "[Info    ][Test]: Test Suite 'Suite' started.\r\n"
+            + "[Info    ][Test]: Test Case 'Login' started.\r\n"
+            + "[Info    ][Test]: Test Module 'OpenBrowser' started.\r\n"
+            + "[Success ][Test]: Test Module 'OpenBrowser' completed with status 'Success'.\r\n"
+            + "[Success ][Test]: Test Case 'Login' completed with status 'Success'.\r\n"
+            + "[Info    ][Test]: Test Case 'Search' started.\r\n"
+            + "[Failure ][Test]: Test Case 'Search' completed with status 'Failed'.\r\n"
+            + "[Info    ][Test]: Test Case 'Logout' started.";
+
+    @Test
+    void write_ConsoleOutput_UnchangedLogAndProgress() throws Exception {
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        RanorexProgressAction progress = new RanorexProgressAction();
+        RanorexConsoleOutputStream out = new RanorexConsoleOutputStream(log, StandardCharsets.UTF_8, progress);
+        byte[] bytes = OUTPUT.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length; i += 7) {
+            out.write(bytes, i, Math.min(7, bytes.length - i));
+        }
+        assertEquals(0, progress.getRunning());
+        out.close();
+
+        assertEquals(OUTPUT, new String(log.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(1, progress.getPassed());
+        assertEquals(1, progress.getFailed());
+        assertEquals(1, progress.getRunning());
+        // Passed test cases are only counted
+        assertEquals(2, progress.getTests().size());
+        assertEquals("Failed", progress.getTests().get(0).getStatus());
+        assertTrue(progress.getTests().get(1).isRunning());
+    }
+
+    @Test
+    void onEvent_NestedTestCasesWithSameName_InnermostCompleted() throws Exception {
+        RanorexProgressAction progress = new RanorexProgressAction();
+        write(progress, "[Info    ][Test]: Test Case 'Login' started.\r\n"
+                + "[Info    ][Test]: Test Case 'Login' started.\r\n"
+                + "[Failure ][Test]: Test Case 'Login' completed with status 'Failed'.\r\n");
+        assertEquals(1, progress.getRunning());
+        assertEquals(1, progress.getFailed());
+        assertTrue(progress.getTests().get(0).isRunning());
+        assertEquals("Failed", progress.getTests().get(1).getStatus());
+    }
+
+    @Test
+    void endRunning_ProcessKilled_RunningTestsAborted() throws Exception {
+        RanorexProgressAction progress = new RanorexProgressAction();
+        write(progress, "[Info    ][Test]: Test Case 'Login' started.\r\n"
+                + "[Info    ][Test]: Test Case 'Search' started.\r\n");
+        progress.endRunning(System.currentTimeMillis());
+
+        assertEquals(0, progress.getRunning());
+        assertEquals(2, progress.getOther());
+        for (RanorexProgressAction.TestProgress test : progress.getTests()) {
+            assertFalse(test.isRunning());
+            assertEquals(RanorexProgressAction.STATUS_ABORTED, test.getStatus());
+            long duration = test.getDuration();
+            Thread.sleep(5);
+            assertEquals(duration, test.getDuration());
+        }
+    }
+
+    @Test
+    void onEvent_ManyDataDrivenIterations_ListBounded() throws Exception {
+        RanorexProgressAction progress = new RanorexProgressAction();
+        StringBuilder output = new StringBuilder();
+        for (int i = 0; i < RanorexProgressAction.MAX_FAILED_TESTS * 3; i++) {
+            output.append("[Info    ][Test]: Test Case 'Row' started.\r\n")
+                    .append("[Failure ][Test]: Test Case 'Row' completed with status '")
+                    .append(i % 2 == 0 ? "Failed" : "Success").append("'.\r\n");
+        }
+        write(progress, output.toString());
+        assertEquals(RanorexProgressAction.MAX_FAILED_TESTS * 3 / 2, progress.getFailed());
+        assertEquals(RanorexProgressAction.MAX_FAILED_TESTS * 3 / 2, progress.getPassed());
+        assertEquals(RanorexProgressAction.MAX_FAILED_TESTS, progress.getTests().size());
+        assertEquals(RanorexProgressAction.MAX_FAILED_TESTS / 2, progress.getUnlistedFailed());
+    }
+
+    private static void write(RanorexProgressAction progress, String output) throws Exception {
+        try (RanorexConsoleOutputStream out = new RanorexConsoleOutputStream(new ByteArrayOutputStream(),
+                StandardCharsets.UTF_8, progress)) {
+            out.write(output.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
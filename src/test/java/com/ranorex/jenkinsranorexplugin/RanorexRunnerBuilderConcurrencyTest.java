@@ -0,0 +1,105 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import hudson.EnvVars;
+import hudson.FilePath;
+import hudson.Functions;
+import hudson.Launcher;
+import hudson.Proc;
+import hudson.model.Result;
+import hudson.model.TaskListener;
+import hudson.util.StreamTaskListener;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RanorexRunnerBuilderConcurrencyTest {
+    private static final int BUILDS = 32;
+    private static final int THREADS = 8;
+
+    @Test
+    void perform_ConcurrentBuildsOfOneBuilder_IsolatedCommandLinesAndLogs() throws Exception {
+        RanorexRunnerBuilder builder = new RanorexRunnerBuilder();
+        builder.setRxTestSuiteFilePath("TestSuite.rxtst");
+        builder.setRxReportFile("Report");
+        builder.setRxReportExtension("rxlog");
+        builder.setRxGlobalParameter("Name=Value");
+
+        File root = Files.createTempDirectory("ranorex-concurrency").toFile();
+        List<String> workspaces = new ArrayList<>();
+        List<ByteArrayOutputStream> logs = new ArrayList<>();
+        List<Future<Result>> results = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int i = 0; i < BUILDS; i++) {
+                File directory = new File(root, String.format("build-%03d", i));
+                assertTrue(directory.mkdirs());
+                assertTrue(new File(directory, "TestSuite.exe").createNewFile());
+                FilePath workspace = new FilePath(directory);
+                ByteArrayOutputStream log = new ByteArrayOutputStream();
+                workspaces.add(directory.getPath());
+                logs.add(log);
+                results.add(executor.submit(() -> {
+                    TaskListener listener = new StreamTaskListener(log);
+                    Launcher launcher = new StandInLauncher(new Launcher.LocalLauncher(listener));
+                    start.await();
+                    return builder.perform(null, workspace, workspace, new EnvVars(), launcher, listener, true);
+                }));
+            }
+            start.countDown();
+
+            for (int i = 0; i < BUILDS; i++) {
+                assertEquals(Result.SUCCESS, results.get(i).get(60, TimeUnit.SECONDS));
+                String log = new String(logs.get(i).toByteArray(), StandardCharsets.UTF_8);
+                String expectedCommandLine = "TestSuite.exe /reportfile:" + workspaces.get(i) + "\\Report.rxlog /pa:Name=Value";
+                assertTrue(Arrays.asList(log.split("\\r?\\n")).contains(expectedCommandLine), log);
+                assertTrue(log.contains("Ranorex Working Directory:\t" + workspaces.get(i) + "\\"), log);
+                for (int j = 0; j < BUILDS; j++) {
+                    if (i != j) {
+                        assertFalse(log.contains(workspaces.get(j) + "\\"), log);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            new FilePath(root).deleteRecursive();
+        }
+    }
+
+    /**
+     * Replaces the Ranorex test executable with a stand-in process which echoes its command line
+     */
+    private static final class StandInLauncher extends Launcher.DecoratedLauncher {
+        StandInLauncher(Launcher inner) {
+            super(inner);
+        }
+
+        @Override
+        public Proc launch(ProcStarter starter) throws IOException {
+            List<String> cmds = new ArrayList<>(starter.cmds());
+            if (Functions.isWindows()) {
+                cmds.add(2, "echo");
+            } else {
+                cmds.remove(0);
+                cmds.set(0, "echo");
+            }
+            starter.cmds(cmds);
+            starter.masks(new boolean[cmds.size()]);
+            return super.launch(starter);
+        }
+    }
+}
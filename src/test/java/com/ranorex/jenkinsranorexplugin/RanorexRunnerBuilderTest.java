@@ -0,0 +1,98 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import hudson.EnvVars;
+import hudson.FilePath;
+import hudson.Functions;
+import hudson.Launcher;
+import hudson.Proc;
+import hudson.model.Result;
+import hudson.model.TaskListener;
+import hudson.util.StreamTaskListener;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RanorexRunnerBuilderTest {
+
+    @Test
+    void getAdditionalTestSuites_BlankLines_Skipped() {
+        RanorexRunnerBuilder builder = new RanorexRunnerBuilder();
+        builder.setRxAdditionalTestSuites("Login.rxtst\r\n\n  Checkout.rxtst  \n");
+        assertEquals(Arrays.asList("Login.rxtst", "Checkout.rxtst"), builder.getAdditionalTestSuites());
+        builder.setRxAdditionalTestSuites(" ");
+        assertTrue(builder.getAdditionalTestSuites().isEmpty());
+    }
+
+    @Test
+    void forTestSuite_OtherSuite_SameSettingsOriginalUnchanged() {
+        RanorexRunnerBuilder builder = new RanorexRunnerBuilder();
+        builder.setRxTestSuiteFilePath("Smoke.rxtst");
+        builder.setRxReportExtension("rxlog");
+        builder.setRxGlobalParameter("Name=Value");
+        builder.setRxAdditionalTestSuites("Login.rxtst");
+
+        RanorexRunnerBuilder login = builder.forTestSuite("Login.rxtst");
+        assertEquals("Login.rxtst", login.getRxTestSuiteFilePath());
+        assertEquals("Name=Value", login.getRxGlobalParameter());
+        assertTrue(login.getAdditionalTestSuites().isEmpty());
+        assertEquals("Login.exe", login.getInvocationPlan().getExecutableFile());
+        assertEquals("Smoke.rxtst", builder.getRxTestSuiteFilePath());
+        assertEquals("Smoke.exe", builder.getInvocationPlan().getExecutableFile());
+    }
+
+    @Test
+    void perform_DirectLaunch_ExecutableStartedWithoutShell() throws Exception {
+        RanorexRunnerBuilder builder = new RanorexRunnerBuilder();
+        builder.setRxTestSuiteFilePath("TestSuite.rxtst");
+        builder.setRxReportFile("Report");
+        builder.setRxReportExtension("rxlog");
+        builder.setRxDirectLaunch(true);
+
+        File directory = Files.createTempDirectory("ranorex-direct").toFile();
+        try {
+            File executable = new File(directory, "TestSuite.exe");
+            assertTrue(executable.createNewFile());
+            FilePath workspace = new FilePath(directory);
+            TaskListener listener = new StreamTaskListener(new ByteArrayOutputStream());
+            RecordingLauncher launcher = new RecordingLauncher(new Launcher.LocalLauncher(listener));
+            assertEquals(Result.SUCCESS, builder.perform(null, workspace, workspace, new EnvVars(), launcher, listener,
+                    false));
+            assertEquals(executable.getPath(), launcher.cmds.get(0));
+            assertEquals("/reportfile:" + directory.getPath() + "\\Report.rxlog", launcher.cmds.get(1));
+        } finally {
+            new FilePath(directory).deleteRecursive();
+        }
+    }
+
+    /**
+     * Records the command line and starts a stand-in process which echoes it instead
+     */
+    private static final class RecordingLauncher extends Launcher.DecoratedLauncher {
+        private List<String> cmds;
+
+        RecordingLauncher(Launcher inner) {
+            super(inner);
+        }
+
+        @Override
+        public Proc launch(ProcStarter starter) throws IOException {
+            cmds = new ArrayList<>(starter.cmds());
+            List<String> standIn = new ArrayList<>(cmds);
+            standIn.set(0, "echo");
+            if (Functions.isWindows()) {
+                standIn.addAll(0, Arrays.asList("cmd.exe", "/C"));
+            }
+            starter.cmds(standIn);
+            starter.masks(new boolean[standIn.size()]);
+            return super.launch(starter);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import hudson.model.Result;
+import org.jenkinsci.plugins.workflow.steps.BodyInvoker;
+import org.jenkinsci.plugins.workflow.steps.FlowInterruptedException;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RanorexStepExecutionTest {
+
+    @Test
+    void getResult_ExitCode_SuccessOnlyForZero() {
+        assertEquals(Result.SUCCESS, RanorexStepExecution.getResult(0));
+        assertEquals(Result.FAILURE, RanorexStepExecution.getResult(1));
+        assertEquals(Result.FAILURE, RanorexStepExecution.getResult(null));
+    }
+
+    @Test
+    void finish_Success_StepCompleted() {
+        RecordingContext context = new RecordingContext();
+        new RanorexStepExecution(context, new RanorexRunnerBuilder()).finish(null, Result.SUCCESS);
+        assertEquals(Collections.singletonList("success"), context.completions);
+    }
+
+    @Test
+    void finish_Aborted_FlowInterrupted() {
+        RecordingContext context = new RecordingContext();
+        new RanorexStepExecution(context, new RanorexRunnerBuilder()).finish(null, Result.ABORTED);
+        assertEquals(1, context.completions.size());
+        assertTrue(context.failure instanceof FlowInterruptedException);
+        assertEquals(Result.ABORTED, ((FlowInterruptedException) context.failure).getResult());
+    }
+
+    @Test
+    void stop_WhilePreparing_WorkInterruptedAndCompletedOnce() throws Exception {
+        RecordingContext context = new RecordingContext();
+        RanorexStepExecution step = new RanorexStepExecution(context, new RanorexRunnerBuilder());
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        step.submit(() -> {
+            running.countDown();
+            try {
+                // Stand-in for the preparation or the synchronous build step
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            step.finish(null, Result.FAILURE);
+        });
+        assertTrue(running.await(30, TimeUnit.SECONDS));
+        Exception cause = new FlowInterruptedException(Result.ABORTED);
+        step.stop(cause);
+
+        assertTrue(interrupted.await(30, TimeUnit.SECONDS));
+        assertSame(cause, context.failure);
+        assertEquals(Collections.singletonList("failure"), context.completions);
+    }
+
+    @Test
+    void stop_WhileWaitingForDesktop_DesktopNotTaken() throws Exception {
+        RecordingContext context = new RecordingContext();
+        RanorexStepExecution step = new RanorexStepExecution(context, new RanorexRunnerBuilder());
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        PrintStream logger = new PrintStream(log, true);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        try (DesktopLease ignored = DesktopLease.acquire("queued", 0, logger)) {
+            step.submit(() -> {
+                try {
+                    step.leaseDesktop(() -> DesktopLease.acquire("queued", 0, logger));
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                } catch (Exception e) {
+                    // Not expected, the latch is not counted down
+                }
+            });
+            while (! log.toString().contains("Waiting for the desktop")) {
+                Thread.sleep(1);
+            }
+            Exception cause = new FlowInterruptedException(Result.ABORTED);
+            step.stop(cause);
+
+            assertTrue(interrupted.await(30, TimeUnit.SECONDS));
+            assertSame(cause, context.failure);
+        }
+        DesktopLease.acquire("queued", 50, logger).close();
+    }
+
+    @Test
+    void leaseDesktop_StoppedWhileAcquiring_LeaseReleased() throws Exception {
+        RecordingContext context = new RecordingContext();
+        RanorexStepExecution step = new RanorexStepExecution(context, new RanorexRunnerBuilder());
+        PrintStream logger = new PrintStream(new ByteArrayOutputStream());
+        assertFalse(step.leaseDesktop(() -> {
+            // The lease is granted right after stop() looked for it
+            step.stop(new FlowInterruptedException(Result.ABORTED));
+            return DesktopLease.acquire("stopped", 0, logger);
+        }));
+        DesktopLease.acquire("stopped", 50, logger).close();
+        assertEquals(Collections.singletonList("failure"), context.completions);
+    }
+
+    /**
+     * Records how the step was completed, the step has no body and no context objects
+     */
+    static final class RecordingContext extends StepContext {
+        private static final long serialVersionUID = 1L;
+
+        final List<String> completions = Collections.synchronizedList(new ArrayList<>());
+        volatile Throwable failure;
+
+        public <T> T get(Class<T> key) {
+            return null;
+        }
+
+        public void onSuccess(Object result) {
+            completions.add("success");
+        }
+
+        public void onFailure(Throwable t) {
+            failure = t;
+            completions.add("failure");
+        }
+
+        public boolean isReady() {
+            return ! completions.isEmpty();
+        }
+
+        public ListenableFuture<Void> saveState() {
+            return Futures.immediateFuture(null);
+        }
+
+        @Deprecated
+        public void setResult(Result r) {
+        }
+
+        public BodyInvoker newBodyInvoker() {
+            throw new IllegalStateException("The step has no body");
+        }
+
+        public boolean hasBody() {
+            return false;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import hudson.AbortException;
+import hudson.FilePath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResolvedPathsTest {
+    private File workspace;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        workspace = Files.createTempDirectory("ranorex-paths").toFile();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        new FilePath(workspace).deleteRecursive();
+    }
+
+    @Test
+    void resolve_ExistingExecutable_ReportDirectoriesCreated() throws Exception {
+        assertTrue(new File(workspace, "TestSuite.exe").createNewFile());
+
+        ResolvedPaths paths = ResolvedPaths.resolve(new FilePath(workspace), workspace.getPath(), "TestSuite.rxtst",
+                "TestSuite.exe", "Reports", "Zipped", true);
+
+        assertEquals(workspace.getPath(), paths.getWorkingDirectory());
+        assertEquals(workspace.getPath() + "\\", paths.getReportBase());
+        assertEquals(workspace.getPath() + "\\Reports\\", paths.getReportDirectory());
+        assertEquals(workspace.getPath() + "\\Zipped\\", paths.getZippedReportDirectory());
+        assertTrue(new File(workspace, "Reports").isDirectory());
+        assertTrue(new File(workspace, "Zipped").isDirectory());
+    }
+
+    @Test
+    void resolve_NoZippedReport_ZippedReportDirectoryNull() throws Exception {
+        assertTrue(new File(workspace, "TestSuite.exe").createNewFile());
+
+        ResolvedPaths paths = ResolvedPaths.resolve(new FilePath(workspace), workspace.getPath(), "TestSuite.rxtst",
+                "TestSuite.exe", "", "", false);
+
+        assertEquals(workspace.getPath() + "\\", paths.getReportDirectory());
+        assertNull(paths.getZippedReportDirectory());
+    }
+
+    @Test
+    void resolve_MissingExecutable_ThrowsAbortException() {
+        AbortException e = assertThrows(AbortException.class, () -> ResolvedPaths.resolve(new FilePath(workspace),
+                workspace.getPath(), "TestSuite.rxtst", "TestSuite.exe", "Reports", "", false));
+
+        assertTrue(e.getMessage().contains("TestSuite.exe"), e.getMessage());
+        assertFalse(new File(workspace, "Reports").exists());
+    }
+}
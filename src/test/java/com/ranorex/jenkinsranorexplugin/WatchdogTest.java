@@ -0,0 +1,117 @@
+package com.ranorex.jenkinsranorexplugin;
+
+import hudson.Functions;
+import hudson.Launcher;
+import hudson.Proc;
+import hudson.util.StreamTaskListener;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WatchdogTest {
+    private static final long HANG_SECONDS = 60;
+
+    /**
+     * Stand-in for a test executable which prints one line and then hangs, like a test waiting for a dialog
+     */
+    private static List<String> hangingProcess() {
+        if (Functions.isWindows()) {
+            return Arrays.asList("cmd.exe", "/C", "echo started & ping -n " + HANG_SECONDS + " 127.0.0.1 > NUL");
+        }
+        return Arrays.asList("sh", "-c", "echo started; sleep " + HANG_SECONDS);
+    }
+
+    private static List<String> finishingProcess() {
+        if (Functions.isWindows()) {
+            return Arrays.asList("cmd.exe", "/C", "echo done");
+        }
+        return Arrays.asList("sh", "-c", "echo done");
+    }
+
+    private static Proc start(List<String> cmds, Watchdog watchdog, ByteArrayOutputStream out) throws Exception {
+        Launcher launcher = new Launcher.LocalLauncher(StreamTaskListener.fromStdout());
+        return launcher.launch().cmds(cmds).stdout(watchdog.watch(out)).start();
+    }
+
+    @Test
+    void join_HangingProcess_KilledAfterRunTimeout() throws Exception {
+        Watchdog watchdog = new Watchdog(500, 0);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long start = System.nanoTime();
+        Proc proc = start(hangingProcess(), watchdog, out);
+        watchdog.join(proc);
+        long elapsed = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+
+        assertTrue(elapsed < HANG_SECONDS / 2, "Process was not killed in time: " + elapsed + "s");
+        assertFalse(proc.isAlive());
+        assertNotNull(watchdog.getCause());
+        assertTrue(watchdog.getCause().getReason().startsWith("the run timeout"));
+        assertTrue(watchdog.getCause().getKillDuration() >= 0);
+    }
+
+    @Test
+    void join_SilentProcess_KilledAfterInactivityTimeout() throws Exception {
+        Watchdog watchdog = new Watchdog(0, 500);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long start = System.nanoTime();
+        Proc proc = start(hangingProcess(), watchdog, out);
+        watchdog.join(proc);
+        long elapsed = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+
+        assertTrue(elapsed < HANG_SECONDS / 2, "Process was not killed in time: " + elapsed + "s");
+        assertTrue(new String(out.toByteArray(), StandardCharsets.UTF_8).contains("started"));
+        assertTrue(watchdog.getCause().getReason().startsWith("no output"));
+    }
+
+    @Test
+    void join_HangingProcess_KilledAfterLeaseTimeout() throws Exception {
+        Watchdog watchdog = new Watchdog(0, 0, 500);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long start = System.nanoTime();
+        Proc proc = start(hangingProcess(), watchdog, out);
+        watchdog.join(proc);
+        long elapsed = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+
+        assertTrue(elapsed < HANG_SECONDS / 2, "Process was not killed in time: " + elapsed + "s");
+        assertFalse(proc.isAlive());
+        assertTrue(watchdog.getCause().getReason().startsWith("the desktop lease timeout"));
+    }
+
+    @Test
+    void join_FinishingProcess_NoCause() throws Exception {
+        Watchdog watchdog = new Watchdog(TimeUnit.MINUTES.toMillis(1), TimeUnit.MINUTES.toMillis(1));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(0, watchdog.join(start(finishingProcess(), watchdog, out)));
+        assertNull(watchdog.getCause());
+    }
+
+    @Test
+    void join_Interrupted_ProcessKilled() throws Exception {
+        Watchdog watchdog = new Watchdog(TimeUnit.MINUTES.toMillis(1), 0);
+        Proc proc = start(hangingProcess(), watchdog, new ByteArrayOutputStream());
+        Thread build = Thread.currentThread();
+        Thread abort = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                return;
+            }
+            build.interrupt();
+        });
+        abort.start();
+        try {
+            assertThrows(InterruptedException.class, () -> watchdog.join(proc));
+        } finally {
+            abort.join();
+            Thread.interrupted();
+        }
+        assertFalse(proc.isAlive());
+        assertNull(watchdog.getCause());
+    }
+}
@@ -0,0 +1,109 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArgumentTokenizerTest {
+    @Test
+    void tokenize_Null_NoTokens() {
+        assertTrue(ArgumentTokenizer.tokenize(null).isEmpty());
+    }
+
+    @Test
+    void tokenize_OnlySeparatorsAndSpaces_NoTokens() {
+        assertTrue(ArgumentTokenizer.tokenize(" ;\t\r\n  ;").isEmpty());
+    }
+
+    @Test
+    void tokenize_AllSeparators_SplitTokens() {
+        List<ArgumentToken> tokens = ArgumentTokenizer.tokenize("a=1;b=2\tc=3\r\nd=4");
+        assertEquals(4, tokens.size());
+        assertEquals("a=1", tokens.get(0).getText());
+        assertEquals("b=2", tokens.get(1).getText());
+        assertEquals("c=3", tokens.get(2).getText());
+        assertEquals("d=4", tokens.get(3).getText());
+    }
+
+    @Test
+    void tokenize_FlagNameAndValue_CorrectSpans() {
+        ArgumentToken token = ArgumentTokenizer.tokenize("x;/pa:Name=Value").get(1);
+        assertEquals("pa", token.getFlag());
+        assertEquals("Name", token.getName());
+        assertEquals("Value", token.getValue());
+        assertEquals(2, token.getStart());
+        assertEquals(5, token.getSeparator());
+        assertEquals(10, token.getEquals());
+    }
+
+    @Test
+    void tokenize_ColonInValue_NoSeparator() {
+        ArgumentToken token = ArgumentTokenizer.tokenize("Path=C:\\Temp").get(0);
+        assertFalse(token.hasSeparator());
+        assertEquals("Path", token.getName());
+        assertEquals("C:\\Temp", token.getValue());
+    }
+
+    @Test
+    void tokenize_NoEquals_NullValue() {
+        ArgumentToken token = ArgumentTokenizer.tokenize("/rul:MyRunLabel").get(0);
+        assertEquals("rul", token.getFlag());
+        assertEquals("MyRunLabel", token.getName());
+        assertNull(token.getValue());
+    }
+
+    @Test
+    void of_EqualTokenizedArgument_SameSpans() {
+        ArgumentToken token = ArgumentToken.of("/tcpa:Test:Name=a=b");
+        assertEquals("tcpa", token.getFlag());
+        assertEquals("Test:Name", token.getName());
+        assertEquals("a=b", token.getValue());
+    }
+
+    ///parse
+    @Test
+    void parse_ValidParameter_NoDiagnostic() {
+        ParsedArgument<RanorexParameter> parsed = RanorexParameter.parse(ArgumentToken.of("/param:Name=Value"));
+        assertTrue(parsed.isValid());
+        assertNull(parsed.getDiagnostic());
+        assertEquals("/param:Name=Value", parsed.getArgument().toString());
+    }
+
+    @Test
+    void parse_ParameterWithoutFlag_DefaultFlag() {
+        ParsedArgument<RanorexParameter> parsed = RanorexParameter.parse(ArgumentToken.of("Path=C:\\Temp"));
+        assertTrue(parsed.isValid());
+        assertEquals("/pa:Path=C:\\Temp", parsed.getArgument().toString());
+    }
+
+    @Test
+    void parse_InvalidParameter_Diagnostic() {
+        ParsedArgument<RanorexParameter> parsed = RanorexParameter.parse(ArgumentToken.of("/banana:Name=Value"));
+        assertFalse(parsed.isValid());
+        assertNull(parsed.getArgument());
+        assertEquals("'/banana:Name=Value' is not a valid Parameter", parsed.getDiagnostic());
+    }
+
+    @Test
+    void parse_IgnoredCmdArgument_Diagnostic() {
+        ParsedArgument<CmdArgument> parsed = CmdArgument.parse(ArgumentToken.of("/junit"));
+        assertFalse(parsed.isValid());
+        assertEquals("Argument '/junit' will be ignored", parsed.getDiagnostic());
+    }
+
+    @Test
+    void parse_CmdArgumentWithoutFlag_Diagnostic() {
+        ParsedArgument<CmdArgument> parsed = CmdArgument.parse(ArgumentToken.of("/:Name"));
+        assertFalse(parsed.isValid());
+        assertEquals("Argument '/:Name' has no flag", parsed.getDiagnostic());
+    }
+
+    @Test
+    void parse_ValidCmdArgument_SameAsConstructor() {
+        ParsedArgument<CmdArgument> parsed = CmdArgument.parse(ArgumentToken.of("/testcaseparam:MyParam=MyValue"));
+        assertTrue(parsed.isValid());
+        assertEquals(new CmdArgument("/testcaseparam:MyParam=MyValue").toString(), parsed.getArgument().toString());
+    }
+}
@@ -0,0 +1,41 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchScriptTest {
+    @Test
+    void commandLine_PlainArguments_Unchanged() {
+        assertEquals("TestSuite.exe /junit /rc:Smoke",
+                BatchScript.commandLine(Arrays.asList("TestSuite.exe", "/junit", "/rc:Smoke")));
+    }
+
+    @Test
+    void commandLine_RanorexPlaceholders_PercentEscaped() {
+        assertEquals("TestSuite.exe /reportfile:C:\\Reports\\%%S_%%Y%%M%%D_%%T.rxlog",
+                BatchScript.commandLine(Arrays.asList("TestSuite.exe", "/reportfile:C:\\Reports\\%S_%Y%M%D_%T.rxlog")));
+    }
+
+    @Test
+    void quote_Space_Quoted() {
+        assertEquals("\"/pa:Name=Two words\"", BatchScript.quote("/pa:Name=Two words"));
+    }
+
+    @Test
+    void quote_TrailingBackslash_BackslashEscaped() {
+        assertEquals("\"C:\\My Dir\\\\\"", BatchScript.quote("C:\\My Dir\\"));
+    }
+
+    @Test
+    void quote_EmbeddedQuote_QuoteEscaped() {
+        assertEquals("\"say \\\"hi\\\"\"", BatchScript.quote("say \"hi\""));
+    }
+
+    @Test
+    void quote_Empty_EmptyQuotes() {
+        assertEquals("\"\"", BatchScript.quote(""));
+    }
+}
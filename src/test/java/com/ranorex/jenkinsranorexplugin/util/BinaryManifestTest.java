@@ -0,0 +1,66 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryManifestTest {
+    private static BinaryManifest read(String content) throws IOException {
+        return BinaryManifest.read(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void write_AddedFiles_ReadBack() throws IOException {
+        BinaryManifest manifest = new BinaryManifest();
+        manifest.put("TestSuite.exe", "aa", 100);
+        manifest.put("lib/Ranorex Core.dll", "bb", 200, 1500000000000L);
+        StringWriter writer = new StringWriter();
+        manifest.write(writer);
+
+        BinaryManifest actual = read(writer.toString());
+        assertEquals(manifest.getHashes(), actual.getHashes());
+        assertEquals(300, actual.getSize());
+        assertEquals(1500000000000L, actual.getLastModified("lib/Ranorex Core.dll"));
+    }
+
+    @Test
+    void read_CorruptLines_Skipped() throws IOException {
+        BinaryManifest manifest = read("aa\t100\tTestSuite.exe\nbroken\nbb\tabc\tlib.dll\n\t1\tx\ncc\t5\tdata.xlsx\n");
+        assertEquals(2, manifest.getHashes().size());
+        assertTrue(manifest.contains("TestSuite.exe"));
+        assertTrue(manifest.contains("data.xlsx"));
+    }
+
+    @Test
+    void read_ManifestOfEarlierVersion_LastModifiedUnknown() throws IOException {
+        BinaryManifest manifest = read("aa\t100\tTestSuite.exe\nbb\t200\t1500000000000\tlib/Ranorex Core.dll\n");
+        assertEquals(2, manifest.getHashes().size());
+        assertEquals(0, manifest.getLastModified("TestSuite.exe"));
+        assertEquals(1500000000000L, manifest.getLastModified("lib/Ranorex Core.dll"));
+        assertEquals(200, manifest.getSize("lib/Ranorex Core.dll"));
+    }
+
+    @Test
+    void select_KnownAndUnknownPaths_OnlyKnownPaths() {
+        BinaryManifest manifest = new BinaryManifest();
+        manifest.put("TestSuite.exe", "aa", 100);
+        manifest.put("TestSuite.rxtst", "bb", 10);
+        BinaryManifest selected = manifest.select(Arrays.asList("TestSuite.exe", "Missing.dll"));
+        assertEquals(1, selected.getHashes().size());
+        assertEquals(100, selected.getSize());
+    }
+
+    @Test
+    void getDistinctHashes_DuplicateContent_CountedOnce() {
+        BinaryManifest manifest = new BinaryManifest();
+        manifest.put("a/Ranorex.Core.dll", "aa", 100);
+        manifest.put("b/Ranorex.Core.dll", "aa", 100);
+        assertEquals(1, manifest.getDistinctHashes().size());
+    }
+}
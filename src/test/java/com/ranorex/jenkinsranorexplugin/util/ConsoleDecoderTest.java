@@ -0,0 +1,55 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsoleDecoderTest {
+    private static final String PREFIX = "[2019/05/14 10:12:03.147][Info    ][Test]: ";
+
+    @Test
+    void decode_TestCaseStarted_StartEvent() {
+        ConsoleEvent event = ConsoleDecoder.decode(PREFIX + "Test Case 'Login' started.");
+        assertEquals(ConsoleEvent.Kind.TEST_CASE, event.getKind());
+        assertTrue(event.isStarted());
+        assertEquals("Login", event.getName());
+        assertNull(event.getStatus());
+    }
+
+    @Test
+    void decode_TestCaseCompleted_StatusEvent() {
+        ConsoleEvent event = ConsoleDecoder.decode(PREFIX + "Test Case 'Login' completed with status 'Failed'.");
+        assertEquals(ConsoleEvent.Kind.TEST_CASE, event.getKind());
+        assertFalse(event.isStarted());
+        assertEquals("Failed", event.getStatus());
+    }
+
+    @Test
+    void decode_ModuleStarted_ModuleEvent() {
+        ConsoleEvent event = ConsoleDecoder.decode(PREFIX + "Test Module 'OpenBrowser' started.");
+        assertEquals(ConsoleEvent.Kind.MODULE, event.getKind());
+        assertEquals("OpenBrowser", event.getName());
+    }
+
+    @Test
+    void decode_NamedIteration_IterationEvent() {
+        ConsoleEvent event = ConsoleDecoder.decode(PREFIX + "Test Case 'Login' iteration #2 completed with status 'Success'.");
+        assertEquals(ConsoleEvent.Kind.ITERATION, event.getKind());
+        assertEquals(2, event.getIteration());
+        assertEquals("Success", event.getStatus());
+    }
+
+    @Test
+    void decode_UnnamedIteration_IterationEvent() {
+        ConsoleEvent event = ConsoleDecoder.decode(PREFIX + "Iteration #3 started.");
+        assertEquals(ConsoleEvent.Kind.ITERATION, event.getKind());
+        assertEquals(3, event.getIteration());
+        assertNull(event.getName());
+    }
+
+    @Test
+    void decode_OtherLine_Null() {
+        assertNull(ConsoleDecoder.decode(PREFIX + "Mouse Left Click item 'LoginPage.Submit' at 10;20."));
+        assertNull(ConsoleDecoder.decode(""));
+    }
+}
@@ -0,0 +1,38 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsoleFilterTest {
+    private static final String TIME = "[2019/05/14 10:12:03.147]";
+
+    @Test
+    void isRelevant_ErrorOrWarning_True() {
+        assertTrue(ConsoleFilter.isRelevant(TIME + "[Error   ][Validation]: Attribute 'Text' does not match."));
+        assertTrue(ConsoleFilter.isRelevant(TIME + "[Warn    ][Logger]: Item not found, retrying."));
+        assertTrue(ConsoleFilter.isRelevant(TIME + "[Failure ][Test]: Module failed."));
+    }
+
+    @Test
+    void isRelevant_TestCaseSummary_True() {
+        assertTrue(ConsoleFilter.isRelevant(TIME + "[Success ][Test]: Test Case 'Login' completed with status "
+                + "'Success'."));
+        assertTrue(ConsoleFilter.isRelevant(TIME + "[Info    ][Test]: Test Suite 'Smoke' started."));
+    }
+
+    @Test
+    void isRelevant_ModuleOrAction_False() {
+        assertFalse(ConsoleFilter.isRelevant(TIME + "[Info    ][Test]: Test Module 'OpenBrowser' started."));
+        assertFalse(ConsoleFilter.isRelevant(TIME + "[Info    ][Mouse]: Mouse Left Click item 'LoginPage.Submit' "
+                + "at 10;20."));
+        assertFalse(ConsoleFilter.isRelevant(TIME + "[Info    ][Logger]: The error dialog was closed."));
+    }
+
+    @Test
+    void isRelevant_WithoutPrefix_ErrorsOnly() {
+        assertTrue(ConsoleFilter.isRelevant("Unhandled Exception: System.IO.FileNotFoundException"));
+        assertFalse(ConsoleFilter.isRelevant("Ranorex Test Suite Runner 9.0.1"));
+        assertFalse(ConsoleFilter.isRelevant(""));
+    }
+}
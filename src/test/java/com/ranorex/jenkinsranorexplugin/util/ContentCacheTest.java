@@ -0,0 +1,154 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentCacheTest {
+    private Path temp;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        temp = Files.createTempDirectory("ranorex-cache");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(temp)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private static String put(ContentCache cache, String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        String hash = ContentCache.hashOf(new ByteArrayInputStream(bytes));
+        cache.put(hash, new ByteArrayInputStream(bytes));
+        return hash;
+    }
+
+    @Test
+    void getMissing_CachedAndNewHashes_OnlyNewHashes() throws IOException {
+        ContentCache cache = new ContentCache(temp.resolve("cache").toFile());
+        String hash = put(cache, "TestSuite.exe");
+        assertEquals(Collections.singletonList("ff"), cache.getMissing(Arrays.asList(hash, "ff", "ff")));
+    }
+
+    @Test
+    void put_WrongHash_Rejected() {
+        ContentCache cache = new ContentCache(temp.resolve("cache").toFile());
+        assertThrows(IOException.class, () -> cache.put("ff",
+                new ByteArrayInputStream("content".getBytes(StandardCharsets.UTF_8))));
+        assertFalse(cache.getFile("ff").exists());
+    }
+
+    @Test
+    void materialize_CachedFile_ContentPlacedOnce() throws IOException {
+        ContentCache cache = new ContentCache(temp.resolve("cache").toFile());
+        String hash = put(cache, "TestSuite.exe");
+        File target = temp.resolve("workspace").resolve("bin").resolve("TestSuite.exe").toFile();
+
+        assertTrue(cache.materialize(hash, target));
+        assertEquals("TestSuite.exe", new String(Files.readAllBytes(target.toPath()), StandardCharsets.UTF_8));
+        assertFalse(cache.materialize(hash, target));
+    }
+
+    @Test
+    void materialize_ChangedFile_Replaced() throws IOException {
+        ContentCache cache = new ContentCache(temp.resolve("cache").toFile());
+        String hash = put(cache, "new");
+        File target = temp.resolve("TestSuite.exe").toFile();
+        Files.write(target.toPath(), "old".getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(cache.materialize(hash, target));
+        assertEquals("new", new String(Files.readAllBytes(target.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void materialize_TargetModifiedByTestRun_CacheUnchanged() throws IOException {
+        ContentCache cache = new ContentCache(temp.resolve("cache").toFile());
+        String hash = put(cache, "config");
+        File target = temp.resolve("config.xml").toFile();
+
+        assertTrue(cache.materialize(hash, target));
+        Files.write(target.toPath(), "changed".getBytes(StandardCharsets.UTF_8));
+        assertEquals(hash, ContentCache.hashOf(cache.getFile(hash)));
+        assertTrue(cache.materialize(hash, target));
+        assertEquals("config", new String(Files.readAllBytes(target.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void materialize_UnchangedLastModified_TargetNotHashed() throws IOException {
+        ContentCache cache = new ContentCache(temp.resolve("cache").toFile());
+        String hash = put(cache, "TestSuite.exe");
+        File target = temp.resolve("TestSuite.exe").toFile();
+        long lastModified = 1500000000000L;
+
+        assertTrue(cache.materialize(hash, target, lastModified));
+        assertEquals(lastModified, target.lastModified());
+        // Same size and time, only a hash of the content would notice the difference
+        Files.write(target.toPath(), "TestSuite.dll".getBytes(StandardCharsets.UTF_8));
+        assertTrue(target.setLastModified(lastModified));
+        assertFalse(cache.materialize(hash, target, lastModified));
+        assertTrue(target.setLastModified(lastModified + 5000));
+        assertTrue(cache.materialize(hash, target, lastModified));
+        assertEquals("TestSuite.exe", new String(Files.readAllBytes(target.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void materialize_DamagedCacheFile_DeletedAndThrowsIOException() throws IOException {
+        ContentCache cache = new ContentCache(temp.resolve("cache").toFile());
+        String hash = put(cache, "original");
+        Files.write(cache.getFile(hash).toPath(), "damaged".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IOException.class, () -> cache.materialize(hash, temp.resolve("TestSuite.exe").toFile()));
+        assertEquals(Collections.singletonList(hash), cache.getMissing(Collections.singletonList(hash)));
+    }
+
+    @Test
+    void evict_CacheTooLarge_LeastRecentlyUsedDeleted() throws IOException {
+        ContentCache cache = new ContentCache(temp.resolve("cache").toFile());
+        String oldest = put(cache, "aaaa");
+        String used = put(cache, "bbbb");
+        String newest = put(cache, "cccc");
+        long now = System.currentTimeMillis();
+        assertTrue(cache.getFile(oldest).setLastModified(now - 30000));
+        assertTrue(cache.getFile(used).setLastModified(now - 20000));
+        assertTrue(cache.getFile(newest).setLastModified(now - 10000));
+
+        assertEquals(1, cache.evict(8, Collections.singleton(oldest)));
+        assertTrue(cache.getFile(oldest).exists());
+        assertFalse(cache.getFile(used).exists());
+        assertTrue(cache.getFile(newest).exists());
+    }
+
+    @Test
+    void deleteUnreferenced_OldAndRecentFiles_OnlyOldUnreferencedDeleted() throws IOException {
+        ContentCache cache = new ContentCache(temp.resolve("cache").toFile());
+        String referenced = put(cache, "login.png");
+        String unreferenced = put(cache, "dialog.png");
+        String recent = put(cache, "new.png");
+        long now = System.currentTimeMillis();
+        assertTrue(cache.getFile(referenced).setLastModified(now - 30000));
+        assertTrue(cache.getFile(unreferenced).setLastModified(now - 30000));
+
+        assertEquals(1, cache.deleteUnreferenced(Collections.singleton(referenced), now - 10000));
+        assertTrue(cache.getFile(referenced).exists());
+        assertFalse(cache.getFile(unreferenced).exists());
+        assertTrue(cache.getFile(recent).exists());
+        assertTrue(cache.touch(recent));
+        assertFalse(cache.touch(unreferenced));
+    }
+}
@@ -0,0 +1,91 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DurationHistoryTest {
+    private static DurationHistory read(String content) throws IOException {
+        return DurationHistory.read(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void estimate_EmptyHistory_DefaultEstimate() {
+        assertEquals(DurationHistory.DEFAULT_ESTIMATE, new DurationHistory().estimate("Login"));
+    }
+
+    @Test
+    void estimate_UnknownTestContainer_AverageOfKnownDurations() {
+        DurationHistory history = new DurationHistory();
+        history.record("Login", 1000);
+        history.record("Logout", 3000);
+        assertEquals(2000, history.estimate("Checkout"));
+    }
+
+    @Test
+    void record_RepeatedMeasurement_Averaged() {
+        DurationHistory history = new DurationHistory();
+        history.record("Login", 1000);
+        history.record("Login", 3000);
+        assertEquals(2000, history.estimate("Login"));
+    }
+
+    @Test
+    void write_RecordedDurations_ReadBack() throws IOException {
+        DurationHistory history = new DurationHistory();
+        history.record("Log in", 1000);
+        history.record("Logout", 2500);
+        StringWriter writer = new StringWriter();
+        history.write(writer);
+
+        DurationHistory actual = read(writer.toString());
+        assertEquals(history.getDurations(), actual.getDurations());
+    }
+
+    @Test
+    void read_CorruptLines_Skipped() throws IOException {
+        DurationHistory history = read("1000\tLogin\nbroken\nabc\tLogout\n-5\tSetup\n\t\n2000\tCheckout\n");
+        assertEquals(2, history.getDurations().size());
+        assertEquals(1000, history.estimate("Login"));
+        assertEquals(2000, history.estimate("Checkout"));
+    }
+
+    @Test
+    void completeBuild_TestContainerNotReported_RemovedAfterMaxMissedBuilds() throws IOException {
+        DurationHistory history = new DurationHistory();
+        history.record("Deleted", 100000);
+        history.record("Login", 1000);
+        history.completeBuild();
+        for (int i = 1; i < DurationHistory.MAX_MISSED_BUILDS; i++) {
+            history.record("Login", 1000);
+            history.completeBuild();
+            assertTrue(history.getDurations().containsKey("Deleted"));
+            // The missed builds survive writing and reading the history
+            StringWriter writer = new StringWriter();
+            history.write(writer);
+            history = read(writer.toString());
+        }
+        history.record("Login", 1000);
+        history.completeBuild();
+        assertFalse(history.getDurations().containsKey("Deleted"));
+        assertEquals(1000, history.estimate("Checkout"));
+    }
+
+    @Test
+    void completeBuild_TestContainerReportedAgain_Kept() {
+        DurationHistory history = new DurationHistory();
+        history.record("Login", 1000);
+        for (int i = 0; i < DurationHistory.MAX_MISSED_BUILDS * 2; i++) {
+            if (i % 5 == 0) {
+                history.record("Login", 1000);
+            }
+            history.completeBuild();
+        }
+        assertTrue(history.getDurations().containsKey("Login"));
+    }
+}
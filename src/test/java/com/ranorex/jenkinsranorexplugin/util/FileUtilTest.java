@@ -275,4 +275,26 @@ class FileUtilTest {
         String actualResult = FileUtil.removeFileExtension("ThisFileHasNoExtension");
         assertEquals("ThisFileHasNoExtension", actualResult);
     }
+
+    @Test
+    void GetJUnitReportPattern_ReportWithPlaceholders_PatternWithWildcards() {
+        assertEquals("*_***_*_shard1_2.*junit.xml", FileUtil.getJUnitReportPattern("%S_%Y%M%D_%T_shard1_2"));
+    }
+
+    @Test
+    void GetJUnitReportPattern_ReportWithoutPlaceholders_PatternWithReportName() {
+        assertEquals("Report.*junit.xml", FileUtil.getJUnitReportPattern("Report"));
+    }
+
+    @Test
+    void IsCompressed_Screenshot_True() {
+        assertTrue(FileUtil.isCompressed("Screenshot_0001.PNG"));
+        assertTrue(FileUtil.isCompressed("Report.rxzlog"));
+    }
+
+    @Test
+    void IsCompressed_Report_False() {
+        assertFalse(FileUtil.isCompressed("Report.rxlog.data"));
+        assertFalse(FileUtil.isCompressed("Report"));
+    }
 }
@@ -0,0 +1,117 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalParameterFileTest {
+    private static final String TEST_SUITE = "<?xml version=\"1.0\" encoding=\"utf-8\"?>\n"
+            + "<testsuitedoc>\n"
+            + "  <testsuite name=\"Regression\" id=\"1\">\n"
+            + "    <parameters>\n"
+            + "      <param name=\"Url\" id=\"8\">http://localhost</param>\n"
+            + "      <param name=\"User\" id=\"9\">admin</param>\n"
+            + "    </parameters>\n"
+            + "    <testcase name=\"Login\" id=\"2\">\n"
+            + "      <parameters>\n"
+            + "        <param name=\"Url\">http://testcase</param>\n"
+            + "      </parameters>\n"
+            + "    </testcase>\n"
+            + "  </testsuite>\n"
+            + "</testsuitedoc>";
+
+    private static String write(String testSuite, Map<String, String> parameters) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GlobalParameterFile.writeTestSuite(new ByteArrayInputStream(testSuite.getBytes(StandardCharsets.UTF_8)),
+                parameters, out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, String> parameters(String... nameValuePairs) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        for (int i = 0; i < nameValuePairs.length; i += 2) {
+            parameters.put(nameValuePairs[i], nameValuePairs[i + 1]);
+        }
+        return parameters;
+    }
+
+    @Test
+    void readProperties_EscapedValues_Unescaped() throws IOException {
+        Map<String, String> read = GlobalParameterFile.read(new StringReader("# Comment\nUrl=http\\://host\n"
+                + "Path : C:\\\\Temp\n"), "parameters.properties");
+        assertEquals(parameters("Url", "http://host", "Path", "C:\\Temp"), read);
+    }
+
+    @Test
+    void readJson_FlatObject_ValuesAsText() throws IOException {
+        Map<String, String> read = GlobalParameterFile.read(new StringReader("{ \"Url\": \"http://host\",\n"
+                + "\"Count\": 12, \"Enabled\" : true, \"Quote\": \"a\\\"b\\u00e4\", \"Skipped\": null }"),
+                "parameters.JSON");
+        assertEquals(parameters("Url", "http://host", "Count", "12", "Enabled", "true", "Quote", "a\"b\u00e4"),
+                read);
+        assertTrue(GlobalParameterFile.readJson(new StringReader(" {} ")).isEmpty());
+    }
+
+    @Test
+    void readJson_NestedOrTruncated_ThrowsIOException() {
+        for (String json : Arrays.asList("{\"Url\": {\"Host\": \"a\"}}", "[\"Url\"]", "{\"Url\": \"a\"",
+                "{\"Url\": \"a\"} trailing")) {
+            assertThrows(IOException.class, () -> GlobalParameterFile.readJson(new StringReader(json)));
+        }
+    }
+
+    @Test
+    void writeTestSuite_ExistingParameter_ValueReplacedInPlace() throws IOException {
+        String written = write(TEST_SUITE, parameters("Url", "http://staging&co"));
+        assertTrue(written.contains("<param name=\"Url\" id=\"8\">http://staging&amp;co</param>\n"
+                + "      <param name=\"User\" id=\"9\">admin</param>"), written);
+        // Test case parameters with the same name are not changed
+        assertTrue(written.contains("<param name=\"Url\">http://testcase</param>"), written);
+        assertTrue(written.contains("<testcase name=\"Login\" id=\"2\">"), written);
+    }
+
+    @Test
+    void writeTestSuite_NewParameter_AppendedToGlobalParameters() throws IOException {
+        String written = write(TEST_SUITE, parameters("Browser", "Chrome"));
+        assertTrue(written.contains("<param name=\"User\" id=\"9\">admin</param>\n"
+                + "    <param name=\"Browser\">Chrome</param></parameters>"), written);
+    }
+
+    @Test
+    void writeTestSuite_NoParameters_ParametersElementCreated() throws IOException {
+        String written = write("<testsuitedoc><testsuite name=\"Empty\"><testcase name=\"A\"/></testsuite>"
+                + "</testsuitedoc>", parameters("Browser", "Chrome"));
+        assertTrue(written.contains("<testcase name=\"A\"></testcase><parameters><param name=\"Browser\">Chrome"
+                + "</param></parameters></testsuite>"), written);
+    }
+
+    @Test
+    void writeTestSuite_ThousandsOfParameters_AllSet() throws IOException {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            parameters.put("Parameter" + i, "Value" + i);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(5000, GlobalParameterFile.writeTestSuite(
+                new ByteArrayInputStream(TEST_SUITE.getBytes(StandardCharsets.UTF_8)), parameters, out));
+        String written = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(written.contains("<param name=\"Parameter4999\">Value4999</param>"));
+        assertEquals(5000, parameters.size());
+    }
+
+    @Test
+    void writeTestSuite_NoTestSuite_ThrowsIOException() {
+        assertThrows(IOException.class, () -> write("<testsuitedoc/>", Collections.<String, String>emptyMap()));
+        assertThrows(IOException.class, () -> write("<testsuite name=\"Broken\">", parameters("A", "B")));
+    }
+}
@@ -0,0 +1,40 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JUnitReportMergerTest {
+    private static InputStream toStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void add_TwoReports_OneTestSuitesElement() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JUnitReportMerger merger = new JUnitReportMerger(out)) {
+            merger.add(toStream("<testsuites><testsuite name=\"A\"><testcase name=\"a1\"/></testsuite></testsuites>"));
+            merger.add(toStream("<testsuite name=\"B\"><testcase name=\"b1\"><failure message=\"x\"/></testcase></testsuite>"));
+        }
+        String merged = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(merged.contains("<testsuites><testsuite name=\"A\"><testcase name=\"a1\"></testcase></testsuite>")
+                || merged.contains("<testsuites><testsuite name=\"A\"><testcase name=\"a1\"/></testsuite>"), merged);
+        assertTrue(merged.contains("<testsuite name=\"B\">"), merged);
+        assertTrue(merged.contains("<failure message=\"x\""), merged);
+        assertTrue(merged.endsWith("</testsuites>"), merged);
+    }
+
+    @Test
+    void close_NoReports_EmptyTestSuites() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new JUnitReportMerger(out).close();
+        String merged = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(merged.contains("<testsuites>") || merged.contains("<testsuites/>"), merged);
+    }
+}
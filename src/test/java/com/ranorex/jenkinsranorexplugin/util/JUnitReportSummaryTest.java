@@ -0,0 +1,98 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JUnitReportSummaryTest {
+    private static final String REPORT = "<?xml version=\"1.0\" encoding=\"utf-8\"?>"
+            + "<testsuites><testsuite name=\"Suite\" tests=\"4\">"
+            + "<testcase classname=\"Suite.Login\" name=\"Login\" time=\"1.5\"/>"
+            + "<testcase classname=\"Suite.Search\" name=\"Search\" time=\"2\">"
+            + "<failure message=\"Element not found\">stack trace</failure></testcase>"
+            + "<testcase classname=\"Suite.Cart\" name=\"Cart\" time=\"0.5\"><error message=\"Crash\"/></testcase>"
+            + "<testcase classname=\"Suite.Logout\" name=\"Logout\"><skipped/></testcase>"
+            + "</testsuite></testsuites>";
+
+    private static InputStream stream(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void parse_Report_Counts() throws IOException {
+        JUnitReportSummary summary = JUnitReportSummary.parse(stream(REPORT));
+        assertEquals(4, summary.getTests());
+        assertEquals(1, summary.getFailures());
+        assertEquals(1, summary.getErrors());
+        assertEquals(1, summary.getSkipped());
+        assertEquals(1, summary.getPassed());
+        assertEquals(4.0, summary.getDuration(), 0.001);
+        assertEquals(2, summary.getFailedTests().size());
+        assertEquals("Search", summary.getFailedTests().get(0).getName());
+        assertEquals("Element not found", summary.getFailedTests().get(0).getMessage());
+        assertEquals("Suite.Cart", summary.getFailedTests().get(1).getClassName());
+    }
+
+    @Test
+    void parse_InvalidXml_ThrowsIOException() {
+        assertThrows(IOException.class, () -> JUnitReportSummary.parse(stream("<testsuite><testcase")));
+    }
+
+    @Test
+    void parse_ManyFailures_LimitedFailedTests() throws IOException {
+        final int count = 5000;
+        Enumeration<InputStream> parts = new Enumeration<InputStream>() {
+            private int i = - 1;
+
+            @Override
+            public boolean hasMoreElements() {
+                return i <= count;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                i++;
+                if (i == 0) {
+                    return stream("<testsuite>");
+                } else if (i > count) {
+                    return stream("</testsuite>");
+                }
+                return stream("<testcase name=\"T" + i + "\"><failure message=\"m\"/></testcase>");
+            }
+        };
+        JUnitReportSummary summary = JUnitReportSummary.parse(new SequenceInputStream(parts));
+        assertEquals(count, summary.getTests());
+        assertEquals(count, summary.getFailures());
+        assertEquals(JUnitReportSummary.MAX_FAILED_TESTS, summary.getFailedTests().size());
+    }
+
+    @Test
+    void add_TwoSummaries_SumOfCounts() throws IOException {
+        JUnitReportSummary summary = JUnitReportSummary.parse(stream(REPORT));
+        summary.add(JUnitReportSummary.parse(stream(REPORT)));
+        assertEquals(8, summary.getTests());
+        assertEquals(2, summary.getErrors());
+        assertEquals(4, summary.getFailedTests().size());
+        assertEquals("8 tests, 2 failures, 2 errors, 2 skipped", summary.toString());
+    }
+
+    @Test
+    void markPassed_FailedTest_CountedAsFlaky() throws IOException {
+        JUnitReportSummary summary = JUnitReportSummary.parse(stream(REPORT));
+        assertTrue(summary.isComplete());
+        assertEquals("[Search, Cart]", summary.getFailedTestNames().toString());
+        summary.markPassed("Cart");
+        assertEquals(1, summary.getFailures());
+        assertEquals(0, summary.getErrors());
+        assertEquals(1, summary.getFlaky());
+        assertEquals("[Search]", summary.getFailedTestNames().toString());
+        assertEquals("4 tests, 1 failures, 0 errors, 1 skipped, 1 passed on retry", summary.toString());
+    }
+}
@@ -0,0 +1,84 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhaseHistogramsTest {
+    private static String write(PhaseHistograms histograms) throws IOException {
+        StringWriter writer = new StringWriter();
+        histograms.write(writer);
+        return writer.toString();
+    }
+
+    @Test
+    void write_NoBuildSteps_OnlyMetadata() throws IOException {
+        assertEquals("# HELP ranorex_phase_duration_seconds Duration of the phases of Ranorex build steps\n"
+                + "# TYPE ranorex_phase_duration_seconds histogram\n", write(new PhaseHistograms()));
+    }
+
+    @Test
+    void write_RecordedTimings_CumulativeBuckets() throws IOException {
+        PhaseTimings timings = new PhaseTimings();
+        timings.add(PhaseTimings.Phase.SPAWN, 300);
+        PhaseHistograms histograms = new PhaseHistograms();
+        histograms.record("Regression", "win-1", timings);
+        histograms.record("Regression", "win-1", timings);
+
+        String labels = "job=\"Regression\",node=\"win-1\",phase=\"spawn\"";
+        String metrics = write(histograms);
+        assertTrue(metrics.contains("ranorex_phase_duration_seconds_bucket{" + labels + ",le=\"0.1\"} 0\n"), metrics);
+        assertTrue(metrics.contains("ranorex_phase_duration_seconds_bucket{" + labels + ",le=\"0.5\"} 2\n"), metrics);
+        assertTrue(metrics.contains("ranorex_phase_duration_seconds_bucket{" + labels + ",le=\"+Inf\"} 2\n"), metrics);
+        assertTrue(metrics.contains("ranorex_phase_duration_seconds_sum{" + labels + "} 0.6\n"), metrics);
+        assertTrue(metrics.contains("ranorex_phase_duration_seconds_count{" + labels + "} 2\n"), metrics);
+    }
+
+    @Test
+    void remove_DeletedJob_HistogramsOfAllNodesRemoved() throws IOException {
+        PhaseHistograms histograms = new PhaseHistograms();
+        histograms.record("Regression", "win-1", new PhaseTimings());
+        histograms.record("Regression", "win-2", new PhaseTimings());
+        histograms.record("Smoke", "win-1", new PhaseTimings());
+        histograms.remove("Regression");
+
+        String metrics = write(histograms);
+        assertFalse(metrics.contains("job=\"Regression\""), metrics);
+        assertTrue(metrics.contains("job=\"Smoke\""), metrics);
+    }
+
+    @Test
+    void record_MoreSeriesThanLimit_LeastRecentlyRecordedDropped() throws IOException {
+        PhaseHistograms histograms = new PhaseHistograms();
+        histograms.record("Job0", "win-1", new PhaseTimings());
+        for (int i = 1; i <= PhaseHistograms.MAX_SERIES; i++) {
+            histograms.record("Job" + i, "win-1", new PhaseTimings());
+            // Job0 keeps recording build steps, Job1 is the least recently recorded one
+            histograms.record("Job0", "win-1", new PhaseTimings());
+        }
+        String metrics = write(histograms);
+        assertTrue(metrics.contains("job=\"Job0\""));
+        assertFalse(metrics.contains("job=\"Job1\""));
+        assertTrue(metrics.contains("job=\"Job" + PhaseHistograms.MAX_SERIES + "\""));
+    }
+
+    @Test
+    void escape_QuotesAndBackslashes_Escaped() {
+        assertEquals("folder\\\\job \\\"1\\\"\\n", PhaseHistograms.escape("folder\\job \"1\"\n"));
+    }
+
+    @Test
+    void add_OtherTimings_Accumulated() {
+        PhaseTimings timings = new PhaseTimings();
+        timings.add(PhaseTimings.Phase.EXECUTION, 1000);
+        PhaseTimings other = new PhaseTimings();
+        other.add(PhaseTimings.Phase.EXECUTION, 500);
+        other.add(PhaseTimings.Phase.REPORTS, 200);
+        timings.add(other);
+        assertEquals(1500, timings.get(PhaseTimings.Phase.EXECUTION));
+        assertEquals(200, timings.get(PhaseTimings.Phase.REPORTS));
+    }
+}
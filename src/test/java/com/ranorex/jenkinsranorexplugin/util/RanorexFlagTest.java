@@ -0,0 +1,69 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RanorexFlagTest {
+    @Test
+    void forName_Alias_SameFlag() {
+        assertEquals(RanorexFlag.RUN_CONFIG, RanorexFlag.forName("rc"));
+        assertEquals(RanorexFlag.RUN_CONFIG, RanorexFlag.forName("runconfig"));
+        assertEquals(RanorexFlag.REPORT_FILE, RanorexFlag.forName("rf"));
+        assertEquals(RanorexFlag.PARAM, RanorexFlag.forName("pa"));
+    }
+
+    @Test
+    void forName_UpperCaseWithSpaces_Flag() {
+        assertEquals(RanorexFlag.REPORT_LEVEL, RanorexFlag.forName(" ReportLevel "));
+    }
+
+    @Test
+    void forName_Unknown_Null() {
+        assertNull(RanorexFlag.forName("banana"));
+        assertNull(RanorexFlag.forName(null));
+    }
+
+    @Test
+    void getNames_AllFlags_UniqueNames() {
+        Set<String> names = new HashSet<>();
+        for (RanorexFlag flag : RanorexFlag.values()) {
+            for (String name : flag.getNames()) {
+                assertTrue(names.add(name), name);
+            }
+        }
+    }
+
+    @Test
+    void parse_FlagWithoutRequiredValue_Diagnostic() {
+        ParsedArgument<CmdArgument> parsed = CmdArgument.parse(ArgumentToken.of("/rl"));
+        assertFalse(parsed.isValid());
+        assertEquals("Argument '/rl' requires a value", parsed.getDiagnostic());
+    }
+
+    @Test
+    void parseAll_RepeatedFlag_LastOccurrenceUsed() {
+        List<ParsedArgument<CmdArgument>> parsed = CmdArgument.parseAll("/rl:Info;/reportlevel:Debug;/rl:Error");
+        assertEquals(3, parsed.size());
+        assertEquals("Argument '/rl:Info' is overridden by '/reportlevel:Debug'", parsed.get(0).getDiagnostic());
+        assertEquals("Argument '/reportlevel:Debug' is overridden by '/rl:Error'", parsed.get(1).getDiagnostic());
+        assertTrue(parsed.get(2).isValid());
+    }
+
+    @Test
+    void parseAll_RepeatableFlag_AllOccurrencesUsed() {
+        List<ParsedArgument<CmdArgument>> parsed = CmdArgument.parseAll("/tcpa:A:x=1;/tcpa:B:y=2");
+        assertTrue(parsed.get(0).isValid());
+        assertTrue(parsed.get(1).isValid());
+    }
+
+    @Test
+    void parse_ManagedAliasUpperCase_Ignored() {
+        ParsedArgument<CmdArgument> parsed = CmdArgument.parse(ArgumentToken.of("/RC:Default"));
+        assertEquals("Argument '/RC:Default' will be ignored", parsed.getDiagnostic());
+    }
+}
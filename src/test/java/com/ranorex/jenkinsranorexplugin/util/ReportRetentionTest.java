@@ -0,0 +1,94 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportRetentionTest {
+    private static final long NOW = System.currentTimeMillis();
+
+    private File directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("ranorex-retention").toFile();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private File create(String name, int ageInDays) throws IOException {
+        File file = new File(directory, name);
+        assertTrue(file.createNewFile());
+        assertTrue(file.setLastModified(NOW - TimeUnit.DAYS.toMillis(ageInDays) - 1000));
+        return file;
+    }
+
+    private List<String> names(List<File> files) {
+        List<String> names = new ArrayList<>();
+        for (File file : files) {
+            names.add(file.getName());
+        }
+        Collections.sort(names);
+        return names;
+    }
+
+    @Test
+    void select_CountLimit_OldestReportsWithCompanions() throws IOException {
+        create("Suite_1.rxlog", 3);
+        create("Suite_1.rxlog.data", 3);
+        create("Suite_1.junit.xml", 3);
+        create("Suite_2.rxlog", 2);
+        create("Suite_3.rxlog", 1);
+        create("Suite_1.exe", 3);
+
+        List<File> expired = new ReportRetention(2, 0).select(directory, "rxlog", NOW);
+        assertEquals(Arrays.asList("Suite_1.junit.xml", "Suite_1.rxlog", "Suite_1.rxlog.data"), names(expired));
+    }
+
+    @Test
+    void select_DayLimit_OnlyOlderReports() throws IOException {
+        create("Suite_1.rxzlog", 10);
+        create("Suite_2.rxzlog", 5);
+        create("Suite_3.rxzlog", 1);
+
+        List<File> expired = new ReportRetention(0, 7).select(directory, "rxzlog", NOW);
+        assertEquals(Collections.singletonList("Suite_1.rxzlog"), names(expired));
+    }
+
+    @Test
+    void select_BothLimits_ReportKeptByEitherLimit() throws IOException {
+        create("Suite_1.rxlog", 10);
+        create("Suite_2.rxlog", 5);
+        create("Suite_3.rxlog", 4);
+        create("Suite_4.rxlog", 1);
+
+        List<File> expired = new ReportRetention(1, 5).select(directory, "rxlog", NOW);
+        assertEquals(Arrays.asList("Suite_1.rxlog", "Suite_2.rxlog"), names(expired));
+    }
+
+    @Test
+    void select_NoLimit_NothingDeleted() throws IOException {
+        create("Suite_1.rxlog", 100);
+        assertFalse(new ReportRetention(0, 0).isEnabled());
+        assertTrue(new ReportRetention(0, 0).select(directory, "rxlog", NOW).isEmpty());
+    }
+}
@@ -0,0 +1,56 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferTest {
+
+    @Test
+    void writeTo_NotFull_AllBytes() throws IOException {
+        RingBuffer buffer = new RingBuffer(16);
+        write(buffer, "abc");
+        write(buffer, "def");
+        assertEquals("abcdef", contentOf(buffer));
+        assertEquals(0, buffer.getDropped());
+    }
+
+    @Test
+    void writeTo_Wrapped_NewestBytes() throws IOException {
+        RingBuffer buffer = new RingBuffer(8);
+        write(buffer, "abcdef");
+        write(buffer, "ghijk");
+        assertEquals("defghijk", contentOf(buffer));
+        assertEquals(8, buffer.size());
+        assertEquals(3, buffer.getDropped());
+    }
+
+    @Test
+    void writeTo_LargerThanCapacity_TailOfWrite() throws IOException {
+        RingBuffer buffer = new RingBuffer(4);
+        write(buffer, "ab");
+        write(buffer, "cdefgh");
+        assertEquals("efgh", contentOf(buffer));
+        assertEquals(4, buffer.getDropped());
+    }
+
+    @Test
+    void constructor_ZeroCapacity_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer(0));
+    }
+
+    private static void write(RingBuffer buffer, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        buffer.write(bytes, 0, bytes.length);
+    }
+
+    private static String contentOf(RingBuffer buffer) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        buffer.writeTo(out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
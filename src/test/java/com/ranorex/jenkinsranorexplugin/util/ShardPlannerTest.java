@@ -0,0 +1,66 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardPlannerTest {
+    @Test
+    void split_EvenItems_EqualShards() {
+        List<List<String>> shards = ShardPlanner.split(Arrays.asList("A", "B", "C", "D"), 2);
+        assertEquals(Arrays.asList(Arrays.asList("A", "B"), Arrays.asList("C", "D")), shards);
+    }
+
+    @Test
+    void split_UnevenItems_ShardsDifferByOne() {
+        List<List<String>> shards = ShardPlanner.split(Arrays.asList("A", "B", "C", "D", "E"), 3);
+        assertEquals(Arrays.asList(Arrays.asList("A", "B"), Arrays.asList("C", "D"), Arrays.asList("E")), shards);
+    }
+
+    @Test
+    void split_MoreShardsThanItems_EmptyShards() {
+        List<List<String>> shards = ShardPlanner.split(Collections.singletonList("A"), 3);
+        assertEquals(3, shards.size());
+        assertEquals(Collections.singletonList("A"), shards.get(0));
+        assertTrue(shards.get(1).isEmpty());
+        assertTrue(shards.get(2).isEmpty());
+    }
+
+    @Test
+    void split_ZeroShards_ThrowsIllegalArgumentException() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> ShardPlanner.split(Collections.singletonList("A"), 0));
+        assertEquals("Shard count must be greater than zero", e.getMessage());
+    }
+
+    @Test
+    void schedule_UnevenDurations_LongestFirstBalanced() {
+        Map<String, Long> durations = new HashMap<>();
+        durations.put("A", 40L);
+        durations.put("B", 10L);
+        durations.put("C", 10L);
+        durations.put("D", 20L);
+        durations.put("E", 20L);
+        List<List<String>> shards = ShardPlanner.schedule(Arrays.asList("A", "B", "C", "D", "E"), 2,
+                durations::get);
+        assertEquals(Arrays.asList(Arrays.asList("A", "B"), Arrays.asList("C", "D", "E")), shards);
+    }
+
+    @Test
+    void schedule_EqualDurations_KeepsOrderWithinShard() {
+        List<List<String>> shards = ShardPlanner.schedule(Arrays.asList("A", "B", "C", "D"), 2, item -> 1L);
+        assertEquals(Arrays.asList(Arrays.asList("A", "C"), Arrays.asList("B", "D")), shards);
+    }
+
+    @Test
+    void schedule_ZeroShards_ThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ShardPlanner.schedule(Collections.singletonList("A"), 0, item -> 1L));
+    }
+}
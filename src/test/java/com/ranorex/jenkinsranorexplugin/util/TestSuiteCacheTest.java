@@ -0,0 +1,50 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestSuiteCacheTest {
+    private static byte[] testSuite(String name) {
+        return ("<testsuitedoc><testsuite name=\"" + name + "\"><testcase name=\"Login\"/></testsuite></testsuitedoc>")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void get_SameContent_ParsedOnce() throws IOException {
+        TestSuiteCache cache = new TestSuiteCache();
+        TestSuiteFile first = cache.get(testSuite("Regression"));
+        TestSuiteFile second = cache.get(testSuite("Regression"));
+        assertSame(first, second);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void get_ChangedContent_ParsedAgain() throws IOException {
+        TestSuiteCache cache = new TestSuiteCache();
+        assertEquals("Regression", cache.get(testSuite("Regression")).getName());
+        assertEquals("Smoke", cache.get(testSuite("Smoke")).getName());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void get_CapacityExceeded_LeastRecentlyUsedDropped() throws IOException {
+        TestSuiteCache cache = new TestSuiteCache(2);
+        TestSuiteFile first = cache.get(testSuite("A"));
+        cache.get(testSuite("B"));
+        cache.get(testSuite("A"));
+        cache.get(testSuite("C"));
+        assertEquals(2, cache.size());
+        assertSame(first, cache.get(testSuite("A")));
+    }
+
+    @Test
+    void get_InvalidContent_ThrowsIOException() {
+        TestSuiteCache cache = new TestSuiteCache();
+        assertThrows(IOException.class, () -> cache.get("<testsuite".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,56 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestSuiteFileTest {
+    private static final String TEST_SUITE = "<?xml version=\"1.0\" encoding=\"utf-8\"?>\n"
+            + "<testsuitedoc>\n"
+            + "  <testsuite name=\"Regression\" id=\"1\">\n"
+            + "    <runconfigs>\n"
+            + "      <runconfig name=\"Smoke\" id=\"6\"/>\n"
+            + "      <runconfig name=\"Full\" id=\"7\"/>\n"
+            + "    </runconfigs>\n"
+            + "    <testcase name=\"Login\" id=\"2\">\n"
+            + "      <testcase name=\"Nested\" id=\"3\"/>\n"
+            + "    </testcase>\n"
+            + "    <smartfolder name=\"Setup\" id=\"4\"/>\n"
+            + "    <testcase name=\"Logout\" id=\"5\"/>\n"
+            + "  </testsuite>\n"
+            + "</testsuitedoc>";
+
+    private static TestSuiteFile parse(String content) throws IOException {
+        return TestSuiteFile.parse(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void parse_ValidTestSuite_Name() throws IOException {
+        assertEquals("Regression", parse(TEST_SUITE).getName());
+    }
+
+    @Test
+    void parse_ValidTestSuite_TopLevelContainersOnly() throws IOException {
+        assertEquals(Arrays.asList("Login", "Setup", "Logout"), parse(TEST_SUITE).getTestContainers());
+    }
+
+    @Test
+    void parse_ValidTestSuite_RunConfigurations() throws IOException {
+        assertEquals(Arrays.asList("Smoke", "Full"), parse(TEST_SUITE).getRunConfigurations());
+    }
+
+    @Test
+    void parse_ValidTestSuite_AllTestCasesIncludingNested() throws IOException {
+        assertEquals(Arrays.asList("Login", "Nested", "Logout"), parse(TEST_SUITE).getTestCases());
+    }
+
+    @Test
+    void parse_InvalidXml_ThrowsIOException() {
+        assertThrows(IOException.class, () -> parse("<testsuite name=\"Broken\">"));
+    }
+}
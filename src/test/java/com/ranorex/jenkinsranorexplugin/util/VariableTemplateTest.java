@@ -0,0 +1,44 @@
+package com.ranorex.jenkinsranorexplugin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VariableTemplateTest {
+    private static Map<String, String> env() {
+        Map<String, String> env = new HashMap<>();
+        env.put("BUILD_NUMBER", "42");
+        env.put("BRANCH", "main");
+        env.put("app.url", "http://localhost");
+        return env;
+    }
+
+    @Test
+    void expand_BracedAndPlainVariables_Replaced() {
+        VariableTemplate template = VariableTemplate.compile("/pa:Url=${app.url}/$BRANCH/build$BUILD_NUMBER.x");
+        assertFalse(template.isConstant());
+        assertEquals("/pa:Url=http://localhost/main/build42.x", template.expand(env()));
+    }
+
+    @Test
+    void expand_UndefinedVariable_KeptAsWritten() {
+        assertEquals("Report_$UNKNOWN_${MISSING}", VariableTemplate.compile("Report_$UNKNOWN_${MISSING}")
+                .expand(env()));
+    }
+
+    @Test
+    void expand_RanorexPlaceholdersAndEscapedDollar_Literal() {
+        VariableTemplate template = VariableTemplate.compile("%S_%Y%M%D_%T_$$BRANCH_${}_$");
+        assertTrue(template.isConstant());
+        assertEquals("%S_%Y%M%D_%T_$BRANCH_${}_$", template.expand(env()));
+        assertEquals("%S_%Y%M%D_%T_$$BRANCH_${}_$", template.toString());
+    }
+
+    @Test
+    void literal_ValueWithDollar_NotExpanded() {
+        assertEquals("pa$$word$BRANCH", VariableTemplate.literal("pa$$word$BRANCH").expand(env()));
+    }
+}